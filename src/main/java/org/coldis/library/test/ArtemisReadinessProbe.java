@@ -0,0 +1,118 @@
+package org.coldis.library.test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Artemis readiness probe. Opens a connection on the (multi protocol) broker
+ * acceptor with an AMQP protocol header, which the broker only answers once its
+ * acceptors are started, and then checks the management (Jolokia) API used by
+ * {@link ArtemisTestContainerHelper}.
+ */
+public class ArtemisReadinessProbe extends TestContainerReadinessProbe {
+
+	/**
+	 * AMQP protocol header prefix.
+	 */
+	private static final byte[] AMQP_PREFIX = "AMQP".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * AMQP 1.0 protocol header.
+	 */
+	private static final byte[] AMQP_HEADER = { 'A', 'M', 'Q', 'P', 0, 1, 0, 0 };
+
+	/**
+	 * HTTP client.
+	 */
+	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofMillis(TestContainerReadinessProbe.SOCKET_TIMEOUT)).build();
+
+	/**
+	 * If the broker acceptor has answered.
+	 */
+	private Boolean acceptorReady = false;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param port Broker acceptor (container) port.
+	 */
+	public ArtemisReadinessProbe(final Integer port) {
+		super(port);
+	}
+
+	/**
+	 * @see org.coldis.library.test.TestContainerReadinessProbe#waitUntilReady()
+	 */
+	@Override
+	protected void waitUntilReady() {
+		this.acceptorReady = false;
+		super.waitUntilReady();
+	}
+
+	/**
+	 * Probes the management API.
+	 *
+	 * @param  host        Host.
+	 * @return             The probe result.
+	 * @throws IOException If the management API cannot be reached.
+	 */
+	private ProbeResult probeManagement(
+			final String host) throws IOException {
+		final HttpRequest request = HttpRequest
+				.newBuilder(URI.create("http://" + host + ":" + this.waitStrategyTarget.getMappedPort(ArtemisTestContainerHelper.MANAGEMENT_PORT)
+						+ "/console/jolokia/version"))
+				.header("Authorization",
+						"Basic " + Base64.getEncoder()
+								.encodeToString((TestHelper.TEST_USER_NAME + ":" + TestHelper.TEST_USER_PASSWORD).getBytes(StandardCharsets.UTF_8)))
+				.header("Origin", "http://localhost").timeout(Duration.ofMillis(TestContainerReadinessProbe.SOCKET_TIMEOUT)).GET().build();
+		try {
+			return ArtemisReadinessProbe.HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200 ? ProbeResult.READY
+					: ProbeResult.STARTING;
+		}
+		catch (final InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IOException(exception);
+		}
+	}
+
+	/**
+	 * @see org.coldis.library.test.TestContainerReadinessProbe#probe(java.lang.String,
+	 *      java.lang.Integer)
+	 */
+	@Override
+	protected ProbeResult probe(
+			final String host,
+			final Integer mappedPort) throws IOException {
+		// Checks the broker acceptor.
+		if (!this.acceptorReady) {
+			try (Socket socket = TestContainerReadinessProbe.openSocket(host, mappedPort)) {
+				socket.getOutputStream().write(ArtemisReadinessProbe.AMQP_HEADER);
+				socket.getOutputStream().flush();
+				final byte[] reply = new byte[ArtemisReadinessProbe.AMQP_HEADER.length];
+				new DataInputStream(socket.getInputStream()).readFully(reply);
+				if (!Arrays.equals(ArtemisReadinessProbe.AMQP_PREFIX, Arrays.copyOf(reply, ArtemisReadinessProbe.AMQP_PREFIX.length))) {
+					return ProbeResult.DOWN;
+				}
+				this.acceptorReady = true;
+			}
+		}
+		// Then, the management API.
+		try {
+			return this.probeManagement(host);
+		}
+		catch (final IOException exception) {
+			return ProbeResult.STARTING;
+		}
+	}
+
+}
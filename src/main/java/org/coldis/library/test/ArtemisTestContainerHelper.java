@@ -0,0 +1,228 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Artemis test container helper. Resets addresses and queues through the broker
+ * management (Jolokia) API, so one broker can be safely reused across classes.
+ */
+public class ArtemisTestContainerHelper {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArtemisTestContainerHelper.class);
+
+	/**
+	 * Management port.
+	 */
+	public static final Integer MANAGEMENT_PORT = 8161;
+
+	/**
+	 * Management requests sent per round trip.
+	 */
+	public static final Integer BATCH_SIZE = 100;
+
+	/**
+	 * Artemis domain.
+	 */
+	private static final String DOMAIN = "org.apache.activemq.artemis";
+
+	/**
+	 * Default address filter (the fork addresses, ignoring the broker internal
+	 * ones).
+	 */
+	public static final Predicate<String> DEFAULT_ADDRESS_FILTER = address -> !address.startsWith("activemq.") && !address.startsWith("$")
+			&& address.startsWith(TestForkTenancy.getArtemisAddressPrefix());
+
+	/**
+	 * Default address filter for deletion (also keeps the dead letter and expiry
+	 * addresses).
+	 */
+	public static final Predicate<String> DEFAULT_DELETABLE_ADDRESS_FILTER = ArtemisTestContainerHelper.DEFAULT_ADDRESS_FILTER
+			.and(address -> !List.of("DLQ", "ExpiryQueue").contains(address));
+
+	/**
+	 * Object mapper.
+	 */
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * HTTP client.
+	 */
+	private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+	/**
+	 * Broker MBean names (by container id).
+	 */
+	private static final Map<String, String> BROKERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Executes management requests in batches.
+	 *
+	 * @param  container   Artemis container.
+	 * @param  requests    Management requests.
+	 * @return             The request values.
+	 * @throws IOException If a request fails.
+	 */
+	public static List<JsonNode> execute(
+			final GenericContainer<?> container,
+			final List<Map<String, Object>> requests) throws IOException {
+		TestContainerLazyStart.ensureStarted(container);
+		final List<JsonNode> values = new ArrayList<>(requests.size());
+		final URI uri = URI.create("http://" + TestContainerNetwork.getHost(container) + ":"
+				+ TestContainerNetwork.getPort(container, ArtemisTestContainerHelper.MANAGEMENT_PORT)
+				+ "/console/jolokia/");
+		final String authorization = "Basic " + Base64.getEncoder()
+				.encodeToString((TestHelper.TEST_USER_NAME + ":" + TestHelper.TEST_USER_PASSWORD).getBytes(StandardCharsets.UTF_8));
+		for (int batchStart = 0; batchStart < requests.size(); batchStart += ArtemisTestContainerHelper.BATCH_SIZE) {
+			final List<Map<String, Object>> batch = requests.subList(batchStart,
+					Math.min(requests.size(), batchStart + ArtemisTestContainerHelper.BATCH_SIZE));
+			final HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", authorization).header("Content-Type", "application/json")
+					.header("Origin", "http://localhost").timeout(Duration.ofSeconds(30))
+					.POST(HttpRequest.BodyPublishers.ofString(ArtemisTestContainerHelper.OBJECT_MAPPER.writeValueAsString(batch))).build();
+			try {
+				final HttpResponse<String> response = ArtemisTestContainerHelper.HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+				final JsonNode responses = ArtemisTestContainerHelper.OBJECT_MAPPER.readTree(response.body());
+				for (final JsonNode batchResponse : responses) {
+					if (batchResponse.path("status").asInt() != 200) {
+						throw new IOException("Artemis management request failed: " + batchResponse.path("error").asText());
+					}
+					values.add(batchResponse.path("value"));
+				}
+			}
+			catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new IOException(exception);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Gets the broker MBean name.
+	 *
+	 * @param  container   Artemis container.
+	 * @return             The broker MBean name.
+	 * @throws IOException If the broker cannot be found.
+	 */
+	public static String getBroker(
+			final GenericContainer<?> container) throws IOException {
+		String broker = ArtemisTestContainerHelper.BROKERS.get(container.getContainerId());
+		if (broker == null) {
+			final JsonNode brokers = ArtemisTestContainerHelper
+					.execute(container, List.of(Map.of("type", "search", "mbean", ArtemisTestContainerHelper.DOMAIN + ":broker=*"))).get(0);
+			if (brokers.isEmpty()) {
+				throw new IOException("Artemis broker not found.");
+			}
+			broker = brokers.get(0).asText();
+			ArtemisTestContainerHelper.BROKERS.put(container.getContainerId(), broker);
+		}
+		return broker;
+	}
+
+	/**
+	 * Gets the queue MBean names for the addresses matching the filter.
+	 *
+	 * @param  container     Artemis container.
+	 * @param  addressFilter Address filter.
+	 * @return               The queue MBean names.
+	 * @throws IOException   If the queues cannot be retrieved.
+	 */
+	public static List<String> getQueues(
+			final GenericContainer<?> container,
+			final Predicate<String> addressFilter) throws IOException {
+		final String broker = ArtemisTestContainerHelper.getBroker(container);
+		final JsonNode queues = ArtemisTestContainerHelper.execute(container,
+				List.of(Map.of("type", "search", "mbean", broker + ",component=addresses,address=*,subcomponent=queues,routing-type=*,queue=*"))).get(0);
+		final List<String> filteredQueues = new ArrayList<>();
+		for (final JsonNode queue : queues) {
+			final String address = queue.asText().replaceAll(".*,address=\"?([^\",]*)\"?.*", "$1");
+			if (addressFilter.test(address)) {
+				filteredQueues.add(queue.asText());
+			}
+		}
+		return filteredQueues;
+	}
+
+	/**
+	 * Counts the pending messages in the queues of the addresses matching the
+	 * filter.
+	 *
+	 * @param  container     Artemis container.
+	 * @param  addressFilter Address filter.
+	 * @return               The number of pending messages.
+	 * @throws IOException   If the messages cannot be counted.
+	 */
+	public static Long countMessages(
+			final GenericContainer<?> container,
+			final Predicate<String> addressFilter) throws IOException {
+		final List<Map<String, Object>> requests = ArtemisTestContainerHelper.getQueues(container, addressFilter).stream()
+				.map(queue -> Map.<String, Object>of("type", "read", "mbean", queue, "attribute", "MessageCount")).toList();
+		return ArtemisTestContainerHelper.execute(container, requests).stream().mapToLong(JsonNode::asLong).sum();
+	}
+
+	/**
+	 * Drains (removes) every message in the queues of the addresses matching the
+	 * filter.
+	 *
+	 * @param  container     Artemis container.
+	 * @param  addressFilter Address filter.
+	 * @return               The number of removed messages.
+	 * @throws IOException   If the queues cannot be purged.
+	 */
+	public static Long purgeQueues(
+			final GenericContainer<?> container,
+			final Predicate<String> addressFilter) throws IOException {
+		final List<Map<String, Object>> requests = ArtemisTestContainerHelper.getQueues(container, addressFilter).stream()
+				.map(queue -> Map.<String, Object>of("type", "exec", "mbean", queue, "operation", "removeAllMessages()")).toList();
+		final Long removedMessages = ArtemisTestContainerHelper.execute(container, requests).stream().mapToLong(JsonNode::asLong).sum();
+		ArtemisTestContainerHelper.LOGGER.debug("Purged {} Artemis messages from {} queues.", removedMessages, requests.size());
+		return removedMessages;
+	}
+
+	/**
+	 * Deletes the addresses matching the filter (and their queues).
+	 *
+	 * @param  container     Artemis container.
+	 * @param  addressFilter Address filter.
+	 * @return               The number of deleted addresses.
+	 * @throws IOException   If the addresses cannot be deleted.
+	 */
+	public static Integer deleteAddresses(
+			final GenericContainer<?> container,
+			final Predicate<String> addressFilter) throws IOException {
+		final String broker = ArtemisTestContainerHelper.getBroker(container);
+		final JsonNode addresses = ArtemisTestContainerHelper
+				.execute(container, List.of(Map.of("type", "read", "mbean", broker, "attribute", "AddressNames"))).get(0);
+		final List<Map<String, Object>> requests = new ArrayList<>();
+		for (final JsonNode address : addresses) {
+			if (addressFilter.test(address.asText())) {
+				requests.add(Map.of("type", "exec", "mbean", broker, "operation", "deleteAddress(java.lang.String,boolean)", "arguments",
+						List.of(address.asText(), true)));
+			}
+		}
+		ArtemisTestContainerHelper.execute(container, requests);
+		return requests.size();
+	}
+
+}
@@ -0,0 +1,294 @@
+package org.coldis.library.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Postgres readiness probe. Logs in with the test user and database over the
+ * wire protocol (with cleartext, MD5 or SCRAM-SHA-256 authentication): only a
+ * successful authentication followed by a ready for query message means the
+ * server is ready (so the role and database are known to be accepted), while
+ * an error (such as "the database system is starting up") means it is still
+ * starting.
+ */
+public class PostgresReadinessProbe extends TestContainerReadinessProbe {
+
+	/**
+	 * Protocol version (3.0).
+	 */
+	private static final Integer PROTOCOL_VERSION = 196608;
+
+	/**
+	 * Authentication request message.
+	 */
+	private static final Byte AUTHENTICATION = 'R';
+
+	/**
+	 * Error response message.
+	 */
+	private static final Byte ERROR = 'E';
+
+	/**
+	 * Ready for query message.
+	 */
+	private static final Byte READY_FOR_QUERY = 'Z';
+
+	/**
+	 * Password (and SASL response) message.
+	 */
+	private static final Byte PASSWORD = 'p';
+
+	/**
+	 * Terminate message.
+	 */
+	private static final Byte TERMINATE = 'X';
+
+	/**
+	 * Authentication succeeded.
+	 */
+	private static final Integer AUTHENTICATION_OK = 0;
+
+	/**
+	 * Cleartext password requested.
+	 */
+	private static final Integer AUTHENTICATION_CLEARTEXT = 3;
+
+	/**
+	 * MD5 password requested.
+	 */
+	private static final Integer AUTHENTICATION_MD5 = 5;
+
+	/**
+	 * SASL authentication requested.
+	 */
+	private static final Integer AUTHENTICATION_SASL = 10;
+
+	/**
+	 * SASL challenge.
+	 */
+	private static final Integer AUTHENTICATION_SASL_CONTINUE = 11;
+
+	/**
+	 * SASL outcome.
+	 */
+	private static final Integer AUTHENTICATION_SASL_FINAL = 12;
+
+	/**
+	 * SCRAM mechanism.
+	 */
+	private static final String SCRAM_MECHANISM = "SCRAM-SHA-256";
+
+	/**
+	 * Random (for the SCRAM nonces).
+	 */
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/**
+	 * User.
+	 */
+	private final String user;
+
+	/**
+	 * Password.
+	 */
+	private final String password;
+
+	/**
+	 * Database.
+	 */
+	private final String database;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param port     Postgres (container) port.
+	 * @param user     User.
+	 * @param password Password.
+	 * @param database Database.
+	 */
+	public PostgresReadinessProbe(final Integer port, final String user, final String password, final String database) {
+		super(port);
+		this.user = user;
+		this.password = password;
+		this.database = database;
+	}
+
+	/**
+	 * Writes a message.
+	 *
+	 * @param  output      Output.
+	 * @param  type        Message type.
+	 * @param  payload     Message payload.
+	 * @throws IOException If the message cannot be written.
+	 */
+	private static void writeMessage(
+			final DataOutputStream output,
+			final Byte type,
+			final byte[] payload) throws IOException {
+		output.writeByte(type);
+		output.writeInt(Integer.BYTES + payload.length);
+		output.write(payload);
+		output.flush();
+	}
+
+	/**
+	 * Gets a null terminated string.
+	 *
+	 * @param  value Value.
+	 * @return       The null terminated string.
+	 */
+	private static byte[] toCString(
+			final String value) {
+		return (value + "\0").getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Gets the MD5 hash (in hexadecimal) of a value.
+	 *
+	 * @param  value Value.
+	 * @return       The MD5 hash.
+	 */
+	private static String md5(
+			final byte[] value) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(value));
+		}
+		catch (final GeneralSecurityException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/**
+	 * Gets the MD5 password response.
+	 *
+	 * @param  salt Salt.
+	 * @return      The MD5 password response.
+	 */
+	private byte[] getMd5Response(
+			final byte[] salt) {
+		final byte[] userHash = PostgresReadinessProbe.md5((this.password + this.user).getBytes(StandardCharsets.UTF_8)).getBytes(StandardCharsets.US_ASCII);
+		final byte[] saltedHash = Arrays.copyOf(userHash, userHash.length + salt.length);
+		System.arraycopy(salt, 0, saltedHash, userHash.length, salt.length);
+		return PostgresReadinessProbe.toCString("md5" + PostgresReadinessProbe.md5(saltedHash));
+	}
+
+	/**
+	 * Gets the SCRAM client final message (with the proof).
+	 *
+	 * @param  clientFirstBare Client first message (without the GS2 header).
+	 * @param  serverFirst     Server first message.
+	 * @return                 The SCRAM client final message.
+	 */
+	private byte[] getScramClientFinal(
+			final String clientFirstBare,
+			final String serverFirst) {
+		try {
+			final Map<String, String> attributes = Arrays.stream(serverFirst.split(","))
+					.collect(Collectors.toMap(attribute -> attribute.substring(0, 1), attribute -> attribute.substring(2)));
+			final byte[] saltedPassword = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(new PBEKeySpec(this.password.toCharArray(),
+					Base64.getDecoder().decode(attributes.get("s")), Integer.parseInt(attributes.get("i")), 256)).getEncoded();
+			final Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(saltedPassword, "HmacSHA256"));
+			final byte[] clientKey = mac.doFinal("Client Key".getBytes(StandardCharsets.UTF_8));
+			final byte[] storedKey = MessageDigest.getInstance("SHA-256").digest(clientKey);
+			final String clientFinalWithoutProof = "c=biws,r=" + attributes.get("r");
+			mac.init(new SecretKeySpec(storedKey, "HmacSHA256"));
+			final byte[] proof = mac.doFinal((clientFirstBare + "," + serverFirst + "," + clientFinalWithoutProof).getBytes(StandardCharsets.UTF_8));
+			for (Integer index = 0; index < proof.length; index++) {
+				proof[index] ^= clientKey[index];
+			}
+			return (clientFinalWithoutProof + ",p=" + Base64.getEncoder().encodeToString(proof)).getBytes(StandardCharsets.UTF_8);
+		}
+		catch (final GeneralSecurityException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/**
+	 * @see org.coldis.library.test.TestContainerReadinessProbe#probe(java.lang.String,
+	 *      java.lang.Integer)
+	 */
+	@Override
+	protected ProbeResult probe(
+			final String host,
+			final Integer mappedPort) throws IOException {
+		try (Socket socket = TestContainerReadinessProbe.openSocket(host, mappedPort)) {
+			// Sends the startup message.
+			final DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+			final byte[] parameters = ("user\0" + this.user + "\0database\0" + this.database + "\0\0").getBytes(StandardCharsets.UTF_8);
+			output.write(ByteBuffer.allocate(Integer.BYTES * 2 + parameters.length).putInt(Integer.BYTES * 2 + parameters.length)
+					.putInt(PostgresReadinessProbe.PROTOCOL_VERSION).put(parameters).array());
+			output.flush();
+			// Answers the authentication requests until the server is ready for queries (or fails).
+			final DataInputStream input = new DataInputStream(socket.getInputStream());
+			String clientFirstBare = null;
+			while (true) {
+				final Byte responseType = input.readByte();
+				final byte[] payload = new byte[input.readInt() - Integer.BYTES];
+				input.readFully(payload);
+				if (PostgresReadinessProbe.ERROR.equals(responseType)) {
+					return ProbeResult.STARTING;
+				}
+				else if (PostgresReadinessProbe.READY_FOR_QUERY.equals(responseType)) {
+					PostgresReadinessProbe.writeMessage(output, PostgresReadinessProbe.TERMINATE, new byte[0]);
+					return ProbeResult.READY;
+				}
+				else if (PostgresReadinessProbe.AUTHENTICATION.equals(responseType)) {
+					final Integer authentication = ByteBuffer.wrap(payload).getInt();
+					if (PostgresReadinessProbe.AUTHENTICATION_CLEARTEXT.equals(authentication)) {
+						PostgresReadinessProbe.writeMessage(output, PostgresReadinessProbe.PASSWORD, PostgresReadinessProbe.toCString(this.password));
+					}
+					else if (PostgresReadinessProbe.AUTHENTICATION_MD5.equals(authentication)) {
+						PostgresReadinessProbe.writeMessage(output, PostgresReadinessProbe.PASSWORD,
+								this.getMd5Response(Arrays.copyOfRange(payload, Integer.BYTES, payload.length)));
+					}
+					else if (PostgresReadinessProbe.AUTHENTICATION_SASL.equals(authentication)) {
+						final List<String> mechanisms = List
+								.of(new String(payload, Integer.BYTES, payload.length - Integer.BYTES, StandardCharsets.UTF_8).split("\0"));
+						if (!mechanisms.contains(PostgresReadinessProbe.SCRAM_MECHANISM)) {
+							throw new IOException("Unsupported Postgres SASL mechanisms: " + mechanisms + ".");
+						}
+						final byte[] nonce = new byte[18];
+						PostgresReadinessProbe.RANDOM.nextBytes(nonce);
+						clientFirstBare = "n=,r=" + Base64.getEncoder().encodeToString(nonce);
+						final byte[] clientFirst = ("n,," + clientFirstBare).getBytes(StandardCharsets.UTF_8);
+						final ByteArrayOutputStream response = new ByteArrayOutputStream();
+						response.write(PostgresReadinessProbe.toCString(PostgresReadinessProbe.SCRAM_MECHANISM));
+						response.write(ByteBuffer.allocate(Integer.BYTES).putInt(clientFirst.length).array());
+						response.write(clientFirst);
+						PostgresReadinessProbe.writeMessage(output, PostgresReadinessProbe.PASSWORD, response.toByteArray());
+					}
+					else if (PostgresReadinessProbe.AUTHENTICATION_SASL_CONTINUE.equals(authentication)) {
+						PostgresReadinessProbe.writeMessage(output, PostgresReadinessProbe.PASSWORD, this.getScramClientFinal(clientFirstBare,
+								new String(payload, Integer.BYTES, payload.length - Integer.BYTES, StandardCharsets.UTF_8)));
+					}
+					else if (!PostgresReadinessProbe.AUTHENTICATION_OK.equals(authentication)
+							&& !PostgresReadinessProbe.AUTHENTICATION_SASL_FINAL.equals(authentication)) {
+						throw new IOException("Unsupported Postgres authentication request: " + authentication + ".");
+					}
+				}
+				// Other messages (such as parameter status and backend key data) are ignored.
+			}
+		}
+	}
+
+}
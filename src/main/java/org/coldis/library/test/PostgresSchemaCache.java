@@ -0,0 +1,271 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Postgres prepared schema cache. Saves a prepared database (schema and
+ * reference data) as a dump in a local cache, keyed by a content hash of the
+ * migration scripts and entity classes (and the Postgres image), so later runs
+ * (and forks) restore it instead of creating the schema again until the hash
+ * changes. The schema is never restored into the default (test user) database,
+ * whose extensions are installed by the image, but into a copy of it.
+ */
+public class PostgresSchemaCache {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(PostgresSchemaCache.class);
+
+	/**
+	 * Enabled property (restores the cached schema automatically when the
+	 * container starts).
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.postgres.schema-cache.enabled";
+
+	/**
+	 * Schema cached property suffix (set to whether the schema has been restored from
+	 * cache, so schema creation can be skipped).
+	 */
+	public static final String SCHEMA_CACHED_PROPERTY_SUFFIX = "_SCHEMA_CACHED";
+
+	/**
+	 * Migration resources property (comma separated resource patterns).
+	 */
+	public static final String MIGRATIONS_PROPERTY = "project.config.source.test.postgres.schema-cache.migrations";
+
+	/**
+	 * Default migration resources.
+	 */
+	public static final String DEFAULT_MIGRATIONS = "classpath*:db/migration/**/*.sql,classpath*:db/changelog/**/*.*";
+
+	/**
+	 * Entity packages property (comma separated packages).
+	 */
+	public static final String ENTITY_PACKAGES_PROPERTY = "project.config.source.test.postgres.schema-cache.entity-packages";
+
+	/**
+	 * Default entity packages.
+	 */
+	public static final String DEFAULT_ENTITY_PACKAGES = "org.coldis";
+
+	/**
+	 * Cache directory property.
+	 */
+	public static final String DIRECTORY_PROPERTY = "project.config.source.test.postgres.schema-cache.directory";
+
+	/**
+	 * Default cache directory.
+	 */
+	public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("user.home"), ".cache", "coldis-test", "postgres-schema");
+
+	/**
+	 * Entity annotation.
+	 */
+	private static final String ENTITY_ANNOTATION = "jakarta.persistence.Entity";
+
+	/**
+	 * Dump path in the container.
+	 */
+	private static final String CONTAINER_DUMP_PATH = "/tmp/schema-cache.dump";
+
+	/**
+	 * Cache key (computed once per JVM).
+	 */
+	private static String CACHE_KEY;
+
+	/**
+	 * If the cached schema should be restored automatically.
+	 *
+	 * @return If the cached schema should be restored automatically.
+	 */
+	public static Boolean isEnabled() {
+		return Objects.equals(System.getProperty(PostgresSchemaCache.ENABLED_PROPERTY), "true");
+	}
+
+	/**
+	 * Gets a comma separated property.
+	 *
+	 * @param  property     Property name.
+	 * @param  defaultValue Default value.
+	 * @return              The property values.
+	 */
+	private static String[] getListProperty(
+			final String property,
+			final String defaultValue) {
+		return Arrays.stream(System.getProperty(property, defaultValue).split(",")).map(String::trim).filter(StringUtils::isNotEmpty)
+				.toArray(String[]::new);
+	}
+
+	/**
+	 * Gets the cache key (content hash of the migration scripts and entity
+	 * classes).
+	 *
+	 * @return             The cache key.
+	 * @throws IOException If the resources cannot be read.
+	 */
+	public static synchronized String getCacheKey() throws IOException {
+		if (PostgresSchemaCache.CACHE_KEY == null) {
+			final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+			final MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory(resolver);
+			// Collects the resources (sorted, so the hash is stable).
+			final Map<String, Resource> resources = new TreeMap<>();
+			for (final String pattern : PostgresSchemaCache.getListProperty(PostgresSchemaCache.MIGRATIONS_PROPERTY, PostgresSchemaCache.DEFAULT_MIGRATIONS)) {
+				for (final Resource resource : resolver.getResources(pattern)) {
+					resources.put(resource.getURL().toString().replaceAll(".*!/|.*/classes/", ""), resource);
+				}
+			}
+			for (final String entityPackage : PostgresSchemaCache.getListProperty(PostgresSchemaCache.ENTITY_PACKAGES_PROPERTY,
+					PostgresSchemaCache.DEFAULT_ENTITY_PACKAGES)) {
+				for (final Resource resource : resolver.getResources("classpath*:" + entityPackage.replace('.', '/') + "/**/*.class")) {
+					if (metadataReaderFactory.getMetadataReader(resource).getAnnotationMetadata().hasAnnotation(PostgresSchemaCache.ENTITY_ANNOTATION)) {
+						resources.put(resource.getURL().toString().replaceAll(".*!/|.*/classes/", ""), resource);
+					}
+				}
+			}
+			// Hashes the resources.
+			try {
+				final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				for (final Map.Entry<String, Resource> resource : resources.entrySet()) {
+					digest.update(resource.getKey().getBytes(StandardCharsets.UTF_8));
+					try (InputStream input = resource.getValue().getInputStream()) {
+						digest.update(input.readAllBytes());
+					}
+				}
+				PostgresSchemaCache.CACHE_KEY = HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+			}
+			catch (final NoSuchAlgorithmException exception) {
+				throw new IllegalStateException(exception);
+			}
+			PostgresSchemaCache.LOGGER.info("Postgres schema cache key '{}' computed from {} resources.", PostgresSchemaCache.CACHE_KEY, resources.size());
+		}
+		return PostgresSchemaCache.CACHE_KEY;
+	}
+
+	/**
+	 * Gets the cache key for a Postgres image (the content hash and the image, as
+	 * dumps are tied to the server version and image extensions).
+	 *
+	 * @param  imageName   Postgres image name (with tag).
+	 * @return             The cache key.
+	 * @throws IOException If the resources cannot be read.
+	 */
+	public static String getCacheKey(
+			final String imageName) throws IOException {
+		try {
+			return PostgresSchemaCache.getCacheKey() + "-"
+					+ HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(imageName.getBytes(StandardCharsets.UTF_8))).substring(0, 8);
+		}
+		catch (final NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/**
+	 * Gets the cached dump file for a Postgres image.
+	 *
+	 * @param  imageName   Postgres image name (with tag).
+	 * @return             The cached dump file.
+	 * @throws IOException If the cache key cannot be computed.
+	 */
+	public static Path getCacheFile(
+			final String imageName) throws IOException {
+		final String directory = System.getProperty(PostgresSchemaCache.DIRECTORY_PROPERTY);
+		return (directory == null ? PostgresSchemaCache.DEFAULT_DIRECTORY : Path.of(directory))
+				.resolve(PostgresSchemaCache.getCacheKey(imageName) + ".dump");
+	}
+
+	/**
+	 * Executes a Postgres client command in the container (as admin).
+	 *
+	 * @param  container Postgres container.
+	 * @param  command   Command.
+	 * @throws Exception If the command fails.
+	 */
+	private static void execute(
+			final GenericContainer<?> container,
+			final String command) throws Exception {
+		final ExecResult result = container.execInContainer("sh", "-c",
+				"PGPASSWORD=\"" + TestHelper.TEST_ADMIN_USER_PASSWORD + "\" " + command + " -U \"" + TestHelper.TEST_ADMIN_USER_NAME + "\"");
+		if (result.getExitCode() != 0) {
+			throw new IOException("Postgres command failed: " + result.getStderr());
+		}
+	}
+
+	/**
+	 * Restores the cached schema into a database (replacing it with a copy of the
+	 * default database, so the image extensions are kept).
+	 *
+	 * @param  container Postgres container.
+	 * @param  database  Database name (other than the default database).
+	 * @return           If a cached schema existed (and has been restored).
+	 * @throws Exception If the schema cannot be restored.
+	 */
+	public static Boolean restore(
+			final GenericContainer<?> container,
+			final String database) throws Exception {
+		if (Objects.equals(database, TestHelper.TEST_USER_NAME)) {
+			throw new IllegalArgumentException("The cached schema cannot be restored into the default database '" + database + "'.");
+		}
+		final Path cacheFile = PostgresSchemaCache.getCacheFile(container.getDockerImageName());
+		if (!Files.exists(cacheFile)) {
+			return false;
+		}
+		final Long startTimestamp = System.currentTimeMillis();
+		PostgresTestContainerHelper.createDatabase(container, database, TestHelper.TEST_USER_NAME, TestHelper.TEST_USER_NAME);
+		container.copyFileToContainer(MountableFile.forHostPath(cacheFile), PostgresSchemaCache.CONTAINER_DUMP_PATH);
+		PostgresSchemaCache.execute(container, "pg_restore --no-owner --role=\"" + TestHelper.TEST_USER_NAME + "\" -d \"" + database + "\" "
+				+ PostgresSchemaCache.CONTAINER_DUMP_PATH);
+		PostgresSchemaCache.LOGGER.info("Postgres schema '{}' restored into database '{}' in {}ms.", cacheFile.getFileName(), database,
+				System.currentTimeMillis() - startTimestamp);
+		return true;
+	}
+
+	/**
+	 * Saves a prepared database in the cache (if not cached yet).
+	 *
+	 * @param  container Postgres container.
+	 * @param  database  Database name.
+	 * @throws Exception If the database cannot be saved.
+	 */
+	public static void save(
+			final GenericContainer<?> container,
+			final String database) throws Exception {
+		final Path cacheFile = PostgresSchemaCache.getCacheFile(container.getDockerImageName());
+		TestForkTenancy.withHostLock("schema-cache-" + PostgresSchemaCache.getCacheKey(container.getDockerImageName()), () -> {
+			if (!Files.exists(cacheFile)) {
+				Files.createDirectories(cacheFile.getParent());
+				PostgresSchemaCache.execute(container, "pg_dump -Fc -d \"" + database + "\" -f " + PostgresSchemaCache.CONTAINER_DUMP_PATH);
+				final Path temporaryFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+				container.copyFileFromContainer(PostgresSchemaCache.CONTAINER_DUMP_PATH, temporaryFile.toString());
+				Files.move(temporaryFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				PostgresSchemaCache.LOGGER.info("Postgres database '{}' saved in schema cache '{}'.", database, cacheFile);
+			}
+			return null;
+		});
+	}
+
+}
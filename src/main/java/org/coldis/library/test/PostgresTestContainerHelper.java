@@ -0,0 +1,245 @@
+package org.coldis.library.test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Postgres test container helper.
+ */
+public class PostgresTestContainerHelper {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(PostgresTestContainerHelper.class);
+
+	/**
+	 * Postgres port.
+	 */
+	public static final Integer POSTGRES_PORT = 5432;
+
+	/**
+	 * Maintenance database.
+	 */
+	public static final String MAINTENANCE_DATABASE = "postgres";
+
+	/**
+	 * Gets the JDBC URL for a database in the container.
+	 *
+	 * @param  container Postgres container.
+	 * @param  database  Database name.
+	 * @return           The JDBC URL.
+	 */
+	public static String getJdbcUrl(
+			final GenericContainer<?> container,
+			final String database) {
+		TestContainerLazyStart.ensureStarted(container);
+		return "jdbc:postgresql://" + TestContainerNetwork.getHost(container) + ":"
+				+ TestContainerNetwork.getPort(container, PostgresTestContainerHelper.POSTGRES_PORT) + "/" + database;
+	}
+
+	/**
+	 * Gets an admin connection to the maintenance database.
+	 *
+	 * @param  container    Postgres container.
+	 * @return              The admin connection.
+	 * @throws SQLException If the connection cannot be opened.
+	 */
+	public static Connection getAdminConnection(
+			final GenericContainer<?> container) throws SQLException {
+		return DriverManager.getConnection(PostgresTestContainerHelper.getJdbcUrl(container, PostgresTestContainerHelper.MAINTENANCE_DATABASE),
+				TestHelper.TEST_ADMIN_USER_NAME, TestHelper.TEST_ADMIN_USER_PASSWORD);
+	}
+
+	/**
+	 * Quotes an identifier.
+	 *
+	 * @param  identifier Identifier.
+	 * @return            The quoted identifier.
+	 */
+	private static String quote(
+			final String identifier) {
+		return "\"" + identifier.replace("\"", "\"\"") + "\"";
+	}
+
+	/**
+	 * Gets the database owner.
+	 *
+	 * @param  connection   Admin connection.
+	 * @param  database     Database name.
+	 * @return              The database owner (or null if the database does not
+	 *                      exist).
+	 * @throws SQLException If the owner cannot be retrieved.
+	 */
+	private static String getDatabaseOwner(
+			final Connection connection,
+			final String database) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("SELECT pg_get_userbyid(datdba) FROM pg_database WHERE datname = ?")) {
+			statement.setString(1, database);
+			try (ResultSet result = statement.executeQuery()) {
+				return (result.next() ? result.getString(1) : null);
+			}
+		}
+	}
+
+	/**
+	 * Terminates every other connection to a database.
+	 *
+	 * @param  connection   Admin connection.
+	 * @param  database     Database name.
+	 * @throws SQLException If the connections cannot be terminated.
+	 */
+	private static void terminateConnections(
+			final Connection connection,
+			final String database) throws SQLException {
+		try (PreparedStatement statement = connection
+				.prepareStatement("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE datname = ? AND pid <> pg_backend_pid()")) {
+			statement.setString(1, database);
+			statement.execute();
+		}
+	}
+
+	/**
+	 * Drops a database (and its template flag) if it exists. Connections to it
+	 * are terminated by the drop itself, so reconnecting clients cannot make it
+	 * fail.
+	 *
+	 * @param  connection   Admin connection.
+	 * @param  database     Database name.
+	 * @throws SQLException If the database cannot be dropped.
+	 */
+	private static void dropDatabase(
+			final Connection connection,
+			final String database) throws SQLException {
+		if (PostgresTestContainerHelper.getDatabaseOwner(connection, database) != null) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ALTER DATABASE " + PostgresTestContainerHelper.quote(database) + " IS_TEMPLATE false");
+				statement.execute("DROP DATABASE IF EXISTS " + PostgresTestContainerHelper.quote(database) + " WITH (FORCE)");
+			}
+		}
+	}
+
+	/**
+	 * If a database exists.
+	 *
+	 * @param  container    Postgres container.
+	 * @param  database     Database name.
+	 * @return              If the database exists.
+	 * @throws SQLException If the database cannot be verified.
+	 */
+	public static Boolean databaseExists(
+			final GenericContainer<?> container,
+			final String database) throws SQLException {
+		try (Connection connection = PostgresTestContainerHelper.getAdminConnection(container)) {
+			return PostgresTestContainerHelper.getDatabaseOwner(connection, database) != null;
+		}
+	}
+
+	/**
+	 * Creates (or replaces) a database.
+	 *
+	 * @param  container    Postgres container.
+	 * @param  database     Database name.
+	 * @param  owner        Database owner.
+	 * @throws SQLException If the database cannot be created.
+	 */
+	public static void createDatabase(
+			final GenericContainer<?> container,
+			final String database,
+			final String owner) throws SQLException {
+		PostgresTestContainerHelper.createDatabase(container, database, owner, null);
+	}
+
+	/**
+	 * Creates (or replaces) a database as a copy of a template database (such as
+	 * the default database, to keep the extensions installed by the image).
+	 *
+	 * @param  container    Postgres container.
+	 * @param  database     Database name.
+	 * @param  owner        Database owner.
+	 * @param  template     Template database name (or null for the Postgres
+	 *                          default template).
+	 * @throws SQLException If the database cannot be created.
+	 */
+	public static void createDatabase(
+			final GenericContainer<?> container,
+			final String database,
+			final String owner,
+			final String template) throws SQLException {
+		try (Connection connection = PostgresTestContainerHelper.getAdminConnection(container)) {
+			PostgresTestContainerHelper.dropDatabase(connection, database);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE DATABASE " + PostgresTestContainerHelper.quote(database)
+						+ (template == null ? "" : " TEMPLATE " + PostgresTestContainerHelper.quote(template)) + " OWNER "
+						+ PostgresTestContainerHelper.quote(owner));
+			}
+		}
+	}
+
+	/**
+	 * Saves a database as a template database. Connections to the source database
+	 * are terminated, as Postgres only copies databases nobody is connected to
+	 * (pools connected to it should be suspended meanwhile, so they do not
+	 * reconnect before the copy).
+	 *
+	 * @param  container        Postgres container.
+	 * @param  sourceDatabase   Source database name.
+	 * @param  templateDatabase Template database name.
+	 * @throws SQLException     If the template cannot be created.
+	 */
+	public static void createDatabaseTemplate(
+			final GenericContainer<?> container,
+			final String sourceDatabase,
+			final String templateDatabase) throws SQLException {
+		final Long startTimestamp = System.currentTimeMillis();
+		try (Connection connection = PostgresTestContainerHelper.getAdminConnection(container)) {
+			final String owner = PostgresTestContainerHelper.getDatabaseOwner(connection, sourceDatabase);
+			PostgresTestContainerHelper.dropDatabase(connection, templateDatabase);
+			PostgresTestContainerHelper.terminateConnections(connection, sourceDatabase);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE DATABASE " + PostgresTestContainerHelper.quote(templateDatabase) + " TEMPLATE "
+						+ PostgresTestContainerHelper.quote(sourceDatabase) + " OWNER " + PostgresTestContainerHelper.quote(owner));
+				statement.execute("ALTER DATABASE " + PostgresTestContainerHelper.quote(templateDatabase) + " IS_TEMPLATE true");
+			}
+		}
+		PostgresTestContainerHelper.LOGGER.info("Database '{}' saved as template '{}' in {}ms.", sourceDatabase, templateDatabase,
+				System.currentTimeMillis() - startTimestamp);
+	}
+
+	/**
+	 * Creates (or replaces) a database as a copy of a template database.
+	 *
+	 * @param  container        Postgres container.
+	 * @param  templateDatabase Template database name.
+	 * @param  targetDatabase   Target database name.
+	 * @throws SQLException     If the database cannot be created.
+	 */
+	public static void createDatabaseFromTemplate(
+			final GenericContainer<?> container,
+			final String templateDatabase,
+			final String targetDatabase) throws SQLException {
+		final Long startTimestamp = System.currentTimeMillis();
+		try (Connection connection = PostgresTestContainerHelper.getAdminConnection(container)) {
+			final String owner = PostgresTestContainerHelper.getDatabaseOwner(connection, templateDatabase);
+			if (owner == null) {
+				throw new SQLException("Template database '" + templateDatabase + "' does not exist.");
+			}
+			PostgresTestContainerHelper.dropDatabase(connection, targetDatabase);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE DATABASE " + PostgresTestContainerHelper.quote(targetDatabase) + " TEMPLATE "
+						+ PostgresTestContainerHelper.quote(templateDatabase) + " OWNER " + PostgresTestContainerHelper.quote(owner));
+			}
+		}
+		PostgresTestContainerHelper.LOGGER.info("Database '{}' created from template '{}' in {}ms.", targetDatabase, templateDatabase,
+				System.currentTimeMillis() - startTimestamp);
+	}
+
+}
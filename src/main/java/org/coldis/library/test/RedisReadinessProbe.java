@@ -0,0 +1,40 @@
+package org.coldis.library.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Redis readiness probe. Sends a PING: "PONG" means ready, while an error (such
+ * as "LOADING") means it is still starting.
+ */
+public class RedisReadinessProbe extends TestContainerReadinessProbe {
+
+	/**
+	 * Constructor.
+	 *
+	 * @param port Redis (container) port.
+	 */
+	public RedisReadinessProbe(final Integer port) {
+		super(port);
+	}
+
+	/**
+	 * @see org.coldis.library.test.TestContainerReadinessProbe#probe(java.lang.String,
+	 *      java.lang.Integer)
+	 */
+	@Override
+	protected ProbeResult probe(
+			final String host,
+			final Integer mappedPort) throws IOException {
+		try (Socket socket = TestContainerReadinessProbe.openSocket(host, mappedPort)) {
+			socket.getOutputStream().write("PING\r\n".getBytes(StandardCharsets.US_ASCII));
+			socket.getOutputStream().flush();
+			final String reply = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+			return reply == null ? ProbeResult.DOWN : ("+PONG".equals(reply) ? ProbeResult.READY : ProbeResult.STARTING);
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+package org.coldis.library.test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal Redis (RESP) client for test maintenance tasks (no client library
+ * needed).
+ */
+public class RedisTestClient implements AutoCloseable {
+
+	/**
+	 * Default timeout (milliseconds).
+	 */
+	public static final Integer DEFAULT_TIMEOUT = 5000;
+
+	/**
+	 * Socket.
+	 */
+	private final Socket socket;
+
+	/**
+	 * Input.
+	 */
+	private final InputStream input;
+
+	/**
+	 * Output.
+	 */
+	private final OutputStream output;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param  host        Host.
+	 * @param  port        Port.
+	 * @param  timeout     Connection/read timeout (milliseconds).
+	 * @throws IOException If the connection cannot be opened.
+	 */
+	public RedisTestClient(final String host, final Integer port, final Integer timeout) throws IOException {
+		super();
+		this.socket = new Socket();
+		this.socket.setTcpNoDelay(true);
+		this.socket.setSoTimeout(timeout);
+		this.socket.connect(new InetSocketAddress(host, port), timeout);
+		this.input = new BufferedInputStream(this.socket.getInputStream());
+		this.output = new BufferedOutputStream(this.socket.getOutputStream());
+	}
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param  host        Host.
+	 * @param  port        Port.
+	 * @throws IOException If the connection cannot be opened.
+	 */
+	public RedisTestClient(final String host, final Integer port) throws IOException {
+		this(host, port, RedisTestClient.DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Writes a command (without flushing).
+	 *
+	 * @param  arguments   Command and arguments.
+	 * @throws IOException If the command cannot be written.
+	 */
+	private void write(
+			final String... arguments) throws IOException {
+		this.output.write(("*" + arguments.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+		for (final String argument : arguments) {
+			final byte[] argumentBytes = argument.getBytes(StandardCharsets.UTF_8);
+			this.output.write(("$" + argumentBytes.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+			this.output.write(argumentBytes);
+			this.output.write("\r\n".getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Reads a line (without the line break).
+	 *
+	 * @return             The line.
+	 * @throws IOException If the line cannot be read.
+	 */
+	private String readLine() throws IOException {
+		final ByteArrayOutputStream line = new ByteArrayOutputStream();
+		for (int current = this.input.read(); current != '\r'; current = this.input.read()) {
+			if (current < 0) {
+				throw new EOFException("Redis connection closed.");
+			}
+			line.write(current);
+		}
+		this.input.read();
+		return line.toString(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a reply.
+	 *
+	 * @return             The reply (string, long, list or null).
+	 * @throws IOException If the reply cannot be read or is an error.
+	 */
+	private Object read() throws IOException {
+		final int type = this.input.read();
+		final String line = this.readLine();
+		switch (type) {
+			case '+':
+				return line;
+			case '-':
+				throw new IOException("Redis error: " + line);
+			case ':':
+				return Long.parseLong(line);
+			case '$':
+				final int length = Integer.parseInt(line);
+				if (length < 0) {
+					return null;
+				}
+				final byte[] value = this.input.readNBytes(length);
+				this.readLine();
+				return new String(value, StandardCharsets.UTF_8);
+			case '*':
+				final int size = Integer.parseInt(line);
+				if (size < 0) {
+					return null;
+				}
+				final List<Object> values = new ArrayList<>(size);
+				for (int index = 0; index < size; index++) {
+					values.add(this.read());
+				}
+				return values;
+			default:
+				throw new IOException("Unexpected Redis reply type: " + (char) type);
+		}
+	}
+
+	/**
+	 * Executes a command.
+	 *
+	 * @param  arguments   Command and arguments.
+	 * @return             The reply.
+	 * @throws IOException If the command fails.
+	 */
+	public Object execute(
+			final String... arguments) throws IOException {
+		this.write(arguments);
+		this.output.flush();
+		return this.read();
+	}
+
+	/**
+	 * Executes commands in a single round trip (pipeline).
+	 *
+	 * @param  commands    Commands (and arguments).
+	 * @return             The replies.
+	 * @throws IOException If a command fails.
+	 */
+	public List<Object> pipeline(
+			final List<String[]> commands) throws IOException {
+		for (final String[] command : commands) {
+			this.write(command);
+		}
+		this.output.flush();
+		final List<Object> replies = new ArrayList<>(commands.size());
+		for (int index = 0; index < commands.size(); index++) {
+			replies.add(this.read());
+		}
+		return replies;
+	}
+
+	/**
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		this.socket.close();
+	}
+
+}
@@ -0,0 +1,292 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Redis test container helper. Isolates test classes (or parallel tests) that
+ * share one Redis instance, by logical database or key prefix, and resets them
+ * quickly. Each class gets its own key prefix (see
+ * {@link #getKeyPrefix(Class)}) and, with
+ * {@link TestWithContainer#redisDatabasePerClass()}, its own logical database.
+ * As classes may run concurrently, the class database and key prefix are not
+ * published as system properties, but only to the class Spring context (as the
+ * {@code <field>_DATABASE} and {@code <field>_KEY_PREFIX} properties, see
+ * {@link RedisTestContextCustomizerFactory}).
+ */
+public class RedisTestContainerHelper {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(RedisTestContainerHelper.class);
+
+	/**
+	 * Redis port.
+	 */
+	public static final Integer REDIS_PORT = 6379;
+
+	/**
+	 * Keys scanned (and unlinked) per round trip.
+	 */
+	public static final Integer SCAN_BATCH_SIZE = 1000;
+
+	/**
+	 * Key prefix property suffix.
+	 */
+	public static final String KEY_PREFIX_PROPERTY_SUFFIX = "_KEY_PREFIX";
+
+	/**
+	 * Database acquire timeout property (milliseconds).
+	 */
+	public static final String ACQUIRE_TIMEOUT_PROPERTY = "project.config.source.test.redis.acquire-timeout";
+
+	/**
+	 * Default database acquire timeout (milliseconds).
+	 */
+	public static final Long DEFAULT_ACQUIRE_TIMEOUT = 60_000L;
+
+	/**
+	 * Logical databases that may be acquired (this JVM): every database but the
+	 * fork database (used by the Spring contexts). When containers are shared
+	 * across forks, the other databases belong to the other forks, so none is
+	 * available.
+	 */
+	private static final List<Integer> AVAILABLE_DATABASES = (TestForkTenancy.isSharedAcrossForks() ? List.of()
+			: IntStream.range(0, TestForkTenancy.REDIS_DATABASES).boxed().filter(database -> !Objects.equals(database, TestForkTenancy.getRedisDatabase()))
+					.toList());
+
+	/**
+	 * Free logical databases (this JVM).
+	 */
+	private static final BlockingQueue<Integer> FREE_DATABASES = new LinkedBlockingQueue<>(RedisTestContainerHelper.AVAILABLE_DATABASES);
+
+	/**
+	 * Logical databases assigned to the running test classes (by test class and
+	 * container field name).
+	 */
+	private static final Map<String, Integer> CLASS_DATABASES = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets a client for the container.
+	 *
+	 * @param  container   Redis container.
+	 * @return             The client.
+	 * @throws IOException If the connection cannot be opened.
+	 */
+	public static RedisTestClient getClient(
+			final GenericContainer<?> container) throws IOException {
+		TestContainerLazyStart.ensureStarted(container);
+		return new RedisTestClient(TestContainerNetwork.getHost(container),
+				TestContainerNetwork.getPort(container, RedisTestContainerHelper.REDIS_PORT));
+	}
+
+	/**
+	 * Gets the class database key.
+	 *
+	 * @param  testClass Test class.
+	 * @param  fieldName Container field name.
+	 * @return           The class database key.
+	 */
+	private static String getKey(
+			final Class<?> testClass,
+			final String fieldName) {
+		return testClass.getName() + "#" + fieldName;
+	}
+
+	/**
+	 * Gets the database acquire timeout.
+	 *
+	 * @return The database acquire timeout (milliseconds).
+	 */
+	public static Long getAcquireTimeout() {
+		final String acquireTimeout = System.getProperty(RedisTestContainerHelper.ACQUIRE_TIMEOUT_PROPERTY);
+		return (NumberUtils.isParsable(acquireTimeout) ? Long.parseLong(acquireTimeout) : RedisTestContainerHelper.DEFAULT_ACQUIRE_TIMEOUT);
+	}
+
+	/**
+	 * Acquires a logical database for exclusive use (until released). Never
+	 * returns the fork database used by the Spring contexts.
+	 *
+	 * @return                       The logical database index.
+	 * @throws InterruptedException  If interrupted while waiting for a free
+	 *                                   database.
+	 * @throws IllegalStateException If no database is freed within the acquire
+	 *                                   timeout.
+	 */
+	public static Integer acquireDatabase() throws InterruptedException {
+		if (RedisTestContainerHelper.AVAILABLE_DATABASES.isEmpty()) {
+			throw new IllegalStateException("No Redis logical database may be acquired when containers are shared across forks (use key prefixes instead).");
+		}
+		final Long acquireTimeout = RedisTestContainerHelper.getAcquireTimeout();
+		final Integer database = RedisTestContainerHelper.FREE_DATABASES.poll(acquireTimeout, TimeUnit.MILLISECONDS);
+		if (database == null) {
+			throw new IllegalStateException("No Redis logical database freed within " + acquireTimeout + "ms (all "
+					+ RedisTestContainerHelper.AVAILABLE_DATABASES.size() + " are leased: make sure they are released, or use key prefixes instead).");
+		}
+		return database;
+	}
+
+	/**
+	 * Releases a logical database.
+	 *
+	 * @param database The logical database index.
+	 */
+	public static void releaseDatabase(
+			final Integer database) {
+		RedisTestContainerHelper.FREE_DATABASES.offer(database);
+	}
+
+	/**
+	 * Gets the key prefix for a test class (and fork), for tests sharing the same
+	 * logical database.
+	 *
+	 * @param  testClass Test class.
+	 * @return           The key prefix.
+	 */
+	public static String getKeyPrefix(
+			final Class<?> testClass) {
+		return "test:" + TestHelper.getTestForkNumber() + ":" + testClass.getName() + ":";
+	}
+
+	/**
+	 * Gets the logical database for a Redis container field of a test class: the
+	 * database assigned to the class (if any) or the fork database.
+	 *
+	 * @param  testClass Test class.
+	 * @param  fieldName Container field name.
+	 * @return           The logical database index.
+	 */
+	public static Integer getDatabase(
+			final Class<?> testClass,
+			final String fieldName) {
+		final Integer database = RedisTestContainerHelper.CLASS_DATABASES.get(RedisTestContainerHelper.getKey(testClass, fieldName));
+		return (database == null ? TestForkTenancy.getRedisDatabase() : database);
+	}
+
+	/**
+	 * If each test class should get its own logical database.
+	 *
+	 * @param  testClass Test class.
+	 * @return           If each test class should get its own logical database.
+	 */
+	public static Boolean shouldUseDatabasePerClass(
+			final Class<?> testClass) {
+		return (testClass.getAnnotation(TestWithContainer.class) != null) && testClass.getAnnotation(TestWithContainer.class).redisDatabasePerClass();
+	}
+
+	/**
+	 * Assigns the test class logical database (if enabled) to its Redis
+	 * containers.
+	 *
+	 * @param  testClass        Test class.
+	 * @param  containersFields Container fields.
+	 * @throws Exception        If a container cannot be read.
+	 */
+	public static void assignClass(
+			final Class<?> testClass,
+			final Collection<Field> containersFields) throws Exception {
+		for (final Field field : containersFields) {
+			if (RedisTestContainerHelper.shouldUseDatabasePerClass(testClass)
+					&& Objects.equals(TestContainerKind.of((GenericContainer<?>) field.get(null)), TestContainerKind.REDIS)) {
+				final Integer database = RedisTestContainerHelper.acquireDatabase();
+				RedisTestContainerHelper.CLASS_DATABASES.put(RedisTestContainerHelper.getKey(testClass, field.getName()), database);
+				RedisTestContainerHelper.LOGGER.info("Redis database {} assigned to class '{}' for container '{}'.", database, testClass.getSimpleName(),
+						field.getName());
+			}
+		}
+	}
+
+	/**
+	 * Releases the test class logical databases (flushing them).
+	 *
+	 * @param  testClass        Test class.
+	 * @param  containersFields Container fields.
+	 * @throws Exception        If a container cannot be read.
+	 */
+	public static void releaseClass(
+			final Class<?> testClass,
+			final Collection<Field> containersFields) throws Exception {
+		for (final Field field : containersFields) {
+			final Integer database = RedisTestContainerHelper.CLASS_DATABASES.remove(RedisTestContainerHelper.getKey(testClass, field.getName()));
+			if (database != null) {
+				final GenericContainer<?> container = (GenericContainer<?>) field.get(null);
+				try {
+					if (container.isRunning()) {
+						RedisTestContainerHelper.flushDatabase(container, database);
+					}
+				}
+				finally {
+					RedisTestContainerHelper.releaseDatabase(database);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Flushes a logical database.
+	 *
+	 * @param  container   Redis container.
+	 * @param  database    Logical database index.
+	 * @throws IOException If the database cannot be flushed.
+	 */
+	public static void flushDatabase(
+			final GenericContainer<?> container,
+			final Integer database) throws IOException {
+		try (RedisTestClient client = RedisTestContainerHelper.getClient(container)) {
+			client.pipeline(List.of(new String[] { "SELECT", database.toString() }, new String[] { "FLUSHDB" }));
+		}
+	}
+
+	/**
+	 * Deletes (unlinks) every key with a prefix in a logical database.
+	 *
+	 * @param  container   Redis container.
+	 * @param  database    Logical database index.
+	 * @param  prefix      Key prefix.
+	 * @return             The number of deleted keys.
+	 * @throws IOException If the keys cannot be deleted.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Long deleteKeys(
+			final GenericContainer<?> container,
+			final Integer database,
+			final String prefix) throws IOException {
+		Long deletedKeys = 0L;
+		try (RedisTestClient client = RedisTestContainerHelper.getClient(container)) {
+			client.execute("SELECT", database.toString());
+			String cursor = "0";
+			do {
+				final List<Object> scan = (List<Object>) client.execute("SCAN", cursor, "MATCH", prefix + "*", "COUNT",
+						RedisTestContainerHelper.SCAN_BATCH_SIZE.toString());
+				cursor = (String) scan.get(0);
+				final List<Object> keys = (List<Object>) scan.get(1);
+				if (!keys.isEmpty()) {
+					final List<String> unlink = new ArrayList<>(keys.size() + 1);
+					unlink.add("UNLINK");
+					keys.forEach(key -> unlink.add((String) key));
+					deletedKeys += (Long) client.execute(unlink.toArray(String[]::new));
+				}
+			}
+			while (!"0".equals(cursor));
+		}
+		RedisTestContainerHelper.LOGGER.debug("Deleted {} Redis keys with prefix '{}' from database {}.", deletedKeys, prefix, database);
+		return deletedKeys;
+	}
+
+}
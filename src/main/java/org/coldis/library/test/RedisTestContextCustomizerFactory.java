@@ -0,0 +1,123 @@
+package org.coldis.library.test;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Publishes the logical database and key prefix of classes with
+ * {@link TestWithContainer#redisDatabasePerClass()} enabled to their own Spring
+ * context (as the {@code <field>_DATABASE} and {@code <field>_KEY_PREFIX}
+ * properties), instead of global system properties that concurrent classes
+ * would overwrite.
+ */
+public class RedisTestContextCustomizerFactory implements ContextCustomizerFactory {
+
+	/**
+	 * Property source name.
+	 */
+	public static final String PROPERTY_SOURCE_NAME = "redisTestClass";
+
+	/**
+	 * Context customizer whose identity is the test class (and its Redis container
+	 * fields).
+	 */
+	public static class RedisTestContextCustomizer implements ContextCustomizer {
+
+		/**
+		 * Test class.
+		 */
+		private final Class<?> testClass;
+
+		/**
+		 * Redis container field names.
+		 */
+		private final TreeSet<String> fieldNames;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param testClass  Test class.
+		 * @param fieldNames Redis container field names.
+		 */
+		public RedisTestContextCustomizer(final Class<?> testClass, final TreeSet<String> fieldNames) {
+			super();
+			this.testClass = testClass;
+			this.fieldNames = fieldNames;
+		}
+
+		/**
+		 * @see org.springframework.test.context.ContextCustomizer#customizeContext(org.springframework.context.ConfigurableApplicationContext,
+		 *      org.springframework.test.context.MergedContextConfiguration)
+		 */
+		@Override
+		public void customizeContext(
+				final ConfigurableApplicationContext context,
+				final MergedContextConfiguration mergedConfig) {
+			// Resolves the class databases when the context loads (once they are assigned).
+			final Map<String, Object> properties = new HashMap<>();
+			for (final String fieldName : this.fieldNames) {
+				properties.put(fieldName + TestForkTenancy.DATABASE_PROPERTY_SUFFIX,
+						RedisTestContainerHelper.getDatabase(this.testClass, fieldName).toString());
+				properties.put(fieldName + RedisTestContainerHelper.KEY_PREFIX_PROPERTY_SUFFIX, RedisTestContainerHelper.getKeyPrefix(this.testClass));
+			}
+			context.getEnvironment().getPropertySources().addFirst(new MapPropertySource(RedisTestContextCustomizerFactory.PROPERTY_SOURCE_NAME, properties));
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.testClass, this.fieldNames);
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(
+				final Object obj) {
+			return (obj instanceof RedisTestContextCustomizer) && Objects.equals(this.testClass, ((RedisTestContextCustomizer) obj).testClass)
+					&& Objects.equals(this.fieldNames, ((RedisTestContextCustomizer) obj).fieldNames);
+		}
+
+	}
+
+	/**
+	 * @see org.springframework.test.context.ContextCustomizerFactory#createContextCustomizer(java.lang.Class,
+	 *      java.util.List)
+	 */
+	@Override
+	public ContextCustomizer createContextCustomizer(
+			final Class<?> testClass,
+			final List<ContextConfigurationAttributes> configAttributes) {
+		if (RedisTestContainerHelper.shouldUseDatabasePerClass(testClass)) {
+			final TreeSet<String> fieldNames = new TreeSet<>();
+			for (final Field field : TestWithContainerExtensionHelper.getContainersFieldsFromTests(testClass)) {
+				try {
+					if (Objects.equals(TestContainerKind.of((GenericContainer<?>) field.get(null)), TestContainerKind.REDIS)) {
+						fieldNames.add(field.getName());
+					}
+				}
+				catch (final IllegalAccessException exception) {
+					throw new IllegalStateException(exception);
+				}
+			}
+			return (fieldNames.isEmpty() ? null : new RedisTestContextCustomizer(testClass, fieldNames));
+		}
+		return null;
+	}
+
+}
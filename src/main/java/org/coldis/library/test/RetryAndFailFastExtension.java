@@ -2,19 +2,45 @@ package org.coldis.library.test;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.coldis.library.helper.RandomHelper;
+import org.coldis.library.test.RetryFailureClassifier.FailureType;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
 import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
-import org.springframework.test.context.TestContextManager;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.opentest4j.TestAbortedException;
 
-/** Fail fast extension for JUnit 5 tests. */
-public class RetryAndFailFastExtension implements BeforeEachCallback, TestExecutionExceptionHandler {
+/**
+ * Retry and fail fast extension for JUnit 5 tests. Tests annotated with
+ * {@link RetryableTest} are re-run by the engine (as new template invocations)
+ * on transient failures. Their failed attempts that are retried are reported as
+ * aborted (which Surefire shows as skipped tests). Plain {@code @Test} methods
+ * are still retried in place (only the test method is invoked again, without
+ * the before and after methods or other extensions), with a warning: migrate
+ * them by replacing {@code @Test} with {@link RetryableTest}. If the test
+ * history is enabled (see {@link TestHistoryStore}), known flaky tests also
+ * retry unknown failures, while tests that have never been flaky are retried
+ * without delay.
+ */
+public class RetryAndFailFastExtension
+		implements BeforeEachCallback, TestExecutionExceptionHandler, TestWatcher, TestTemplateInvocationContextProvider {
 
 	/** Logger for this class. */
 	private static final Log LOGGER = LogFactory.getLog(RetryAndFailFastExtension.class);
@@ -25,11 +51,49 @@ public class RetryAndFailFastExtension implements BeforeEachCallback, TestExecut
 	/** Minimum delay before next attempt in milliseconds. */
 	public static final Integer FIXED_DELAY_BEFORE_NEXT_ATTEMPT = 1000;
 
-	/** Random delay before next attempt in milliseconds. */
-	public static final Integer RANDOM_DELAY_BEFORE_NEXT_ATTEMPT = 10000;
+	/** Random delay (jitter) before next attempt in milliseconds. */
+	public static final Integer RANDOM_DELAY_BEFORE_NEXT_ATTEMPT = 1000;
 
-	/** If one of the tests has already failed. */
-	private static boolean TEST_FAILED = false;
+	/** Maximum delay before next attempt in milliseconds. */
+	public static final Integer MAX_DELAY_BEFORE_NEXT_ATTEMPT = 10000;
+
+	/** Suite (JVM) wide retry time budget in milliseconds. */
+	public static final Long RETRY_BUDGET = 120000L;
+
+	/** Time already spent retrying in this JVM. */
+	private static final AtomicLong RETRY_TIME_SPENT = new AtomicLong();
+
+	/** Extension namespace. */
+	private static final Namespace NAMESPACE = Namespace.create(RetryAndFailFastExtension.class);
+
+	/** Test start store key. */
+	private static final String START_KEY = "start";
+
+	/** Test attempts store key. */
+	private static final String ATTEMPTS_KEY = "attempts";
+
+	/** Attempt start store key. */
+	private static final String ATTEMPT_START_KEY = "attemptStart";
+
+	/** Delay before the next (pending) attempt store key. */
+	private static final String NEXT_ATTEMPT_DELAY_KEY = "nextAttemptDelay";
+
+	/** Test classes already warned about in place retries. */
+	private static final Set<Class<?>> IN_PLACE_RETRY_WARNED_CLASSES = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Gets a long property.
+	 *
+	 * @param  property     Property.
+	 * @param  defaultValue Default value.
+	 * @return              The property value.
+	 */
+	private static Long getLongProperty(
+			final String property,
+			final Number defaultValue) {
+		final String value = System.getProperty(property);
+		return NumberUtils.isParsable(value) ? Long.parseLong(value) : defaultValue.longValue();
+	}
 
 	/**
 	 * Gets the maximum number of attempts for a test before failing.
@@ -39,16 +103,36 @@ public class RetryAndFailFastExtension implements BeforeEachCallback, TestExecut
 				System.getProperty("project.config.source.test.retry-and-fail-fast.max-attempts", String.valueOf(RetryAndFailFastExtension.MAX_ATTEMPTS)));
 	}
 
-	/** Gets the delay before next attempt in milliseconds. */
+	/**
+	 * Gets the delay before next attempt in milliseconds: exponential on the
+	 * attempt, plus jitter, capped by the maximum delay.
+	 */
 	public static Long getDelayBeforeNextAttempt(
 			final Integer attempt) {
-		return (Integer
-				.parseInt(System.getProperty("project.config.source.test.retry-and-fail-fast.fixed-delay-before-next-attempt",
-						String.valueOf(RetryAndFailFastExtension.FIXED_DELAY_BEFORE_NEXT_ATTEMPT)))
-				+ RandomHelper.getPositiveRandomLong(
-						Long.parseLong(System.getProperty("project.config.source.test.retry-and-fail-fast.random-delay-before-next-attempt",
-								String.valueOf(RetryAndFailFastExtension.RANDOM_DELAY_BEFORE_NEXT_ATTEMPT)))))
-				* attempt;
+		final Long fixedDelay = RetryAndFailFastExtension.getLongProperty("project.config.source.test.retry-and-fail-fast.fixed-delay-before-next-attempt",
+				RetryAndFailFastExtension.FIXED_DELAY_BEFORE_NEXT_ATTEMPT);
+		final Long randomDelay = RetryAndFailFastExtension.getLongProperty(
+				"project.config.source.test.retry-and-fail-fast.random-delay-before-next-attempt", RetryAndFailFastExtension.RANDOM_DELAY_BEFORE_NEXT_ATTEMPT);
+		final Long maxDelay = RetryAndFailFastExtension.getLongProperty("project.config.source.test.retry-and-fail-fast.max-delay-before-next-attempt",
+				RetryAndFailFastExtension.MAX_DELAY_BEFORE_NEXT_ATTEMPT);
+		final Long exponentialDelay = fixedDelay << Math.min(Math.max(attempt - 1, 0), 20);
+		return Math.min(maxDelay, exponentialDelay + (randomDelay > 0 ? RandomHelper.getPositiveRandomLong(randomDelay) : 0));
+	}
+
+	/** Gets the suite (JVM) wide retry time budget in milliseconds. */
+	public static Long getRetryBudget() {
+		return RetryAndFailFastExtension.getLongProperty("project.config.source.test.retry-and-fail-fast.retry-budget",
+				RetryAndFailFastExtension.RETRY_BUDGET);
+	}
+
+	/** Gets the retry time left in this JVM in milliseconds. */
+	public static Long getRetryBudgetLeft() {
+		return Math.max(0, RetryAndFailFastExtension.getRetryBudget() - RetryAndFailFastExtension.RETRY_TIME_SPENT.get());
+	}
+
+	/** Gets if failures that are neither transient nor deterministic are retried. */
+	public static boolean isRetryUnknownFailuresEnabled() {
+		return Objects.equals(System.getProperty("project.config.source.test.retry-and-fail-fast.retry-unknown-failures"), "true");
 	}
 
 	/** Gets if fail fast is enabled. */
@@ -57,98 +141,355 @@ public class RetryAndFailFastExtension implements BeforeEachCallback, TestExecut
 	}
 
 	/**
-	 * Sets if fail fast is enabled.
+	 * Gets if a failure should be retried.
 	 *
-	 * @param failFastEnabled If fail fast is enabled.
+	 * @param  error The failure.
+	 * @return       If the failure should be retried.
+	 */
+	public static boolean isRetryable(
+			final Throwable error) {
+		return RetryAndFailFastExtension.isRetryable(error, null);
+	}
+
+	/**
+	 * Gets if a failure should be retried (unknown failures are retried for tests
+	 * known to be flaky).
+	 *
+	 * @param  error   The failure.
+	 * @param  history The test history (if any).
+	 * @return         If the failure should be retried.
+	 */
+	public static boolean isRetryable(
+			final Throwable error,
+			final TestHistory history) {
+		final FailureType failureType = RetryFailureClassifier.classify(error);
+		return (failureType == FailureType.TRANSIENT) || ((failureType == FailureType.UNKNOWN)
+				&& (RetryAndFailFastExtension.isRetryUnknownFailuresEnabled() || ((history != null) && history.isFlaky())));
+	}
+
+	/**
+	 * Gets the test id.
+	 *
+	 * @param  context The extension context.
+	 * @return         The test id.
+	 */
+	public static String getTestId(
+			final ExtensionContext context) {
+		return context.getRequiredTestClass().getName() + "#" + context.getRequiredTestMethod().getName();
+	}
+
+	/**
+	 * Gets if the test is known to be stable (has run enough times and has never
+	 * been flaky).
+	 *
+	 * @param  history The test history (if any).
+	 * @return         If the test is known to be stable.
+	 */
+	private static boolean isKnownStable(
+			final TestHistory history) {
+		return (history != null) && (history.getRuns() >= TestHistoryStore.getMinRuns()) && !history.isFlaky();
+	}
+
+	/**
+	 * Gets if the test is retryable (a {@link RetryableTest} invocation).
+	 *
+	 * @param  context The extension context.
+	 * @return         If the test is retryable.
+	 */
+	private static boolean isRetryableTest(
+			final ExtensionContext context) {
+		return context.getTestMethod().map(method -> method.isAnnotationPresent(RetryableTest.class)).orElse(false)
+				&& context.getParent().isPresent();
+	}
+
+	/**
+	 * Gets the store shared by the test attempts (the test template store for
+	 * retryable tests).
+	 *
+	 * @param  context The extension context.
+	 * @return         The store shared by the test attempts.
+	 */
+	private static ExtensionContext.Store getTestStore(
+			final ExtensionContext context) {
+		return (RetryAndFailFastExtension.isRetryableTest(context) ? context.getParent().orElseThrow() : context)
+				.getStore(RetryAndFailFastExtension.NAMESPACE);
+	}
+
+	/**
+	 * Records the test (first attempt) and attempt start and skips the test if
+	 * another one has already failed (and fail fast is enabled).
+	 *
+	 * @see BeforeEachCallback#beforeEach(ExtensionContext)
 	 */
 	@Override
 	public void beforeEach(
 			final ExtensionContext context) throws Exception {
-		if (RetryAndFailFastExtension.isFailFastEnabled() && RetryAndFailFastExtension.TEST_FAILED) {
+		RetryAndFailFastExtension.getTestStore(context).getOrComputeIfAbsent(RetryAndFailFastExtension.START_KEY, key -> System.currentTimeMillis());
+		context.getStore(RetryAndFailFastExtension.NAMESPACE).put(RetryAndFailFastExtension.ATTEMPT_START_KEY, System.currentTimeMillis());
+		if (RetryAndFailFastExtension.isFailFastEnabled() && TestFailFastSignal.isFailed(true)) {
 			Assumptions.assumeTrue(false, "FailFastExtension: A test has already failed, skipping remaining tests.");
 		}
 	}
 
 	/**
-	 * Handles test execution exceptions, retrying the test method up to a maximum
-	 * number of attempts.
-	 *
-	 * @param  context   The extension context.
-	 * @param  throwable The throwable that was thrown during test execution.
-	 * @throws Throwable If the test method fails after all attempts.
+	 * @see TestTemplateInvocationContextProvider#supportsTestTemplate(ExtensionContext)
 	 */
 	@Override
-	public void handleTestExecutionException(
-			final ExtensionContext context,
-			final Throwable throwable) throws Throwable {
+	public boolean supportsTestTemplate(
+			final ExtensionContext context) {
+		return context.getTestMethod().map(method -> method.isAnnotationPresent(RetryableTest.class)).orElse(false);
+	}
 
-		// Retries the test method up to a maximum number of attempts.
-		final TestContextManager testContextManager = new TestContextManager(context.getRequiredTestClass());
-		for (Integer attempt = 1; attempt <= RetryAndFailFastExtension.getMaxAttempts(); attempt++) {
-			try {
+	/**
+	 * Provides the test attempts: the first one and then one more each time an
+	 * attempt fails and should be retried (after the retry delay).
+	 *
+	 * @see TestTemplateInvocationContextProvider#provideTestTemplateInvocationContexts(ExtensionContext)
+	 */
+	@Override
+	public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(
+			final ExtensionContext context) {
+		final ExtensionContext.Store store = context.getStore(RetryAndFailFastExtension.NAMESPACE);
+		final String testName = context.getRequiredTestClass().getName() + "." + context.getRequiredTestMethod().getName();
+		store.put(RetryAndFailFastExtension.ATTEMPTS_KEY, 0);
+		final Iterator<TestTemplateInvocationContext> attempts = new Iterator<>() {
 
-				// Runs before methods.
-				if (testContextManager != null) {
-					testContextManager.beforeTestMethod(context.getRequiredTestInstance(), context.getRequiredTestMethod());
+			@Override
+			public boolean hasNext() {
+				if (store.get(RetryAndFailFastExtension.ATTEMPTS_KEY, Integer.class) == 0) {
+					return true;
 				}
-
-				// Runs beforeEach methods.
-				final Method[] beforeEachMethods = context.getRequiredTestClass().getDeclaredMethods();
-				for (final Method method : beforeEachMethods) {
-					if (method.isAnnotationPresent(org.junit.jupiter.api.BeforeEach.class)) {
-						method.setAccessible(true);
-						method.invoke(context.getRequiredTestInstance());
-					}
+				// Waits before the next attempt (if the last one should be retried).
+				final Long delay = store.remove(RetryAndFailFastExtension.NEXT_ATTEMPT_DELAY_KEY, Long.class);
+				if (delay == null) {
+					return false;
 				}
+				final Long sleepStart = System.currentTimeMillis();
+				try (TestLifecycleSpan span = TestLifecycleTimeline.start(TestLifecycleTimeline.RETRY_SLEEP, testName)) {
+					Thread.sleep(delay);
+				}
+				catch (final InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+				finally {
+					RetryAndFailFastExtension.RETRY_TIME_SPENT.addAndGet(System.currentTimeMillis() - sleepStart);
+				}
+				return true;
+			}
 
-				// Runs the test method.
-				context.getRequiredTestMethod().invoke(context.getRequiredTestInstance());
+			@Override
+			public TestTemplateInvocationContext next() {
+				final Integer attempt = store.get(RetryAndFailFastExtension.ATTEMPTS_KEY, Integer.class) + 1;
+				store.put(RetryAndFailFastExtension.ATTEMPTS_KEY, attempt);
+				return new TestTemplateInvocationContext() {
 
-				// Runs afterEach methods.
-				final Method[] afterEachMethods = context.getRequiredTestClass().getDeclaredMethods();
-				for (final Method method : afterEachMethods) {
-					if (method.isAnnotationPresent(org.junit.jupiter.api.AfterEach.class)) {
-						method.setAccessible(true);
-						method.invoke(context.getRequiredTestInstance());
+					@Override
+					public String getDisplayName(
+							final int invocationIndex) {
+						return "Attempt " + invocationIndex;
 					}
-				}
 
-				// If the test method was executed successfully, exit the loop/method.
-				return;
+				};
 			}
-			catch (Throwable error) {
-				// Gets the actual error, if it is an InvocationTargetException and the cause is
-				// not null,
-				if ((error instanceof InvocationTargetException) && (error.getCause() != null) && (error.getStackTrace().length >= 3)
-						&& error.getStackTrace()[2].getClassName().equals(RetryAndFailFastExtension.class.getName())) {
-					// Get the original exception
-					error = error.getCause();
-				}
-				// Log the exception.
-				final String testName = context.getRequiredTestMethod().getDeclaringClass().getName() + "." + context.getRequiredTestMethod().getName();
+
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(attempts, Spliterator.ORDERED), false);
+	}
+
+	/**
+	 * Retries a plain (non {@link RetryableTest}) test method in place: only the
+	 * test method is invoked again, on the same instance, while the failures are
+	 * transient and the retry budget is not exhausted.
+	 *
+	 * @param  context   The extension context.
+	 * @param  throwable The first attempt failure.
+	 * @return           The last failure (or null if an attempt succeeded).
+	 */
+	private static Throwable retryInPlace(
+			final ExtensionContext context,
+			final Throwable throwable) {
+		final Method testMethod = context.getRequiredTestMethod();
+		final String testName = testMethod.getDeclaringClass().getName() + "." + testMethod.getName();
+		if (RetryAndFailFastExtension.IN_PLACE_RETRY_WARNED_CLASSES.add(context.getRequiredTestClass())) {
+			RetryAndFailFastExtension.LOGGER.warn(context.getRequiredTestClass().getName()
+					+ " uses the retry extension with plain @Test methods, which are retried in place (without before and after methods or other extensions)."
+					+ " Use @RetryableTest instead to re-run each attempt through the engine.");
+		}
+		// Methods with parameters (resolved by the engine) cannot be invoked again.
+		if (testMethod.getParameterCount() > 0) {
+			RetryAndFailFastExtension.LOGGER.error(testName + " <<< FAILURE! Not retrying a test method with parameters (use @RetryableTest).", throwable);
+			return throwable;
+		}
+		final TestHistory history = TestHistoryStore.isEnabled() ? TestHistoryStore.getHistory(RetryAndFailFastExtension.getTestId(context)) : null;
+		final Integer maxAttempts = RetryAndFailFastExtension.getMaxAttempts();
+		final ExtensionContext.Store store = context.getStore(RetryAndFailFastExtension.NAMESPACE);
+		// Counts the retries (and not the first attempt) against the retry budget.
+		store.put(RetryAndFailFastExtension.ATTEMPT_START_KEY, System.currentTimeMillis());
+		Throwable failure = throwable;
+		for (Integer attempt = 1; attempt < maxAttempts; attempt++) {
+			// Stops retrying if the failure is not transient or the retry budget is exhausted.
+			final Long delay = RetryAndFailFastExtension.isKnownStable(history) ? 0L : RetryAndFailFastExtension.getDelayBeforeNextAttempt(attempt);
+			if (!RetryAndFailFastExtension.isRetryable(failure, history)) {
 				RetryAndFailFastExtension.LOGGER
-						.error(testName + " -- Attempt " + attempt + " of " + RetryAndFailFastExtension.getMaxAttempts() + " <<< FAILURE!", error);
+						.error(testName + " -- Attempt " + attempt + " of " + maxAttempts + " <<< FAILURE! Not retrying a non transient failure.", failure);
+				return failure;
 			}
-			// Finish the test context manager.
-			finally {
-				try {
-					if (testContextManager != null) {
-						testContextManager.afterTestMethod(context.getRequiredTestInstance(), context.getRequiredTestMethod(), null);
-					}
+			if (RetryAndFailFastExtension.getRetryBudgetLeft() < delay) {
+				RetryAndFailFastExtension.LOGGER
+						.error(testName + " -- Attempt " + attempt + " of " + maxAttempts + " <<< FAILURE! Retry budget exhausted, not retrying.", failure);
+				return failure;
+			}
+			RetryAndFailFastExtension.LOGGER
+					.error(testName + " -- Attempt " + attempt + " of " + maxAttempts + " <<< FAILURE! Retrying in place in " + delay + "ms.", failure);
+			try (TestLifecycleSpan span = TestLifecycleTimeline.start(TestLifecycleTimeline.RETRY_SLEEP, testName)) {
+				Thread.sleep(delay);
+			}
+			catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				return failure;
+			}
+			// Invokes the test method again.
+			store.put(RetryAndFailFastExtension.ATTEMPTS_KEY, attempt + 1);
+			try {
+				testMethod.setAccessible(true);
+				testMethod.invoke(context.getRequiredTestInstance());
+				return null;
+			}
+			catch (final InvocationTargetException exception) {
+				failure = (exception.getCause() == null ? exception : exception.getCause());
+			}
+			catch (final ReflectiveOperationException | RuntimeException exception) {
+				RetryAndFailFastExtension.LOGGER.error(testName + " could not be retried in place.", exception);
+				return failure;
+			}
+		}
+		RetryAndFailFastExtension.LOGGER.error(testName + " -- Attempt " + maxAttempts + " of " + maxAttempts + " <<< FAILURE!", failure);
+		return failure;
+	}
+
+	/**
+	 * Handles test execution exceptions. Retryable tests are aborted (and re-run
+	 * by the engine) up to a maximum number of attempts while the failures are
+	 * transient and the retry budget is not exhausted, so each retried attempt is
+	 * reported as aborted (skipped). Plain test methods are retried in place (see
+	 * {@link #retryInPlace(ExtensionContext, Throwable)}).
+	 *
+	 * @param  context   The extension context.
+	 * @param  throwable The throwable that was thrown during test execution.
+	 * @throws Throwable If the test method fails (or the attempt is aborted to be
+	 *                       retried).
+	 */
+	@Override
+	public void handleTestExecutionException(
+			final ExtensionContext context,
+			final Throwable throwable) throws Throwable {
+		Throwable failure = throwable;
+		if (RetryAndFailFastExtension.isRetryableTest(context)) {
+			final String testName = context.getRequiredTestMethod().getDeclaringClass().getName() + "." + context.getRequiredTestMethod().getName();
+			final TestHistory history = TestHistoryStore.isEnabled() ? TestHistoryStore.getHistory(RetryAndFailFastExtension.getTestId(context)) : null;
+			final Integer maxAttempts = RetryAndFailFastExtension.getMaxAttempts();
+			final ExtensionContext.Store store = RetryAndFailFastExtension.getTestStore(context);
+			final Integer attempt = store.getOrDefault(RetryAndFailFastExtension.ATTEMPTS_KEY, Integer.class, 1);
+
+			// Stops retrying after the last attempt or if the failure is not transient.
+			if (attempt >= maxAttempts) {
+				RetryAndFailFastExtension.LOGGER.error(testName + " -- Attempt " + attempt + " of " + maxAttempts + " <<< FAILURE!", throwable);
+			}
+			else if (!RetryAndFailFastExtension.isRetryable(throwable, history)) {
+				RetryAndFailFastExtension.LOGGER
+						.error(testName + " -- Attempt " + attempt + " of " + maxAttempts + " <<< FAILURE! Not retrying a non transient failure.", throwable);
+			}
+			else {
+				// Stops retrying if the retry budget is exhausted.
+				final Long delay = RetryAndFailFastExtension.isKnownStable(history) ? 0L : RetryAndFailFastExtension.getDelayBeforeNextAttempt(attempt);
+				if (RetryAndFailFastExtension.getRetryBudgetLeft() < delay) {
+					RetryAndFailFastExtension.LOGGER
+							.error(testName + " -- Attempt " + attempt + " of " + maxAttempts + " <<< FAILURE! Retry budget exhausted, not retrying.", throwable);
 				}
-				catch (final Throwable error) {
-					RetryAndFailFastExtension.LOGGER.error("Error finishing test context manager for "
-							+ context.getRequiredTestMethod().getDeclaringClass().getName() + "." + context.getRequiredTestMethod().getName(), error);
+				// Aborts the attempt, so the engine runs the next one.
+				else {
+					RetryAndFailFastExtension.LOGGER
+							.error(testName + " -- Attempt " + attempt + " of " + maxAttempts + " <<< FAILURE! Retrying in " + delay + "ms.", throwable);
+					store.put(RetryAndFailFastExtension.NEXT_ATTEMPT_DELAY_KEY, delay);
+					throw new TestAbortedException(testName + " -- Attempt " + attempt + " of " + maxAttempts + " failed, retrying.", throwable);
 				}
 			}
+		}
+		// Retries plain test methods in place.
+		else if (context.getTestMethod().isPresent()) {
+			failure = RetryAndFailFastExtension.retryInPlace(context, throwable);
+			if (failure == null) {
+				return;
+			}
+		}
 
-			// Waits before the next attempt.
-			Thread.sleep(RetryAndFailFastExtension.getDelayBeforeNextAttempt(attempt));
+		// If the test method failed for good, signals fail fast (to all forks) and
+		// throws the failure.
+		TestFailFastSignal.signal(RetryAndFailFastExtension.isFailFastEnabled());
+		throw failure;
+	}
+
+	/**
+	 * Records the test run in the test history (if enabled).
+	 *
+	 * @param context The extension context.
+	 * @param outcome The outcome.
+	 */
+	private static void recordHistory(
+			final ExtensionContext context,
+			final TestOutcome outcome) {
+		final ExtensionContext.Store store = RetryAndFailFastExtension.getTestStore(context);
+		final Integer attempts = store.getOrDefault(RetryAndFailFastExtension.ATTEMPTS_KEY, Integer.class, 1);
+		// Counts the retries time against the retry budget.
+		final Long attemptStart = context.getStore(RetryAndFailFastExtension.NAMESPACE).get(RetryAndFailFastExtension.ATTEMPT_START_KEY, Long.class);
+		if ((attempts > 1) && (attemptStart != null)) {
+			RetryAndFailFastExtension.RETRY_TIME_SPENT.addAndGet(System.currentTimeMillis() - attemptStart);
+		}
+		// Attempts aborted to be retried are not test runs.
+		if (store.get(RetryAndFailFastExtension.NEXT_ATTEMPT_DELAY_KEY) != null) {
+			return;
+		}
+		if (TestHistoryStore.isEnabled()) {
+			final Long start = store.get(RetryAndFailFastExtension.START_KEY, Long.class);
+			TestHistoryStore.record(RetryAndFailFastExtension.getTestId(context), outcome, attempts,
+					start == null ? 0L : System.currentTimeMillis() - start);
+			if ((outcome == TestOutcome.PASSED) && (attempts > 1)) {
+				RetryAndFailFastExtension.LOGGER.warn(RetryAndFailFastExtension.getTestId(context) + " passed only after " + attempts
+						+ " attempts: " + TestHistoryStore.getHistory(RetryAndFailFastExtension.getTestId(context)));
+			}
 		}
+	}
 
-		// If the test method failed after all attempts, set the fail fast flag and
-		// throw the exception.
-		RetryAndFailFastExtension.TEST_FAILED = true;
-		throw throwable;
+	/**
+	 * @see org.junit.jupiter.api.extension.TestWatcher#testSuccessful(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public void testSuccessful(
+			final ExtensionContext context) {
+		RetryAndFailFastExtension.recordHistory(context, TestOutcome.PASSED);
 	}
+
+	/**
+	 * @see org.junit.jupiter.api.extension.TestWatcher#testFailed(org.junit.jupiter.api.extension.ExtensionContext,
+	 *      java.lang.Throwable)
+	 */
+	@Override
+	public void testFailed(
+			final ExtensionContext context,
+			final Throwable cause) {
+		RetryAndFailFastExtension.recordHistory(context, TestOutcome.FAILED);
+	}
+
+	/**
+	 * @see org.junit.jupiter.api.extension.TestWatcher#testAborted(org.junit.jupiter.api.extension.ExtensionContext,
+	 *      java.lang.Throwable)
+	 */
+	@Override
+	public void testAborted(
+			final ExtensionContext context,
+			final Throwable cause) {
+		RetryAndFailFastExtension.recordHistory(context, TestOutcome.ABORTED);
+	}
+
 }
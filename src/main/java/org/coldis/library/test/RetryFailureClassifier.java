@@ -0,0 +1,124 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Classifies test failures as transient (worth retrying), deterministic (never
+ * retried) or unknown.
+ */
+public class RetryFailureClassifier {
+
+	/**
+	 * Failure type.
+	 */
+	public enum FailureType {
+
+		/**
+		 * Transient (connection, timeout...).
+		 */
+		TRANSIENT,
+
+		/**
+		 * Deterministic (assertion, linkage...).
+		 */
+		DETERMINISTIC,
+
+		/**
+		 * Unknown.
+		 */
+		UNKNOWN
+
+	}
+
+	/**
+	 * Additional transient exceptions property (comma separated class names).
+	 */
+	public static final String TRANSIENT_EXCEPTIONS_PROPERTY = "project.config.source.test.retry-and-fail-fast.transient-exceptions";
+
+	/**
+	 * Additional deterministic exceptions property (comma separated class names).
+	 */
+	public static final String DETERMINISTIC_EXCEPTIONS_PROPERTY = "project.config.source.test.retry-and-fail-fast.deterministic-exceptions";
+
+	/**
+	 * Transient exceptions (by name, so optional libraries are not needed).
+	 */
+	public static final Set<String> TRANSIENT_EXCEPTIONS = Set.of(IOException.class.getName(), TimeoutException.class.getName(),
+			SQLTransientException.class.getName(), SQLRecoverableException.class.getName(), "org.springframework.dao.TransientDataAccessException",
+			"org.springframework.dao.RecoverableDataAccessException", "org.springframework.transaction.CannotCreateTransactionException",
+			"org.springframework.web.client.ResourceAccessException", "org.testcontainers.containers.ContainerLaunchException",
+			"jakarta.jms.JMSException", "org.springframework.jms.UncategorizedJmsException", "org.springframework.data.redis.RedisConnectionFailureException");
+
+	/**
+	 * Deterministic exceptions.
+	 */
+	public static final Set<String> DETERMINISTIC_EXCEPTIONS = Set.of(AssertionError.class.getName(), LinkageError.class.getName(),
+			"org.opentest4j.TestAbortedException");
+
+	/**
+	 * Gets the class names configured in a property.
+	 *
+	 * @param  property Property.
+	 * @return          The class names.
+	 */
+	private static Set<String> getConfiguredExceptions(
+			final String property) {
+		return Arrays.stream(System.getProperty(property, "").split(",")).map(String::trim).filter(StringUtils::isNotEmpty).collect(Collectors.toSet());
+	}
+
+	/**
+	 * If the throwable is an instance of any of the given classes (by name).
+	 *
+	 * @param  throwable  Throwable.
+	 * @param  classNames Class names.
+	 * @return            If the throwable is an instance of any of the classes.
+	 */
+	private static Boolean isInstanceOf(
+			final Throwable throwable,
+			final Set<String> classNames) {
+		for (Class<?> throwableClass = throwable.getClass(); throwableClass != null; throwableClass = throwableClass.getSuperclass()) {
+			if (classNames.contains(throwableClass.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Classifies a failure (and its causes). Deterministic failures win over
+	 * transient ones.
+	 *
+	 * @param  throwable Failure.
+	 * @return           The failure type.
+	 */
+	public static FailureType classify(
+			final Throwable throwable) {
+		final Set<String> deterministicExceptions = RetryFailureClassifier.getConfiguredExceptions(RetryFailureClassifier.DETERMINISTIC_EXCEPTIONS_PROPERTY);
+		deterministicExceptions.addAll(RetryFailureClassifier.DETERMINISTIC_EXCEPTIONS);
+		final Set<String> transientExceptions = RetryFailureClassifier.getConfiguredExceptions(RetryFailureClassifier.TRANSIENT_EXCEPTIONS_PROPERTY);
+		transientExceptions.addAll(RetryFailureClassifier.TRANSIENT_EXCEPTIONS);
+		// Only the failure itself may be deterministic (a wrapped assertion is not).
+		if (RetryFailureClassifier.isInstanceOf(throwable, deterministicExceptions)) {
+			return FailureType.DETERMINISTIC;
+		}
+		// Any cause may be transient.
+		final Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Throwable cause = throwable; (cause != null) && visited.add(cause); cause = cause.getCause()) {
+			if (RetryFailureClassifier.isInstanceOf(cause, transientExceptions)) {
+				return FailureType.TRANSIENT;
+			}
+		}
+		return FailureType.UNKNOWN;
+	}
+
+}
@@ -0,0 +1,24 @@
+package org.coldis.library.test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test retried (on transient failures) by {@link RetryAndFailFastExtension}.
+ * Each attempt is a test template invocation run by the JUnit engine, with its
+ * complete lifecycle (every extension and each before and after method).
+ * Failed attempts that are retried are reported as aborted (which Surefire
+ * shows as skipped tests).
+ */
+@TestTemplate
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(RetryAndFailFastExtension.class)
+public @interface RetryableTest {
+
+}
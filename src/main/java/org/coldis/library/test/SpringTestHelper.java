@@ -1,18 +1,24 @@
 package org.coldis.library.test;
 
+import java.io.IOException;
 import java.security.SecureRandom;
+import java.sql.SQLException;
 import java.util.Random;
 
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.reflect.MethodUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.test.annotation.DirtiesContext;
+import org.testcontainers.containers.GenericContainer;
 
 /**
- * Spring test helper.
+ * Spring test helper. The context is dirtied after each class (see
+ * {@link TestWithContainerContextTestExecutionListener}), unless
+ * {@link TestWithContainer#cacheContext()} is enabled.
  */
-@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 public class SpringTestHelper extends TestHelper {
 
 	/**
@@ -36,4 +42,214 @@ public class SpringTestHelper extends TestHelper {
 		this.jdbcTemplate.execute(query);
 	}
 
+	/**
+	 * Saves a database as a Postgres template database.
+	 *
+	 * @param  container        Postgres container.
+	 * @param  sourceDatabase   Source database name.
+	 * @param  templateDatabase Template database name.
+	 * @throws SQLException     If the template cannot be created.
+	 */
+	public static void createDatabaseTemplate(
+			final GenericContainer<?> container,
+			final String sourceDatabase,
+			final String templateDatabase) throws SQLException {
+		PostgresTestContainerHelper.createDatabaseTemplate(container, sourceDatabase, templateDatabase);
+	}
+
+	/**
+	 * Creates (or replaces) a database as a fresh copy of a Postgres template
+	 * database. Copying a template is much faster than re-creating the schema.
+	 *
+	 * @param  container        Postgres container.
+	 * @param  templateDatabase Template database name.
+	 * @param  targetDatabase   Target database name.
+	 * @throws SQLException     If the database cannot be created.
+	 */
+	public static void createDatabaseFromTemplate(
+			final GenericContainer<?> container,
+			final String templateDatabase,
+			final String targetDatabase) throws SQLException {
+		PostgresTestContainerHelper.createDatabaseFromTemplate(container, templateDatabase, targetDatabase);
+	}
+
+	/**
+	 * Gets the current database name.
+	 *
+	 * @return The current database name.
+	 */
+	protected String getCurrentDatabase() {
+		return this.jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+	}
+
+	/**
+	 * Database operation (run with the data source pool suspended).
+	 */
+	@FunctionalInterface
+	protected interface DatabaseOperation {
+
+		/**
+		 * Runs the operation.
+		 *
+		 * @throws SQLException If the operation fails.
+		 */
+		void run() throws SQLException;
+
+	}
+
+	/**
+	 * Evicts the pooled connections of the context data source (if it is a pool),
+	 * so connections terminated by snapshot/restore are not handed out again.
+	 */
+	protected void evictDataSourceConnections() {
+		final DataSource dataSource = this.jdbcTemplate.getDataSource();
+		try {
+			final Object pool = MethodUtils.invokeMethod(dataSource, "getHikariPoolMXBean");
+			if (pool != null) {
+				MethodUtils.invokeMethod(pool, "softEvictConnections");
+			}
+		}
+		catch (final Exception exception) {
+			SpringTestHelper.LOGGER.debug("Data source connections could not be evicted: {}.", exception.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Runs a database operation with the context data source pool (if it is a
+	 * pool allowing suspension, see {@code spring.datasource.hikari.allow-pool-suspension})
+	 * suspended and its connections evicted, so the pool does not reconnect while
+	 * the database is copied or replaced. Otherwise, only evicts the connections.
+	 *
+	 * @param  operation    Database operation.
+	 * @throws SQLException If the operation fails.
+	 */
+	protected void withDataSourceSuspended(
+			final DatabaseOperation operation) throws SQLException {
+		Object pool = null;
+		try {
+			pool = MethodUtils.invokeMethod(this.jdbcTemplate.getDataSource(), "getHikariPoolMXBean");
+			if (pool != null) {
+				MethodUtils.invokeMethod(pool, "suspendPool");
+			}
+		}
+		catch (final Exception exception) {
+			SpringTestHelper.LOGGER.debug("Data source pool could not be suspended: {}.", exception.getLocalizedMessage());
+			pool = null;
+		}
+		try {
+			this.evictDataSourceConnections();
+			operation.run();
+		}
+		finally {
+			if (pool != null) {
+				try {
+					MethodUtils.invokeMethod(pool, "resumePool");
+				}
+				catch (final Exception exception) {
+					SpringTestHelper.LOGGER.warn("Data source pool could not be resumed: {}.", exception.getLocalizedMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Saves the current database (with the schema already built by the context)
+	 * as a Postgres template database.
+	 *
+	 * @param  container        Postgres container.
+	 * @param  templateDatabase Template database name.
+	 * @throws SQLException     If the template cannot be created.
+	 */
+	public void snapshotDatabase(
+			final GenericContainer<?> container,
+			final String templateDatabase) throws SQLException {
+		final String currentDatabase = this.getCurrentDatabase();
+		this.withDataSourceSuspended(() -> SpringTestHelper.createDatabaseTemplate(container, currentDatabase, templateDatabase));
+	}
+
+	/**
+	 * Restores the current database from a Postgres template database.
+	 *
+	 * @param  container        Postgres container.
+	 * @param  templateDatabase Template database name.
+	 * @throws SQLException     If the database cannot be restored.
+	 */
+	public void restoreDatabase(
+			final GenericContainer<?> container,
+			final String templateDatabase) throws SQLException {
+		final String currentDatabase = this.getCurrentDatabase();
+		this.withDataSourceSuspended(() -> SpringTestHelper.createDatabaseFromTemplate(container, templateDatabase, currentDatabase));
+	}
+
+	/**
+	 * Restores the current database from a Postgres template database, or saves
+	 * the current database as the template if it does not exist yet. Meant to be
+	 * used before each class (or test) so the schema is built only once (ideally
+	 * with a non destructive {@code spring.jpa.hibernate.ddl-auto}).
+	 *
+	 * @param  container        Postgres container.
+	 * @param  templateDatabase Template database name.
+	 * @throws SQLException     If the database cannot be restored/saved.
+	 */
+	public void restoreOrSnapshotDatabase(
+			final GenericContainer<?> container,
+			final String templateDatabase) throws SQLException {
+		if (PostgresTestContainerHelper.databaseExists(container, templateDatabase)) {
+			this.restoreDatabase(container, templateDatabase);
+		}
+		else {
+			this.snapshotDatabase(container, templateDatabase);
+		}
+	}
+
+	/**
+	 * Saves the current database (schema and reference data already prepared) in
+	 * the Postgres schema cache, so later runs can restore it with
+	 * {@link PostgresSchemaCache#restore(GenericContainer, String)} instead of
+	 * creating the schema.
+	 *
+	 * @param  container Postgres container.
+	 * @throws Exception If the database cannot be saved.
+	 */
+	public void saveSchemaCache(
+			final GenericContainer<?> container) throws Exception {
+		PostgresSchemaCache.save(container, this.getCurrentDatabase());
+	}
+
+	/**
+	 * Counts the pending Artemis messages (in the test addresses).
+	 *
+	 * @param  container   Artemis container.
+	 * @return             The number of pending messages.
+	 * @throws IOException If the messages cannot be counted.
+	 */
+	public static Long countArtemisMessages(
+			final GenericContainer<?> container) throws IOException {
+		return ArtemisTestContainerHelper.countMessages(container, ArtemisTestContainerHelper.DEFAULT_ADDRESS_FILTER);
+	}
+
+	/**
+	 * Purges the Artemis queues (in the test addresses).
+	 *
+	 * @param  container   Artemis container.
+	 * @return             The number of removed messages.
+	 * @throws IOException If the queues cannot be purged.
+	 */
+	public static Long purgeArtemisQueues(
+			final GenericContainer<?> container) throws IOException {
+		return ArtemisTestContainerHelper.purgeQueues(container, ArtemisTestContainerHelper.DEFAULT_ADDRESS_FILTER);
+	}
+
+	/**
+	 * Deletes the Artemis test addresses (and their queues).
+	 *
+	 * @param  container   Artemis container.
+	 * @return             The number of deleted addresses.
+	 * @throws IOException If the addresses cannot be deleted.
+	 */
+	public static Integer deleteArtemisAddresses(
+			final GenericContainer<?> container) throws IOException {
+		return ArtemisTestContainerHelper.deleteAddresses(container, ArtemisTestContainerHelper.DEFAULT_DELETABLE_ADDRESS_FILTER);
+	}
+
 }
@@ -1,14 +1,13 @@
 package org.coldis.library.test;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,16 +16,13 @@ import org.testcontainers.containers.GenericContainer;
 /**
  * Container extension.
  */
-public class StartTestWithContainerExtension implements BeforeAllCallback {
+public class StartTestWithContainerExtension implements BeforeAllCallback, BeforeEachCallback {
 
 	/**
 	 * Logger.
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(StartTestWithContainerExtension.class);
 
-	/** Container lock */
-	public static Map<GenericContainer<?>, Integer> CONTAINER_LOCK = new IdentityHashMap<>();
-
 	/**
 	 * Before each test.
 	 *
@@ -38,25 +34,64 @@ public class StartTestWithContainerExtension implements BeforeAllCallback {
 			final ExtensionContext context) throws Exception {
 		final Class<?> testClass = context.getTestClass().orElseThrow();
 		final Collection<Field> containersFieldsFromTests = TestWithContainerExtensionHelper.getContainersFieldsFromTests(context);
-		final Executor executor = TestWithContainerExtensionHelper.shouldStartTestContainersInParallel(testClass) ? Executors.newWorkStealingPool()
-				: Executors.newSingleThreadExecutor();
-		@SuppressWarnings("unchecked")
-		final CompletableFuture<Void>[] containersFieldsJobs = containersFieldsFromTests.stream().map(field -> (CompletableFuture.runAsync((() -> {
-			// Starts the container if not already started.
+		// Leases the containers before starting them, so they are not stopped meanwhile.
+		final Map<GenericContainer<?>, Field> containersFields = new IdentityHashMap<>();
+		final Collection<TestContainerLease> leases = new ArrayList<>();
+		try {
+			for (final Field field : containersFieldsFromTests) {
+				final GenericContainer<?> container = (GenericContainer<?>) field.get(null);
+				containersFields.put(container, field);
+				leases.add(TestContainerRegistry.acquire(container));
+			}
+		}
+		// Releases the leases already taken if a container cannot be read.
+		catch (final Exception exception) {
+			leases.forEach(TestContainerLease::release);
+			throw exception;
+		}
+		TestWithContainerExtensionHelper.storeLeases(context, leases);
+		// Assigns the class Redis key prefix (and database, if enabled).
+		RedisTestContainerHelper.assignClass(testClass, containersFields.values());
+		// Lazy classes only start the containers on first use (and pipelined classes
+		// start them in the background, without blocking).
+		final Boolean pipelined = TestContainerLazyStart.isPipelined(testClass);
+		if (TestContainerLazyStart.isLazy(testClass) || pipelined) {
+			for (final Field field : containersFields.values()) {
+				TestContainerLazyStart.register(testClass, field);
+			}
+			if (pipelined) {
+				TestWithContainerExtensionHelper.storeReadiness(context, TestContainerLazyStart.pipeline(testClass, containersFields.values(),
+						TestWithContainerExtensionHelper.shouldStartTestContainersInParallel(testClass)));
+			}
+			return;
+		}
+		// Starts the containers (after their dependencies) if not already started (exactly once). Always
+		// goes through the registration, which re-checks the container state under its lock (a reused
+		// container may be stopping meanwhile).
+		TestContainerLifecycleExecutor.runInDependencyOrder(containersFields, field -> {
 			try {
 				final GenericContainer<?> container = (GenericContainer<?>) field.get(null);
-				StartTestWithContainerExtension.CONTAINER_LOCK.computeIfAbsent(container, k -> 0);
-				StartTestWithContainerExtension.CONTAINER_LOCK.put(container, StartTestWithContainerExtension.CONTAINER_LOCK.get(container) + 1);
-				if (!TestWithContainerExtensionHelper.shouldReuseTestContainers(testClass) || !container.isRunning()
-						|| (StartTestWithContainerExtension.CONTAINER_LOCK.getOrDefault(container, 0) <= 0)) {
-					TestWithContainerExtensionHelper.startTestContainer(testClass, field);
-				}
+				TestContainerRegistry.getRegistration(container).start(() -> TestWithContainerExtensionHelper.startTestContainer(testClass, field)).join();
+				// Publishes the properties with the field names of this class (the container may have been started elsewhere).
+				TestWithContainerExtensionHelper.publishTestContainerProperties(testClass, field);
 			}
-			catch (final Exception exception) {
+			catch (final IllegalAccessException exception) {
 				throw new RuntimeException(exception);
 			}
-		}), executor))).toArray(CompletableFuture[]::new);
-		CompletableFuture.allOf(containersFieldsJobs).get();
+		}, TestWithContainerExtensionHelper.shouldStartTestContainersInParallel(testClass)).get();
+	}
+
+	/**
+	 * Waits for the containers started in the background (if pipelined) before
+	 * each test.
+	 *
+	 * @param  context   Test context.
+	 * @throws Exception If the test fails.
+	 */
+	@Override
+	public void beforeEach(
+			final ExtensionContext context) throws Exception {
+		TestWithContainerExtensionHelper.awaitReadiness(context);
 	}
 
 }
@@ -1,10 +1,7 @@
 package org.coldis.library.test;
 
-import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -32,45 +29,30 @@ public class StopTestWithContainerExtension implements AfterAllCallback {
 	public void afterAll(
 			final ExtensionContext context) throws Exception {
 		final Class<?> testClass = context.getTestClass().orElseThrow();
-		final Collection<Field> containersFieldsFromTests = TestWithContainerExtensionHelper.getContainersFieldsFromTests(context);
-		final Executor executor = TestWithContainerExtensionHelper.shouldStartTestContainersInParallel(testClass) ? Executors.newWorkStealingPool()
-				: Executors.newSingleThreadExecutor();
+		// Waits for the containers started in the background (if any) not to stop them while starting.
+		TestWithContainerExtensionHelper.awaitReadiness(context);
+		TestContainerLazyStart.unregister(testClass);
+		RedisTestContainerHelper.releaseClass(testClass, TestWithContainerExtensionHelper.getContainersFieldsFromTests(context));
+		final Collection<TestContainerLease> leases = TestWithContainerExtensionHelper.removeLeases(context);
 		@SuppressWarnings("unchecked")
-		final CompletableFuture<Void>[] containersFieldsJobs = containersFieldsFromTests.stream().map(field -> (CompletableFuture.runAsync(() -> {
-			try {
-				final GenericContainer<?> container = (GenericContainer<?>) field.get(null);
-				StartTestWithContainerExtension.CONTAINER_LOCK.computeIfAbsent(container, k -> 0);
-				StartTestWithContainerExtension.CONTAINER_LOCK.put(container, StartTestWithContainerExtension.CONTAINER_LOCK.get(container) - 1);
-				final Boolean shouldReuseContainer = TestWithContainerExtensionHelper.shouldReuseTestContainers(testClass);
-				if (container.isRunning()) {
-					if (shouldReuseContainer) {
-						CompletableFuture.runAsync(() -> {
-							try {
-								Thread.sleep(20_000);
-								if (StartTestWithContainerExtension.CONTAINER_LOCK.getOrDefault(container, 0) <= 0) {
-									StopTestWithContainerExtension.LOGGER.info("Reused test container '{}' stopping for class '{}'.", field.getName(),
-											testClass.getSimpleName());
-									TestWithContainerExtensionHelper.stopTestContainer(field);
-								}
-								else {
-									StopTestWithContainerExtension.LOGGER.info("Reused test container '{}' not stopping for class '{}' as it is still in use.",
-											field.getName(), testClass.getSimpleName());
-								}
-							}
-							catch (final Exception exception) {
-								throw new RuntimeException(exception);
-							}
-						});
-					}
-					else {
-						TestWithContainerExtensionHelper.stopTestContainer(field);
+		final CompletableFuture<Void>[] containersFieldsJobs = leases.stream().map(lease -> (CompletableFuture.runAsync(() -> {
+			final GenericContainer<?> container = lease.getContainer();
+			lease.release();
+			final Boolean shouldReuseContainer = TestWithContainerExtensionHelper.shouldReuseTestContainers(testClass);
+			if (container.isRunning()) {
+				// Reused containers are stopped by the reaper once idle.
+				if (shouldReuseContainer) {
+					if (lease.getRegistration().getLeaseCount() <= 0) {
+						TestContainerReaper.scheduleStop(lease.getRegistration());
 					}
 				}
+				// Stops the container unless another class still holds a lease for it.
+				else if (!lease.getRegistration().stopIfUnused(() -> TestWithContainerExtensionHelper.stopTestContainer(container))) {
+					StopTestWithContainerExtension.LOGGER.info("Test container '{}' not stopping for class '{}' as it is still in use.",
+							container.getDockerImageName(), testClass.getSimpleName());
+				}
 			}
-			catch (final Exception exception) {
-				throw new RuntimeException(exception);
-			}
-		}, executor))).toArray(CompletableFuture[]::new);
+		}, TestContainerLifecycleExecutor.getExecutor()))).toArray(CompletableFuture[]::new);
 		CompletableFuture.allOf(containersFieldsJobs).get();
 	}
 
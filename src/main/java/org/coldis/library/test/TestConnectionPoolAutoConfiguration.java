@@ -0,0 +1,54 @@
+package org.coldis.library.test;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hands the shared (container scoped, pre-warmed) test connection pool for the
+ * configured data source to the context, instead of a new pool per context.
+ * The context pool settings ({@code spring.datasource.hikari.*}) are applied to
+ * the shared pool. Enabled by the {@code project.config.source.test.connection-pool.enabled}
+ * property.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({ HikariDataSource.class, DataSource.class })
+@ConditionalOnProperty(
+		name = TestConnectionPools.ENABLED_PROPERTY,
+		havingValue = "true"
+)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class TestConnectionPoolAutoConfiguration {
+
+	/**
+	 * Shared pool data source.
+	 *
+	 * @param  properties  Data source properties.
+	 * @param  environment Environment.
+	 * @return             The shared pool data source.
+	 */
+	@Bean
+	@ConditionalOnMissingBean(DataSource.class)
+	public DataSource dataSource(
+			final DataSourceProperties properties,
+			final Environment environment) {
+		final Map<String, String> settings = Binder.get(environment).bind("spring.datasource.hikari", Bindable.mapOf(String.class, String.class))
+				.orElse(Map.of());
+		return TestConnectionPools.getDataSource(properties.determineUrl(), properties.determineUsername(), properties.determinePassword(), settings);
+	}
+
+}
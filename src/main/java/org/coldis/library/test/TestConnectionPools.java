@@ -0,0 +1,318 @@
+package org.coldis.library.test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Container scoped JDBC connection pools, shared by the successive Spring
+ * contexts of the JVM (instead of each context building and closing its own
+ * pool against the same reused container). Pools are created (and filled to the
+ * minimum idle size in the background) as soon as a Postgres container tenant
+ * is ready, and closed with the container. Contexts with their own pool
+ * settings ({@code spring.datasource.hikari.*}) get their own pools. Requires
+ * HikariCP.
+ */
+public class TestConnectionPools {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestConnectionPools.class);
+
+	/**
+	 * Enabled property.
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.connection-pool.enabled";
+
+	/**
+	 * Minimum idle connections (pre-warmed) property.
+	 */
+	public static final String MIN_IDLE_PROPERTY = "project.config.source.test.connection-pool.min-idle";
+
+	/**
+	 * Maximum pool size property.
+	 */
+	public static final String MAX_SIZE_PROPERTY = "project.config.source.test.connection-pool.max-size";
+
+	/**
+	 * Default minimum idle connections.
+	 */
+	public static final Integer DEFAULT_MIN_IDLE = 2;
+
+	/**
+	 * Default maximum pool size.
+	 */
+	public static final Integer DEFAULT_MAX_SIZE = 10;
+
+	/**
+	 * Pool settings set by the test pools themselves (ignored if given).
+	 */
+	private static final Set<String> FIXED_SETTINGS = Set.of("poolName", "jdbcUrl", "username", "password", "initializationFailTimeout",
+			"allowPoolSuspension");
+
+	/**
+	 * Pools (by JDBC URL, user name and pool settings).
+	 */
+	private static final Map<String, HikariDataSource> POOLS = new ConcurrentHashMap<>();
+
+	/**
+	 * Pool sequence (for pool names).
+	 */
+	private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(TestConnectionPools::shutdown, "test-connection-pools-shutdown"));
+	}
+
+	/**
+	 * If shared connection pools are enabled.
+	 *
+	 * @return If shared connection pools are enabled.
+	 */
+	public static Boolean isEnabled() {
+		return Objects.equals(System.getProperty(TestConnectionPools.ENABLED_PROPERTY), "true");
+	}
+
+	/**
+	 * Gets an integer property.
+	 *
+	 * @param  property     Property name.
+	 * @param  defaultValue Default value.
+	 * @return              The property value.
+	 */
+	private static Integer getIntegerProperty(
+			final String property,
+			final Integer defaultValue) {
+		final String value = System.getProperty(property);
+		return (NumberUtils.isParsable(value) ? Integer.parseInt(value) : defaultValue);
+	}
+
+	/**
+	 * Gets the HikariCP pool settings (by configuration property name) from
+	 * Spring pool settings ({@code spring.datasource.hikari.*}, relative and in
+	 * any relaxed form), leaving out the settings set by the test pools
+	 * themselves.
+	 *
+	 * @param  settings Spring pool settings.
+	 * @return          The HikariCP pool settings (sorted).
+	 */
+	public static Map<String, String> getPoolSettings(
+			final Map<String, String> settings) {
+		final Map<String, String> poolSettings = new TreeMap<>();
+		settings.forEach((name, value) -> {
+			final String settingName = StringUtils.substringBefore(name, ".");
+			final String poolSetting = StringUtils.uncapitalize(Arrays.stream(settingName.split("-")).map(StringUtils::capitalize).collect(Collectors.joining()));
+			// Data source (driver) properties keep their names.
+			if (Objects.equals(poolSetting, "dataSourceProperties") && name.contains(".")) {
+				poolSettings.put("dataSource." + StringUtils.substringAfter(name, "."), value);
+			}
+			else if (!TestConnectionPools.FIXED_SETTINGS.contains(poolSetting)) {
+				poolSettings.put(poolSetting, value);
+			}
+		});
+		return poolSettings;
+	}
+
+	/**
+	 * Gets the pool key (as used by {@link #getStatistics()}).
+	 *
+	 * @param  jdbcUrl      JDBC URL.
+	 * @param  username     User name.
+	 * @param  poolSettings HikariCP pool settings (see
+	 *                          {@link #getPoolSettings(Map)}).
+	 * @return              The pool key.
+	 */
+	public static String getKey(
+			final String jdbcUrl,
+			final String username,
+			final Map<String, String> poolSettings) {
+		return username + "@" + jdbcUrl + (poolSettings.isEmpty() ? "" : " " + poolSettings);
+	}
+
+	/**
+	 * Gets (creating it if needed) a shared pool with the default settings.
+	 *
+	 * @param  jdbcUrl  JDBC URL.
+	 * @param  username User name.
+	 * @param  password Password.
+	 * @return          The shared pool.
+	 */
+	public static HikariDataSource getPool(
+			final String jdbcUrl,
+			final String username,
+			final String password) {
+		return TestConnectionPools.getPool(jdbcUrl, username, password, Map.of());
+	}
+
+	/**
+	 * Gets (creating it if needed) a shared pool. New pools do not wait for the
+	 * first connection, allow suspension (see
+	 * {@link SpringTestHelper#withDataSourceSuspended}) and are filled to the
+	 * minimum idle size in the background. The test pool size properties take
+	 * precedence over the given settings.
+	 *
+	 * @param  jdbcUrl  JDBC URL.
+	 * @param  username User name.
+	 * @param  password Password.
+	 * @param  settings Spring pool settings ({@code spring.datasource.hikari.*},
+	 *                      relative).
+	 * @return          The shared pool.
+	 */
+	public static HikariDataSource getPool(
+			final String jdbcUrl,
+			final String username,
+			final String password,
+			final Map<String, String> settings) {
+		final Map<String, String> poolSettings = TestConnectionPools.getPoolSettings(settings);
+		return TestConnectionPools.POOLS.computeIfAbsent(TestConnectionPools.getKey(jdbcUrl, username, poolSettings), key -> {
+			final Properties properties = new Properties();
+			properties.putAll(poolSettings);
+			final HikariConfig config = new HikariConfig(properties);
+			config.setPoolName("test-pool-" + TestConnectionPools.POOL_SEQUENCE.incrementAndGet());
+			config.setJdbcUrl(jdbcUrl);
+			config.setUsername(username);
+			config.setPassword(password);
+			config.setMaximumPoolSize(TestConnectionPools.getIntegerProperty(TestConnectionPools.MAX_SIZE_PROPERTY,
+					poolSettings.containsKey("maximumPoolSize") ? config.getMaximumPoolSize() : TestConnectionPools.DEFAULT_MAX_SIZE));
+			config.setMinimumIdle(Math.min(config.getMaximumPoolSize(), TestConnectionPools.getIntegerProperty(TestConnectionPools.MIN_IDLE_PROPERTY,
+					poolSettings.containsKey("minimumIdle") ? config.getMinimumIdle() : TestConnectionPools.DEFAULT_MIN_IDLE)));
+			config.setInitializationFailTimeout(-1);
+			config.setAllowPoolSuspension(true);
+			TestConnectionPools.LOGGER.info("Test connection pool '{}' created for '{}'.", config.getPoolName(), key);
+			return new HikariDataSource(config);
+		});
+	}
+
+	/**
+	 * Gets a (non closing) data source for a shared pool with the default
+	 * settings.
+	 *
+	 * @param  jdbcUrl  JDBC URL.
+	 * @param  username User name.
+	 * @param  password Password.
+	 * @return          The data source.
+	 */
+	public static TestPooledDataSource getDataSource(
+			final String jdbcUrl,
+			final String username,
+			final String password) {
+		return TestConnectionPools.getDataSource(jdbcUrl, username, password, Map.of());
+	}
+
+	/**
+	 * Gets a (non closing) data source for a shared pool, to be handed to a
+	 * Spring context.
+	 *
+	 * @param  jdbcUrl  JDBC URL.
+	 * @param  username User name.
+	 * @param  password Password.
+	 * @param  settings Spring pool settings ({@code spring.datasource.hikari.*},
+	 *                      relative).
+	 * @return          The data source.
+	 */
+	public static TestPooledDataSource getDataSource(
+			final String jdbcUrl,
+			final String username,
+			final String password,
+			final Map<String, String> settings) {
+		return new TestPooledDataSource(TestConnectionPools.getPool(jdbcUrl, username, password, settings));
+	}
+
+	/**
+	 * Creates the pool for a Postgres container database (with the test user), so
+	 * it is already warm when the first context asks for it.
+	 *
+	 * @param container Postgres container.
+	 * @param database  Database name.
+	 */
+	public static void warmUp(
+			final GenericContainer<?> container,
+			final String database) {
+		TestConnectionPools.getPool(PostgresTestContainerHelper.getJdbcUrl(container, database), TestHelper.TEST_USER_NAME,
+				TestHelper.TEST_USER_PASSWORD);
+	}
+
+	/**
+	 * Closes the pools of a container (before it stops).
+	 *
+	 * @param container Container.
+	 */
+	public static void close(
+			final GenericContainer<?> container) {
+		if (container.isRunning() && container.getExposedPorts().contains(PostgresTestContainerHelper.POSTGRES_PORT)) {
+			final String address = "//" + TestContainerNetwork.getHost(container) + ":"
+					+ TestContainerNetwork.getPort(container, PostgresTestContainerHelper.POSTGRES_PORT) + "/";
+			TestConnectionPools.POOLS.entrySet().removeIf(pool -> {
+				if (pool.getValue().getJdbcUrl().contains(address)) {
+					TestConnectionPools.LOGGER.info("Test connection pool '{}' closing with its container.", pool.getValue().getPoolName());
+					pool.getValue().close();
+					return true;
+				}
+				return false;
+			});
+		}
+	}
+
+	/**
+	 * Closes a pool (and forgets it).
+	 *
+	 * @param pool Pool.
+	 */
+	public static void close(
+			final HikariDataSource pool) {
+		TestConnectionPools.POOLS.values().remove(pool);
+		pool.close();
+	}
+
+	/**
+	 * Gets the pools statistics (by pool key), as total, active, idle and waiting
+	 * threads.
+	 *
+	 * @return The pools statistics.
+	 */
+	public static Map<String, String> getStatistics() {
+		final Map<String, String> statistics = new ConcurrentHashMap<>();
+		TestConnectionPools.POOLS.forEach((key, pool) -> {
+			final HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+			if (poolBean != null) {
+				statistics.put(key, "total=" + poolBean.getTotalConnections() + ", active=" + poolBean.getActiveConnections() + ", idle="
+						+ poolBean.getIdleConnections() + ", waiting=" + poolBean.getThreadsAwaitingConnection() + ", max="
+						+ pool.getMaximumPoolSize());
+			}
+		});
+		return statistics;
+	}
+
+	/**
+	 * Logs the pools statistics and the connections budget (for the server
+	 * maximum connections), then closes the pools.
+	 */
+	private static void shutdown() {
+		if (!TestConnectionPools.POOLS.isEmpty()) {
+			TestConnectionPools.getStatistics().forEach((key, statistics) -> TestConnectionPools.LOGGER.info("Test connection pool '{}': {}.", key, statistics));
+			final Integer maxConnections = TestConnectionPools.POOLS.values().stream().mapToInt(HikariDataSource::getMaximumPoolSize).sum();
+			TestConnectionPools.LOGGER.info("Test connection pools may hold up to {} connections per fork ({} for {} forks).", maxConnections,
+					maxConnections * TestHelper.getTestForkCount(), TestHelper.getTestForkCount());
+			TestConnectionPools.POOLS.values().forEach(HikariDataSource::close);
+			TestConnectionPools.POOLS.clear();
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+package org.coldis.library.test;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Lazy registry of named test container definitions. Containers are only
+ * created (and Testcontainers only touched) when first looked up, so loading
+ * {@link TestHelper} (and its subclasses) costs nothing for unit tests that
+ * never ask for one. Names follow the container field convention (and are used
+ * for the published properties, such as {@code POSTGRES_CONTAINER_5432}).
+ */
+public class TestContainerDefinitions {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerDefinitions.class);
+
+	/**
+	 * Postgres container name.
+	 */
+	public static final String POSTGRES_CONTAINER = "POSTGRES_CONTAINER";
+
+	/**
+	 * Artemis container name.
+	 */
+	public static final String ARTEMIS_CONTAINER = "ARTEMIS_CONTAINER";
+
+	/**
+	 * Redis container name.
+	 */
+	public static final String REDIS_CONTAINER = "REDIS_CONTAINER";
+
+	/**
+	 * Container definitions (factories) by name.
+	 */
+	private static final Map<String, Supplier<GenericContainer<?>>> DEFINITIONS = new ConcurrentHashMap<>(
+			Map.<String, Supplier<GenericContainer<?>>>of(TestContainerDefinitions.POSTGRES_CONTAINER, TestHelper::createPostgresContainer,
+					TestContainerDefinitions.ARTEMIS_CONTAINER, TestHelper::createArtemisContainer, TestContainerDefinitions.REDIS_CONTAINER,
+					TestHelper::createRedisContainer));
+
+	/**
+	 * Created containers by name.
+	 */
+	private static final Map<String, GenericContainer<?>> CONTAINERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Defines (or redefines, if not yet created) a container.
+	 *
+	 * @param name    Container name.
+	 * @param factory Container factory.
+	 */
+	public static void define(
+			final String name,
+			final Supplier<GenericContainer<?>> factory) {
+		if (TestContainerDefinitions.CONTAINERS.containsKey(name)) {
+			throw new IllegalStateException("Test container '" + name + "' has already been created.");
+		}
+		TestContainerDefinitions.DEFINITIONS.put(name, Objects.requireNonNull(factory));
+	}
+
+	/**
+	 * If a container is defined.
+	 *
+	 * @param  name Container name.
+	 * @return      If a container is defined.
+	 */
+	public static Boolean isDefined(
+			final String name) {
+		return TestContainerDefinitions.DEFINITIONS.containsKey(name);
+	}
+
+	/**
+	 * If a container has already been created.
+	 *
+	 * @param  name Container name.
+	 * @return      If a container has already been created.
+	 */
+	public static Boolean isCreated(
+			final String name) {
+		return TestContainerDefinitions.CONTAINERS.containsKey(name);
+	}
+
+	/**
+	 * Gets the defined container names.
+	 *
+	 * @return The defined container names.
+	 */
+	public static Set<String> getNames() {
+		return Set.copyOf(TestContainerDefinitions.DEFINITIONS.keySet());
+	}
+
+	/**
+	 * Gets (creating it on first use) a container.
+	 *
+	 * @param  name Container name.
+	 * @return      The container.
+	 */
+	public static GenericContainer<?> get(
+			final String name) {
+		return TestContainerDefinitions.CONTAINERS.computeIfAbsent(name, containerName -> {
+			final Supplier<GenericContainer<?>> factory = TestContainerDefinitions.DEFINITIONS.get(containerName);
+			if (factory == null) {
+				throw new IllegalArgumentException("Test container '" + containerName + "' is not defined.");
+			}
+			TestContainerDefinitions.LOGGER.debug("Test container '{}' created.", containerName);
+			return factory.get();
+		});
+	}
+
+}
@@ -0,0 +1,26 @@
+package org.coldis.library.test;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Adds the {@link TestContainerPropertySource} (before the system properties),
+ * so deferred test containers start when their properties are resolved.
+ */
+public class TestContainerEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+	/**
+	 * @see org.springframework.boot.env.EnvironmentPostProcessor#postProcessEnvironment(org.springframework.core.env.ConfigurableEnvironment,
+	 *      org.springframework.boot.SpringApplication)
+	 */
+	@Override
+	public void postProcessEnvironment(
+			final ConfigurableEnvironment environment,
+			final SpringApplication application) {
+		if (!environment.getPropertySources().contains(TestContainerPropertySource.NAME)) {
+			environment.getPropertySources().addFirst(new TestContainerPropertySource());
+		}
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.coldis.library.test;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pre-pulls (if enabled) the images of the containers declared by the test
+ * classes of the test plan, as soon as its execution starts.
+ */
+public class TestContainerImagePullListener implements TestExecutionListener {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerImagePullListener.class);
+
+	/**
+	 * Collects the test classes of a test plan.
+	 *
+	 * @param testPlan    Test plan.
+	 * @param identifier  Test identifier.
+	 * @param testClasses Test classes.
+	 */
+	private static void collectTestClasses(
+			final TestPlan testPlan,
+			final TestIdentifier identifier,
+			final Set<Class<?>> testClasses) {
+		if (identifier.getSource().orElse(null) instanceof final ClassSource classSource) {
+			try {
+				testClasses.add(classSource.getJavaClass());
+			}
+			catch (final Throwable exception) {
+				TestContainerImagePullListener.LOGGER.debug("Test class '{}' could not be loaded.", classSource.getClassName(), exception);
+			}
+		}
+		else {
+			testPlan.getChildren(identifier).forEach(child -> TestContainerImagePullListener.collectTestClasses(testPlan, child, testClasses));
+		}
+	}
+
+	/**
+	 * @see org.junit.platform.launcher.TestExecutionListener#testPlanExecutionStarted(org.junit.platform.launcher.TestPlan)
+	 */
+	@Override
+	public void testPlanExecutionStarted(
+			final TestPlan testPlan) {
+		if (TestContainerImagePuller.isEnabled()) {
+			final Set<Class<?>> testClasses = new LinkedHashSet<>();
+			testPlan.getRoots().forEach(root -> TestContainerImagePullListener.collectTestClasses(testPlan, root, testClasses));
+			TestContainerImagePuller.prePull(TestContainerImagePuller.getImageNames(testClasses));
+		}
+	}
+
+}
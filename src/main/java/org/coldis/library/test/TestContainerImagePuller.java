@@ -0,0 +1,223 @@
+package org.coldis.library.test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
+
+import com.github.dockerjava.api.exception.NotFoundException;
+
+/**
+ * Pulls the test container images in parallel, once per host (under a host
+ * lock), before the containers start. Images already available locally (pulled
+ * by another fork or run) are not pulled again, and their containers skip the
+ * registry checks when they start. As that local check mirrors the default
+ * Testcontainers pull policy, the value of the puller lies only in the
+ * cross-fork host lock (so concurrent forks do not pull the same image at
+ * once) and in the pulls running in parallel at session start (instead of one
+ * by one as each container starts).
+ */
+public class TestContainerImagePuller {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerImagePuller.class);
+
+	/**
+	 * Enabled property.
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.container.pre-pull";
+
+	/**
+	 * Additional images to pre-pull property (comma separated).
+	 */
+	public static final String IMAGES_PROPERTY = "project.config.source.test.container.pre-pull-images";
+
+	/**
+	 * Image names of the containers created by the container factories (as the
+	 * image name of a container is only available once it has been resolved).
+	 */
+	private static final Map<GenericContainer<?>, String> IMAGE_NAMES = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	/**
+	 * Pull executor (virtual threads, as pulls mostly wait on I/O).
+	 */
+	private static final ExecutorService PULL_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+	/**
+	 * Pulls (by image), each resolving to if the image is available locally.
+	 */
+	private static final Map<String, CompletableFuture<Boolean>> PULLS = new ConcurrentHashMap<>();
+
+	/**
+	 * If the pre-pull is enabled.
+	 *
+	 * @return If the pre-pull is enabled.
+	 */
+	public static Boolean isEnabled() {
+		return Objects.equals(System.getProperty(TestContainerImagePuller.ENABLED_PROPERTY), "true");
+	}
+
+	/**
+	 * Registers the image name of a container (so it can be pre-pulled without
+	 * resolving the container image).
+	 *
+	 * @param  imageName Image name.
+	 * @param  container Container.
+	 * @return           The container.
+	 */
+	public static GenericContainer<?> register(
+			final String imageName,
+			final GenericContainer<?> container) {
+		TestContainerImagePuller.IMAGE_NAMES.put(container, DockerImageName.parse(imageName).asCanonicalNameString());
+		return container;
+	}
+
+	/**
+	 * Gets the image name of a container, without resolving (pulling) it: the
+	 * registered image name or, if the image has already been resolved, its name.
+	 *
+	 * @param  container Container.
+	 * @return           The image name (or null if it is not known yet).
+	 */
+	public static String getImageName(
+			final GenericContainer<?> container) {
+		final String imageName = TestContainerImagePuller.IMAGE_NAMES.get(container);
+		return ((imageName == null) && container.getImage().isDone() ? container.getDockerImageName() : imageName);
+	}
+
+	/**
+	 * Gets the images of the static container fields of test classes (plus the
+	 * configured additional images).
+	 *
+	 * @param  testClasses Test classes.
+	 * @return             The images.
+	 */
+	public static Set<String> getImageNames(
+			final Collection<Class<?>> testClasses) {
+		final Set<String> imageNames = new LinkedHashSet<>();
+		Arrays.stream(System.getProperty(TestContainerImagePuller.IMAGES_PROPERTY, "").split(",")).map(String::trim).filter(StringUtils::isNotEmpty)
+				.forEach(imageNames::add);
+		for (final Class<?> testClass : testClasses) {
+			for (final Field field : TestWithContainerExtensionHelper.getContainersFieldsFromTests(testClass)) {
+				try {
+					final GenericContainer<?> container = (GenericContainer<?>) FieldUtils.readStaticField(field, true);
+					final String imageName = (container == null ? null : TestContainerImagePuller.getImageName(container));
+					if (imageName != null) {
+						imageNames.add(imageName);
+					}
+				}
+				catch (final Throwable exception) {
+					TestContainerImagePuller.LOGGER.debug("Container field '{}' image could not be read.", field.getName(), exception);
+				}
+			}
+		}
+		return imageNames;
+	}
+
+	/**
+	 * Gets the local image id.
+	 *
+	 * @param  imageName Image name.
+	 * @return           The local image id (or null if the image is not local).
+	 */
+	private static String getLocalImageId(
+			final String imageName) {
+		try {
+			return DockerClientFactory.lazyClient().inspectImageCmd(imageName).exec().getId();
+		}
+		catch (final NotFoundException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * Pulls an image (if it is not available locally yet).
+	 *
+	 * @param  imageName Image name.
+	 * @return           If the image is available locally.
+	 */
+	private static Boolean doPull(
+			final String imageName) {
+		try (TestLifecycleSpan span = TestLifecycleTimeline.start(TestLifecycleTimeline.IMAGE_PULL, imageName)) {
+			return TestForkTenancy.withHostLock("image-" + imageName.replaceAll("[^\\w.-]", "_"), () -> {
+				// Skips images already available locally (pulled by another fork or run).
+				if (TestContainerImagePuller.getLocalImageId(imageName) != null) {
+					TestContainerImagePuller.LOGGER.debug("Image '{}' already available locally.", imageName);
+					return true;
+				}
+				TestContainerImagePuller.LOGGER.info("Image '{}' pulling.", imageName);
+				new RemoteDockerImage(DockerImageName.parse(imageName)).get();
+				return TestContainerImagePuller.getLocalImageId(imageName) != null;
+			});
+		}
+		catch (final Exception exception) {
+			TestContainerImagePuller.LOGGER.warn("Image '{}' could not be pre-pulled: {}.", imageName, exception.getLocalizedMessage());
+			TestContainerImagePuller.LOGGER.debug("Error pre-pulling image.", exception);
+			return false;
+		}
+	}
+
+	/**
+	 * Pulls an image asynchronously (once per JVM).
+	 *
+	 * @param  imageName Image name.
+	 * @return           The pull, resolving to if the image is available locally.
+	 */
+	public static CompletableFuture<Boolean> pull(
+			final String imageName) {
+		return TestContainerImagePuller.PULLS.computeIfAbsent(imageName,
+				name -> CompletableFuture.supplyAsync(() -> TestContainerImagePuller.doPull(name), TestContainerImagePuller.PULL_EXECUTOR));
+	}
+
+	/**
+	 * Pulls images in parallel.
+	 *
+	 * @param  imageNames Image names.
+	 * @return            The pulls.
+	 */
+	public static CompletableFuture<Void> prePull(
+			final Collection<String> imageNames) {
+		if (!imageNames.isEmpty()) {
+			TestContainerImagePuller.LOGGER.info("Images pre-pulling: {}.", imageNames);
+		}
+		return CompletableFuture.allOf(imageNames.stream().map(TestContainerImagePuller::pull).toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * Prepares a container image before the container starts: waits for its
+	 * (pre-)pull and, if the image is available locally, skips the pull policy
+	 * checks when the container starts.
+	 *
+	 * @param container Container.
+	 */
+	public static void prepare(
+			final GenericContainer<?> container) {
+		if (TestContainerImagePuller.isEnabled() && !container.isRunning() && (container.getContainerId() == null)) {
+			final String imageName = TestContainerImagePuller.getImageName(container);
+			if ((imageName != null) && TestContainerImagePuller.pull(imageName).join()) {
+				container.withImagePullPolicy(image -> false);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.coldis.library.test;
+
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test container kind (identified by the exposed service port).
+ */
+public enum TestContainerKind {
+
+	/**
+	 * Postgres.
+	 */
+	POSTGRES(5432),
+
+	/**
+	 * Artemis.
+	 */
+	ARTEMIS(61616),
+
+	/**
+	 * Redis.
+	 */
+	REDIS(6379),
+
+	/**
+	 * Other.
+	 */
+	OTHER(null);
+
+	/**
+	 * Service port.
+	 */
+	private final Integer servicePort;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param servicePort Service port.
+	 */
+	TestContainerKind(final Integer servicePort) {
+		this.servicePort = servicePort;
+	}
+
+	/**
+	 * Gets the service port.
+	 *
+	 * @return The service port.
+	 */
+	public Integer getServicePort() {
+		return this.servicePort;
+	}
+
+	/**
+	 * Gets the kind of a container.
+	 *
+	 * @param  container Container.
+	 * @return           The container kind.
+	 */
+	public static TestContainerKind of(
+			final GenericContainer<?> container) {
+		for (final TestContainerKind kind : TestContainerKind.values()) {
+			if ((kind.servicePort != null) && container.getExposedPorts().contains(kind.servicePort)) {
+				return kind;
+			}
+		}
+		return TestContainerKind.OTHER;
+	}
+
+}
@@ -0,0 +1,369 @@
+package org.coldis.library.test;
+
+import java.lang.reflect.Field;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Lazy test container start. Containers of lazy classes are registered as
+ * deferred (by test class and field) and only started on first use: when one
+ * of their properties is resolved (see {@link TestContainerPropertySource}),
+ * when a container helper connects to them or through
+ * {@link #getContainer(Class, String)}.
+ * Containers of pipelined classes are registered the same way, but started
+ * right away in the background (in dependency order), so the Spring context
+ * bootstrap overlaps with their startup and only the beans that connect to them
+ * wait for their readiness.
+ */
+public class TestContainerLazyStart {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerLazyStart.class);
+
+	/**
+	 * Lazy (for every class) property.
+	 */
+	public static final String LAZY_PROPERTY = "project.config.source.test.container.lazy";
+
+	/**
+	 * Background warm-up (of deferred containers) property.
+	 */
+	public static final String WARM_UP_PROPERTY = "project.config.source.test.container.lazy-warm-up";
+
+	/**
+	 * Pipelined (for every class) property.
+	 */
+	public static final String PIPELINED_PROPERTY = "project.config.source.test.container.pipelined";
+
+	/**
+	 * Deferred container.
+	 */
+	private static class DeferredContainer {
+
+		/**
+		 * Test class.
+		 */
+		private final Class<?> testClass;
+
+		/**
+		 * Container field.
+		 */
+		private final Field field;
+
+		/**
+		 * Container.
+		 */
+		private final GenericContainer<?> container;
+
+		/**
+		 * Registration sequence.
+		 */
+		private final Long sequence = TestContainerLazyStart.SEQUENCE.incrementAndGet();
+
+		/**
+		 * If the properties have been published for the test class.
+		 */
+		private Boolean published = false;
+
+		/**
+		 * Readiness (of the background start, if pipelined).
+		 */
+		private volatile CompletableFuture<Void> readiness;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param testClass Test class.
+		 * @param field     Container field.
+		 * @param container Container.
+		 */
+		private DeferredContainer(final Class<?> testClass, final Field field, final GenericContainer<?> container) {
+			this.testClass = testClass;
+			this.field = field;
+			this.container = container;
+		}
+
+	}
+
+	/**
+	 * Registration sequence.
+	 */
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+
+	/**
+	 * Deferred containers (by test class and field name).
+	 */
+	private static final Map<String, DeferredContainer> DEFERRED_CONTAINERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the deferred container key.
+	 *
+	 * @param  testClass Test class.
+	 * @param  fieldName Container field name.
+	 * @return           The deferred container key.
+	 */
+	private static String getKey(
+			final Class<?> testClass,
+			final String fieldName) {
+		return testClass.getName() + "#" + fieldName;
+	}
+
+	/**
+	 * Gets the deferred container registered last for a field name (as container
+	 * properties are named after the field only).
+	 *
+	 * @param  fieldName Container field name.
+	 * @return           The deferred container (or null if none is registered).
+	 */
+	private static DeferredContainer getDeferredContainer(
+			final String fieldName) {
+		return TestContainerLazyStart.DEFERRED_CONTAINERS.values().stream()
+				.filter(deferredContainer -> Objects.equals(deferredContainer.field.getName(), fieldName))
+				.max((first, second) -> first.sequence.compareTo(second.sequence)).orElse(null);
+	}
+
+	/**
+	 * If test containers should be started lazily.
+	 *
+	 * @param  testClass Test class.
+	 * @return           If test containers should be started lazily.
+	 */
+	public static Boolean isLazy(
+			final Class<?> testClass) {
+		return Objects.equals(System.getProperty(TestContainerLazyStart.LAZY_PROPERTY), "true")
+				|| ((testClass.getAnnotation(TestWithContainer.class) != null) && testClass.getAnnotation(TestWithContainer.class).lazy());
+	}
+
+	/**
+	 * If test containers should start in the background (without blocking the
+	 * class).
+	 *
+	 * @param  testClass Test class.
+	 * @return           If test containers should start in the background.
+	 */
+	public static Boolean isPipelined(
+			final Class<?> testClass) {
+		return Objects.equals(System.getProperty(TestContainerLazyStart.PIPELINED_PROPERTY), "true")
+				|| ((testClass.getAnnotation(TestWithContainer.class) != null) && testClass.getAnnotation(TestWithContainer.class).pipelined());
+	}
+
+	/**
+	 * Registers a deferred container.
+	 *
+	 * @param  testClass              Test class.
+	 * @param  field                  Container field.
+	 * @throws IllegalAccessException If the field cannot be read.
+	 */
+	public static void register(
+			final Class<?> testClass,
+			final Field field) throws IllegalAccessException {
+		final DeferredContainer deferredContainer = new DeferredContainer(testClass, field, (GenericContainer<?>) field.get(null));
+		TestContainerLazyStart.DEFERRED_CONTAINERS.put(TestContainerLazyStart.getKey(testClass, field.getName()), deferredContainer);
+		TestContainerLazyStart.LOGGER.info("Test container '{}' deferred for class '{}'.", field.getName(), testClass.getSimpleName());
+		// Optionally starts it in the background, without blocking the class.
+		if (Objects.equals(System.getProperty(TestContainerLazyStart.WARM_UP_PROPERTY), "true") && !TestContainerLazyStart.isPipelined(testClass)) {
+			TestContainerLifecycleExecutor.getExecutor().execute(() -> TestContainerLazyStart.getContainer(testClass, field.getName()));
+		}
+	}
+
+	/**
+	 * Starts the (registered) deferred containers of a test class in the
+	 * background, in dependency order, keeping a readiness future for each.
+	 *
+	 * @param  testClass Test class.
+	 * @param  fields    Container fields.
+	 * @param  parallel  If independent containers may start in parallel.
+	 * @return           The readiness of all containers.
+	 */
+	public static CompletableFuture<Void> pipeline(
+			final Class<?> testClass,
+			final Iterable<Field> fields,
+			final Boolean parallel) {
+		final Map<GenericContainer<?>, DeferredContainer> deferredContainers = new IdentityHashMap<>();
+		for (final Field field : fields) {
+			final DeferredContainer deferredContainer = TestContainerLazyStart.DEFERRED_CONTAINERS.get(TestContainerLazyStart.getKey(testClass, field.getName()));
+			if (deferredContainer != null) {
+				deferredContainers.put(deferredContainer.container, deferredContainer);
+			}
+		}
+		final Map<GenericContainer<?>, CompletableFuture<Void>> readiness = TestContainerLifecycleExecutor.scheduleInDependencyOrder(deferredContainers,
+				TestContainerLazyStart::start, parallel);
+		readiness.forEach((container, containerReadiness) -> deferredContainers.get(container).readiness = containerReadiness);
+		TestContainerLazyStart.LOGGER.info("Test containers '{}' starting in the background for class '{}'.",
+				deferredContainers.values().stream().map(deferredContainer -> deferredContainer.field.getName()).toList(), testClass.getSimpleName());
+		return CompletableFuture.allOf(readiness.values().toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * Gets the readiness of a deferred container started in the background.
+	 *
+	 * @param  deferredContainer Deferred container.
+	 * @return                   The readiness of the container (completed if it
+	 *                           is not being started in the background).
+	 */
+	private static CompletableFuture<Void> getReadiness(
+			final DeferredContainer deferredContainer) {
+		final CompletableFuture<Void> readiness = (deferredContainer == null ? null : deferredContainer.readiness);
+		return (readiness == null ? CompletableFuture.completedFuture(null) : readiness);
+	}
+
+	/**
+	 * Gets the readiness of a deferred container of a test class started in the
+	 * background.
+	 *
+	 * @param  testClass Test class.
+	 * @param  fieldName Container field name.
+	 * @return           The readiness of the container (completed if it is not
+	 *                   being started in the background).
+	 */
+	public static CompletableFuture<Void> getReadiness(
+			final Class<?> testClass,
+			final String fieldName) {
+		return TestContainerLazyStart.getReadiness(TestContainerLazyStart.DEFERRED_CONTAINERS.get(TestContainerLazyStart.getKey(testClass, fieldName)));
+	}
+
+	/**
+	 * Gets the readiness of the deferred container registered last for a field
+	 * name started in the background.
+	 *
+	 * @param  fieldName Container field name.
+	 * @return           The readiness of the container (completed if it is not
+	 *                   being started in the background).
+	 */
+	public static CompletableFuture<Void> getReadiness(
+			final String fieldName) {
+		return TestContainerLazyStart.getReadiness(TestContainerLazyStart.getDeferredContainer(fieldName));
+	}
+
+	/**
+	 * Unregisters the deferred containers of a test class.
+	 *
+	 * @param testClass Test class.
+	 */
+	public static void unregister(
+			final Class<?> testClass) {
+		TestContainerLazyStart.DEFERRED_CONTAINERS.values().removeIf(deferredContainer -> deferredContainer.testClass == testClass);
+	}
+
+	/**
+	 * Starts a deferred container (if not running yet) and publishes its
+	 * properties (once).
+	 *
+	 * @param  deferredContainer     Deferred container.
+	 * @throws IllegalStateException If the container does not start.
+	 */
+	private static void start(
+			final DeferredContainer deferredContainer) {
+		final String fieldName = deferredContainer.field.getName();
+		synchronized (deferredContainer) {
+			if (!deferredContainer.container.isRunning()) {
+				TestContainerLazyStart.LOGGER.info("Test container '{}' starting (deferred) for class '{}'.", fieldName,
+						deferredContainer.testClass.getSimpleName());
+				deferredContainer.published = false;
+				TestContainerRegistry.getRegistration(deferredContainer.container)
+						.start(() -> TestWithContainerExtensionHelper.startTestContainer(deferredContainer.testClass, deferredContainer.field)).join();
+				// Fails (the readiness, if pipelined) if the container did not start.
+				if (!deferredContainer.container.isRunning()) {
+					throw new IllegalStateException("Test container '" + fieldName + "' did not start for class '"
+							+ deferredContainer.testClass.getSimpleName() + "'.");
+				}
+			}
+			if (!deferredContainer.published) {
+				TestWithContainerExtensionHelper.publishTestContainerProperties(deferredContainer.testClass, deferredContainer.field);
+				deferredContainer.published = true;
+			}
+		}
+	}
+
+	/**
+	 * Gets a container, starting it (and publishing its properties) if it is
+	 * deferred. If it is being started in the background, waits for its
+	 * readiness instead.
+	 *
+	 * @param  deferredContainer Deferred container.
+	 * @return                   The container (or null if it is not deferred).
+	 */
+	private static GenericContainer<?> getContainer(
+			final DeferredContainer deferredContainer) {
+		if (deferredContainer != null) {
+			if (deferredContainer.readiness != null) {
+				deferredContainer.readiness.join();
+			}
+			TestContainerLazyStart.start(deferredContainer);
+			return deferredContainer.container;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets a container of a test class, starting it (and publishing its
+	 * properties) if it is deferred.
+	 *
+	 * @param  testClass Test class.
+	 * @param  fieldName Container field name.
+	 * @return           The container (or null if it is not deferred).
+	 */
+	public static GenericContainer<?> getContainer(
+			final Class<?> testClass,
+			final String fieldName) {
+		return TestContainerLazyStart.getContainer(TestContainerLazyStart.DEFERRED_CONTAINERS.get(TestContainerLazyStart.getKey(testClass, fieldName)));
+	}
+
+	/**
+	 * Gets the container registered last for a field name, starting it (and
+	 * publishing its properties) if it is deferred.
+	 *
+	 * @param  fieldName Container field name.
+	 * @return           The container (or null if it is not deferred).
+	 */
+	public static GenericContainer<?> getContainer(
+			final String fieldName) {
+		return TestContainerLazyStart.getContainer(TestContainerLazyStart.getDeferredContainer(fieldName));
+	}
+
+	/**
+	 * Starts a container if it is deferred and not running yet (on connection
+	 * use).
+	 *
+	 * @param container Container.
+	 */
+	public static void ensureStarted(
+			final GenericContainer<?> container) {
+		if (!container.isRunning()) {
+			TestContainerLazyStart.DEFERRED_CONTAINERS.values().stream().filter(deferredContainer -> deferredContainer.container == container).findFirst()
+					.ifPresent(deferredContainer -> TestContainerLazyStart.getContainer(deferredContainer));
+		}
+	}
+
+	/**
+	 * Resolves a container property (such as {@code POSTGRES_CONTAINER_5432}),
+	 * starting its container if it is deferred (the one registered last, if
+	 * several classes use the same field name).
+	 *
+	 * @param  propertyName Property name.
+	 * @return              The property value (or null if it is not a deferred
+	 *                      container property).
+	 */
+	public static String resolveProperty(
+			final String propertyName) {
+		final DeferredContainer deferredContainer = TestContainerLazyStart.DEFERRED_CONTAINERS.values().stream()
+				.filter(candidate -> propertyName.startsWith(candidate.field.getName() + "_"))
+				.max((first, second) -> first.sequence.compareTo(second.sequence)).orElse(null);
+		if (deferredContainer != null) {
+			TestContainerLazyStart.getContainer(deferredContainer);
+			return System.getProperty(propertyName);
+		}
+		return null;
+	}
+
+}
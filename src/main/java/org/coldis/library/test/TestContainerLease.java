@@ -0,0 +1,67 @@
+package org.coldis.library.test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test container lease. While a lease is held the container is not stopped.
+ */
+public class TestContainerLease implements AutoCloseable {
+
+	/**
+	 * Container registration.
+	 */
+	private final TestContainerRegistration registration;
+
+	/**
+	 * If the lease has been released.
+	 */
+	private final AtomicBoolean released = new AtomicBoolean();
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param registration Container registration.
+	 */
+	protected TestContainerLease(final TestContainerRegistration registration) {
+		super();
+		this.registration = registration;
+	}
+
+	/**
+	 * Gets the container registration.
+	 *
+	 * @return The container registration.
+	 */
+	public TestContainerRegistration getRegistration() {
+		return this.registration;
+	}
+
+	/**
+	 * Gets the container.
+	 *
+	 * @return The container.
+	 */
+	public GenericContainer<?> getContainer() {
+		return this.registration.getContainer();
+	}
+
+	/**
+	 * Releases the lease (only the first call has effect).
+	 *
+	 * @return The number of remaining leases for the container.
+	 */
+	public Integer release() {
+		return (this.released.compareAndSet(false, true) ? this.registration.release() : this.registration.getLeaseCount());
+	}
+
+	/**
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		this.release();
+	}
+
+}
@@ -0,0 +1,156 @@
+package org.coldis.library.test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.lifecycle.Startable;
+
+/**
+ * Shared, bounded executor for test container lifecycle tasks (start/stop).
+ * Containers are started respecting their declared dependencies
+ * ({@link GenericContainer#dependsOn(Startable...)}): independent containers
+ * start in parallel, and dependent ones start once their dependencies are
+ * ready.
+ */
+public class TestContainerLifecycleExecutor {
+
+	/**
+	 * Maximum parallel container lifecycle tasks property.
+	 */
+	public static final String MAX_PARALLEL_TASKS_PROPERTY = "project.config.source.test.container.max-parallel-starts";
+
+	/**
+	 * Default maximum parallel container lifecycle tasks.
+	 */
+	public static final Integer DEFAULT_MAX_PARALLEL_TASKS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+	/**
+	 * Thread count.
+	 */
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	/**
+	 * Executor (shared by every test class).
+	 */
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(TestContainerLifecycleExecutor.getMaxParallelTasks(), runnable -> {
+		final Thread thread = new Thread(runnable, "test-container-lifecycle-" + TestContainerLifecycleExecutor.THREAD_COUNT.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Gets the maximum parallel container lifecycle tasks.
+	 *
+	 * @return The maximum parallel container lifecycle tasks.
+	 */
+	public static Integer getMaxParallelTasks() {
+		final String maxParallelTasks = System.getProperty(TestContainerLifecycleExecutor.MAX_PARALLEL_TASKS_PROPERTY);
+		return (NumberUtils.isParsable(maxParallelTasks) ? Math.max(1, Integer.parseInt(maxParallelTasks))
+				: TestContainerLifecycleExecutor.DEFAULT_MAX_PARALLEL_TASKS);
+	}
+
+	/**
+	 * Gets the shared executor.
+	 *
+	 * @return The shared executor.
+	 */
+	public static ExecutorService getExecutor() {
+		return TestContainerLifecycleExecutor.EXECUTOR;
+	}
+
+	/**
+	 * Sorts the containers so dependencies come before their dependents.
+	 *
+	 * @param  container Container.
+	 * @param  items     Items (by container, identity map).
+	 * @param  sorted    Already sorted containers.
+	 * @param  path      Containers on the current dependency path (cycle check).
+	 */
+	private static void sortByDependencies(
+			final GenericContainer<?> container,
+			final Map<GenericContainer<?>, ?> items,
+			final List<GenericContainer<?>> sorted,
+			final List<GenericContainer<?>> path) {
+		if (sorted.stream().noneMatch(sortedContainer -> sortedContainer == container)) {
+			if (path.stream().anyMatch(pathContainer -> pathContainer == container)) {
+				throw new IllegalStateException("Cyclic test container dependency for '" + container.getDockerImageName() + "'.");
+			}
+			final List<GenericContainer<?>> dependencyPath = new ArrayList<>(path);
+			dependencyPath.add(container);
+			for (final Startable dependency : container.getDependencies()) {
+				if ((dependency instanceof GenericContainer<?>) && items.containsKey(dependency)) {
+					TestContainerLifecycleExecutor.sortByDependencies((GenericContainer<?>) dependency, items, sorted, dependencyPath);
+				}
+			}
+			sorted.add(container);
+		}
+	}
+
+	/**
+	 * Schedules a task for each container on the shared executor, respecting the
+	 * dependencies among the given containers. Dependencies outside the given
+	 * containers are left to Testcontainers.
+	 *
+	 * @param  <Item>   Item type.
+	 * @param  items    Items (by container, identity map).
+	 * @param  task     Task to run for each item.
+	 * @param  parallel If independent containers may run in parallel (otherwise
+	 *                      they run one after the other).
+	 * @return          The job for each container (identity map).
+	 */
+	public static <Item> Map<GenericContainer<?>, CompletableFuture<Void>> scheduleInDependencyOrder(
+			final Map<GenericContainer<?>, Item> items,
+			final Consumer<Item> task,
+			final Boolean parallel) {
+		// Sorts the containers by dependencies.
+		final List<GenericContainer<?>> sorted = new ArrayList<>();
+		for (final GenericContainer<?> container : items.keySet()) {
+			TestContainerLifecycleExecutor.sortByDependencies(container, items, sorted, List.of());
+		}
+		// Schedules each container after its dependencies (or after the previous one, if not parallel).
+		final Map<GenericContainer<?>, CompletableFuture<Void>> jobs = new IdentityHashMap<>();
+		CompletableFuture<Void> previousJob = CompletableFuture.completedFuture(null);
+		for (final GenericContainer<?> container : sorted) {
+			final CompletableFuture<?>[] dependenciesJobs = (parallel
+					? container.getDependencies().stream().filter(dependency -> jobs.containsKey(dependency)).map(jobs::get)
+							.toArray(CompletableFuture[]::new)
+					: new CompletableFuture[] { previousJob });
+			final Item item = items.get(container);
+			final CompletableFuture<Void> job = CompletableFuture.allOf(dependenciesJobs).thenRunAsync(() -> task.accept(item),
+					TestContainerLifecycleExecutor.EXECUTOR);
+			jobs.put(container, job);
+			previousJob = job;
+		}
+		return jobs;
+	}
+
+	/**
+	 * Runs a task for each container on the shared executor, respecting the
+	 * dependencies among the given containers. Dependencies outside the given
+	 * containers are left to Testcontainers.
+	 *
+	 * @param  <Item>   Item type.
+	 * @param  items    Items (by container, identity map).
+	 * @param  task     Task to run for each item.
+	 * @param  parallel If independent containers may run in parallel (otherwise
+	 *                      they run one after the other).
+	 * @return          The job for all containers.
+	 */
+	public static <Item> CompletableFuture<Void> runInDependencyOrder(
+			final Map<GenericContainer<?>, Item> items,
+			final Consumer<Item> task,
+			final Boolean parallel) {
+		return CompletableFuture.allOf(
+				TestContainerLifecycleExecutor.scheduleInDependencyOrder(items, task, parallel).values().toArray(CompletableFuture[]::new));
+	}
+
+}
@@ -0,0 +1,188 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+
+import com.github.dockerjava.api.model.ContainerNetwork;
+
+/**
+ * Shared (user-defined) test container network. Containers on it get a stable
+ * alias (derived from the field name), so containers can talk to each other by
+ * alias, and, if the host can route to the network, are reached directly
+ * (skipping the port mapping proxy).
+ */
+public class TestContainerNetwork {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerNetwork.class);
+
+	/**
+	 * Enabled (for every class) property.
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.container.network";
+
+	/**
+	 * Alias property suffix.
+	 */
+	public static final String ALIAS_PROPERTY_SUFFIX = "_ALIAS";
+
+	/**
+	 * Host property suffix (the direct address, or the mapped host).
+	 */
+	public static final String HOST_PROPERTY_SUFFIX = "_HOST";
+
+	/**
+	 * Route check timeout (milliseconds).
+	 */
+	private static final Integer ROUTE_TIMEOUT = 250;
+
+	/**
+	 * If the host can route directly to each container (by container id).
+	 */
+	private static final Map<String, Boolean> DIRECT_ROUTES = new ConcurrentHashMap<>();
+
+	/**
+	 * If the shared network should be used by the test class containers.
+	 *
+	 * @param  testClass Test class.
+	 * @return           If the shared network should be used.
+	 */
+	public static Boolean isEnabled(
+			final Class<?> testClass) {
+		return Objects.equals(System.getProperty(TestContainerNetwork.ENABLED_PROPERTY), "true")
+				|| ((testClass.getAnnotation(TestWithContainer.class) != null) && testClass.getAnnotation(TestWithContainer.class).network());
+	}
+
+	/**
+	 * Gets the container alias (from its field name).
+	 *
+	 * @param  fieldName Field name.
+	 * @return           The container alias.
+	 */
+	public static String getAlias(
+			final String fieldName) {
+		return fieldName.toLowerCase().replace('_', '-');
+	}
+
+	/**
+	 * Attaches a container (not created yet) to the shared network.
+	 *
+	 * @param  container Container.
+	 * @param  fieldName Field name.
+	 * @return           The container.
+	 */
+	public static GenericContainer<?> apply(
+			final GenericContainer<?> container,
+			final String fieldName) {
+		if (container.getContainerId() == null) {
+			// The shared network lives as long as this JVM, so it cannot be shared by containers reused across forks.
+			if (TestForkTenancy.isSharedAcrossForks()) {
+				TestContainerNetwork.LOGGER.warn("Test container '{}' not attached to the shared network, as it is shared across forks.", fieldName);
+			}
+			else {
+				container.withNetwork(Network.SHARED);
+				if (!container.getNetworkAliases().contains(TestContainerNetwork.getAlias(fieldName))) {
+					container.withNetworkAliases(TestContainerNetwork.getAlias(fieldName));
+				}
+			}
+		}
+		return container;
+	}
+
+	/**
+	 * If the container is on the shared network.
+	 *
+	 * @param  container Container.
+	 * @return           If the container is on the shared network.
+	 */
+	public static Boolean isOnSharedNetwork(
+			final GenericContainer<?> container) {
+		return container.getNetwork() == Network.SHARED;
+	}
+
+	/**
+	 * Gets the container IP address (on the shared network, on any user-defined
+	 * network or on the default bridge).
+	 *
+	 * @param  container Container.
+	 * @return           The container IP address.
+	 */
+	public static String getIpAddress(
+			final GenericContainer<?> container) {
+		final Map<String, ContainerNetwork> networks = container.getContainerInfo().getNetworkSettings().getNetworks();
+		final String networkId = (container.getNetwork() == null ? null : container.getNetwork().getId());
+		String ipAddress = null;
+		if (networks != null) {
+			ipAddress = networks.values().stream().filter(network -> Objects.equals(network.getNetworkID(), networkId)).map(ContainerNetwork::getIpAddress)
+					.filter(StringUtils::isNotBlank).findFirst()
+					.orElse(networks.values().stream().map(ContainerNetwork::getIpAddress).filter(StringUtils::isNotBlank).findFirst().orElse(null));
+		}
+		return (ipAddress == null ? container.getContainerInfo().getNetworkSettings().getIpAddress() : ipAddress);
+	}
+
+	/**
+	 * If the host can route directly to the container (only checked for
+	 * containers on the shared network).
+	 *
+	 * @param  container Container.
+	 * @return           If the host can route directly to the container.
+	 */
+	public static Boolean isDirectlyRoutable(
+			final GenericContainer<?> container) {
+		if (!container.isRunning() || !TestContainerNetwork.isOnSharedNetwork(container) || container.getExposedPorts().isEmpty()) {
+			return false;
+		}
+		return TestContainerNetwork.DIRECT_ROUTES.computeIfAbsent(container.getContainerId(), containerId -> {
+			final String ipAddress = TestContainerNetwork.getIpAddress(container);
+			try (Socket socket = new Socket()) {
+				socket.connect(new InetSocketAddress(ipAddress, container.getExposedPorts().get(0)), TestContainerNetwork.ROUTE_TIMEOUT);
+				TestContainerNetwork.LOGGER.info("Test container '{}' reachable directly at {}.", container.getContainerName(), ipAddress);
+				return true;
+			}
+			catch (final IOException exception) {
+				TestContainerNetwork.LOGGER.info("Test container '{}' not reachable directly at {}, using the mapped ports.", container.getContainerName(),
+						ipAddress);
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * Gets the host to connect to the container (its address, if directly
+	 * routable, or the mapped host).
+	 *
+	 * @param  container Container.
+	 * @return           The host to connect to the container.
+	 */
+	public static String getHost(
+			final GenericContainer<?> container) {
+		return (TestContainerNetwork.isDirectlyRoutable(container) ? TestContainerNetwork.getIpAddress(container) : container.getHost());
+	}
+
+	/**
+	 * Gets the port to connect to the container (the exposed port, if directly
+	 * routable, or the mapped port).
+	 *
+	 * @param  container    Container.
+	 * @param  exposedPort  Exposed port.
+	 * @return              The port to connect to the container.
+	 */
+	public static Integer getPort(
+			final GenericContainer<?> container,
+			final Integer exposedPort) {
+		return (TestContainerNetwork.isDirectlyRoutable(container) ? exposedPort : container.getMappedPort(exposedPort));
+	}
+
+}
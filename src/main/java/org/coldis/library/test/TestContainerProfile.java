@@ -0,0 +1,187 @@
+package org.coldis.library.test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Test container profiles. The ephemeral profile trades durability for speed:
+ * data directories on tmpfs and fsync/persistence disabled (tmpfs data counts
+ * against the container memory quota). The image command is kept: the server
+ * settings are changed once the container is ready (and checked, for images
+ * that may ignore them). Container definitions are only changed until the
+ * container stops, so classes starting it again get their own profile.
+ */
+public class TestContainerProfile {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerProfile.class);
+
+	/**
+	 * Ephemeral profile property.
+	 */
+	public static final String EPHEMERAL_PROPERTY = "project.config.source.test.container.ephemeral";
+
+	/**
+	 * Postgres data directory (if the image does not set {@code PGDATA}).
+	 */
+	public static final String POSTGRES_DATA_DIRECTORY = "/var/lib/postgresql/data";
+
+	/**
+	 * Redis data directory.
+	 */
+	public static final String REDIS_DATA_DIRECTORY = "/data";
+
+	/**
+	 * Postgres ephemeral settings.
+	 */
+	public static final Map<String, String> POSTGRES_SETTINGS = Map.of("fsync", "off", "synchronous_commit", "off", "full_page_writes", "off");
+
+	/**
+	 * Artemis ephemeral JVM arguments.
+	 */
+	public static final String ARTEMIS_JAVA_ARGS = "-Dbrokerconfig.persistenceEnabled=false";
+
+	/**
+	 * Artemis JVM arguments environment variable.
+	 */
+	public static final String ARTEMIS_JAVA_ARGS_VARIABLE = "JAVA_ARGS_APPEND";
+
+	/**
+	 * If the ephemeral profile should be used for the test class containers.
+	 *
+	 * @param  testClass Test class.
+	 * @return           If the ephemeral profile should be used.
+	 */
+	public static Boolean isEphemeral(
+			final Class<?> testClass) {
+		return Objects.equals(System.getProperty(TestContainerProfile.EPHEMERAL_PROPERTY), "true")
+				|| ((testClass.getAnnotation(TestWithContainer.class) != null) && testClass.getAnnotation(TestWithContainer.class).ephemeral());
+	}
+
+	/**
+	 * Gets an image environment variable.
+	 *
+	 * @param  container Container.
+	 * @param  variable  Variable name.
+	 * @return           The variable value (or null if the image does not set
+	 *                   it).
+	 */
+	private static String getImageVariable(
+			final GenericContainer<?> container,
+			final String variable) {
+		final String[] imageVariables = DockerClientFactory.lazyClient().inspectImageCmd(container.getDockerImageName()).exec().getConfig().getEnv();
+		for (final String imageVariable : (imageVariables == null ? new String[] {} : imageVariables)) {
+			if (imageVariable.startsWith(variable + "=")) {
+				return StringUtils.substringAfter(imageVariable, "=");
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Applies the ephemeral profile to a container definition (only before it is
+	 * created), until the container stops.
+	 *
+	 * @param  container Container.
+	 * @return           The container.
+	 */
+	public static GenericContainer<?> applyEphemeral(
+			final GenericContainer<?> container) {
+		if (container.getContainerId() == null) {
+			final TestContainerKind kind = TestContainerKind.of(container);
+			final Map<String, String> originalTmpFs = container.getTmpFsMapping();
+			final String originalJavaArgs = container.getEnvMap().get(TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE);
+			final Map<String, String> tmpFs = new HashMap<>(originalTmpFs == null ? Map.of() : originalTmpFs);
+			switch (kind) {
+				case POSTGRES:
+					final String dataDirectory = TestContainerProfile.getImageVariable(container, "PGDATA");
+					tmpFs.put(dataDirectory == null ? TestContainerProfile.POSTGRES_DATA_DIRECTORY : dataDirectory, "rw");
+					container.withTmpFs(tmpFs);
+					break;
+				case ARTEMIS:
+					// Keeps the JVM arguments of the container (or image).
+					final String javaArgs = (originalJavaArgs == null
+							? TestContainerProfile.getImageVariable(container, TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE)
+							: originalJavaArgs);
+					container.withEnv(TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE,
+							StringUtils.trim(StringUtils.defaultString(javaArgs) + " " + TestContainerProfile.ARTEMIS_JAVA_ARGS));
+					break;
+				case REDIS:
+					tmpFs.put(TestContainerProfile.REDIS_DATA_DIRECTORY, "rw");
+					container.withTmpFs(tmpFs);
+					break;
+				default:
+					break;
+			}
+			// Restores the definition when the container stops.
+			TestContainerRegistry.getRegistration(container).addStopCallback(TestContainerProfile.class, () -> {
+				container.withTmpFs(originalTmpFs);
+				if (originalJavaArgs == null) {
+					container.getEnvMap().remove(TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE);
+				}
+				else {
+					container.withEnv(TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE, originalJavaArgs);
+				}
+			});
+			TestContainerProfile.LOGGER.debug("Ephemeral profile applied to test container '{}' ({}).", container.getDockerImageName(), kind);
+		}
+		return container;
+	}
+
+	/**
+	 * Applies the ephemeral server settings to a ready container (keeping the
+	 * image command) and checks the ones the image may ignore.
+	 *
+	 * @param  container Container.
+	 * @return           If the settings are in effect.
+	 * @throws Exception If the settings cannot be applied.
+	 */
+	public static Boolean applyEphemeralSettings(
+			final GenericContainer<?> container) throws Exception {
+		Boolean applied = true;
+		switch (TestContainerKind.of(container)) {
+			case POSTGRES:
+				try (Connection connection = PostgresTestContainerHelper.getAdminConnection(container);
+						Statement statement = connection.createStatement()) {
+					for (final Map.Entry<String, String> setting : TestContainerProfile.POSTGRES_SETTINGS.entrySet()) {
+						statement.execute("ALTER SYSTEM SET " + setting.getKey() + " = '" + setting.getValue() + "'");
+					}
+					statement.execute("SELECT pg_reload_conf()");
+				}
+				break;
+			case ARTEMIS:
+				final String broker = ArtemisTestContainerHelper.getBroker(container);
+				final JsonNode persistenceEnabled = ArtemisTestContainerHelper
+						.execute(container, List.of(Map.of("type", "read", "mbean", broker, "attribute", "PersistenceEnabled"))).get(0);
+				applied = !persistenceEnabled.asBoolean(true);
+				break;
+			case REDIS:
+				try (RedisTestClient client = RedisTestContainerHelper.getClient(container)) {
+					client.pipeline(List.of(new String[] { "CONFIG", "SET", "save", "" }, new String[] { "CONFIG", "SET", "appendonly", "no" }));
+				}
+				break;
+			default:
+				break;
+		}
+		if (!applied) {
+			TestContainerProfile.LOGGER.warn("Ephemeral profile settings ignored by test container '{}' (image '{}').", TestContainerKind.of(container),
+					container.getDockerImageName());
+		}
+		return applied;
+	}
+
+}
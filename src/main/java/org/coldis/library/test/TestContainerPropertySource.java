@@ -0,0 +1,32 @@
+package org.coldis.library.test;
+
+import org.springframework.core.env.PropertySource;
+
+/**
+ * Property source that starts deferred (lazy) test containers when one of
+ * their properties is resolved.
+ */
+public class TestContainerPropertySource extends PropertySource<Object> {
+
+	/**
+	 * Property source name.
+	 */
+	public static final String NAME = "testContainers";
+
+	/**
+	 * Constructor.
+	 */
+	public TestContainerPropertySource() {
+		super(TestContainerPropertySource.NAME, new Object());
+	}
+
+	/**
+	 * @see org.springframework.core.env.PropertySource#getProperty(java.lang.String)
+	 */
+	@Override
+	public Object getProperty(
+			final String name) {
+		return TestContainerLazyStart.resolveProperty(name);
+	}
+
+}
@@ -0,0 +1,154 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+/**
+ * Protocol level readiness probe (instead of exec or log based wait
+ * strategies). Probes the service from the host, backing off while the port is
+ * down and retrying quickly once the service answers but is still starting.
+ */
+public abstract class TestContainerReadinessProbe extends AbstractWaitStrategy {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerReadinessProbe.class);
+
+	/**
+	 * Probe result.
+	 */
+	public enum ProbeResult {
+
+		/**
+		 * Service down (not accepting connections).
+		 */
+		DOWN,
+
+		/**
+		 * Service answering, but still starting.
+		 */
+		STARTING,
+
+		/**
+		 * Service ready.
+		 */
+		READY
+
+	}
+
+	/**
+	 * Maximum delay between probes (milliseconds).
+	 */
+	public static final Integer MAX_DELAY = 500;
+
+	/**
+	 * Maximum delay between probes while the service is starting (milliseconds).
+	 */
+	public static final Long STARTING_MAX_DELAY = 20L;
+
+	/**
+	 * Socket (connect and read) timeout (milliseconds).
+	 */
+	public static final Integer SOCKET_TIMEOUT = 1000;
+
+	/**
+	 * Probed (container) port.
+	 */
+	protected final Integer port;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param port Probed (container) port.
+	 */
+	protected TestContainerReadinessProbe(final Integer port) {
+		super();
+		this.port = port;
+	}
+
+	/**
+	 * Opens a socket to the service.
+	 *
+	 * @param  host        Host.
+	 * @param  port        Mapped port.
+	 * @return             The socket.
+	 * @throws IOException If the socket cannot be opened.
+	 */
+	protected static Socket openSocket(
+			final String host,
+			final Integer port) throws IOException {
+		final Socket socket = new Socket();
+		try {
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(TestContainerReadinessProbe.SOCKET_TIMEOUT);
+			socket.connect(new InetSocketAddress(host, port), TestContainerReadinessProbe.SOCKET_TIMEOUT);
+			return socket;
+		}
+		catch (final IOException exception) {
+			socket.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Probes the service.
+	 *
+	 * @param  host        Host.
+	 * @param  mappedPort  Mapped port.
+	 * @return             The probe result.
+	 * @throws IOException If the service cannot be reached.
+	 */
+	protected abstract ProbeResult probe(
+			String host,
+			Integer mappedPort) throws IOException;
+
+	/**
+	 * @see org.testcontainers.containers.wait.strategy.AbstractWaitStrategy#waitUntilReady()
+	 */
+	@Override
+	protected void waitUntilReady() {
+		// Times the ready phase of the container start.
+		try (TestLifecycleSpan span = TestLifecycleTimeline.startContainerReady(this.waitStrategyTarget.getContainerId())) {
+			final WaitBackoff backoff = WaitBackoff.adaptive(TestContainerReadinessProbe.MAX_DELAY);
+			final Long deadline = System.currentTimeMillis() + this.startupTimeout.toMillis();
+			final String host = this.waitStrategyTarget.getHost();
+			final Integer mappedPort = this.waitStrategyTarget.getMappedPort(this.port);
+			ProbeResult result = ProbeResult.DOWN;
+			for (Integer attempt = 0; System.currentTimeMillis() < deadline; attempt++) {
+				if (!this.waitStrategyTarget.isRunning()) {
+					throw new ContainerLaunchException("Container stopped before " + this.getClass().getSimpleName() + " succeeded.");
+				}
+				try {
+					result = this.probe(host, mappedPort);
+				}
+				catch (final IOException exception) {
+					result = ProbeResult.DOWN;
+				}
+				if (result == ProbeResult.READY) {
+					TestContainerReadinessProbe.LOGGER.debug("{} succeeded on port {} after {} attempts.", this.getClass().getSimpleName(), this.port, attempt + 1);
+					return;
+				}
+				// Retries sooner once the service answers.
+				final Long delay = (result == ProbeResult.STARTING ? Math.min(backoff.getDelay(attempt), TestContainerReadinessProbe.STARTING_MAX_DELAY)
+						: backoff.getDelay(attempt));
+				try {
+					Thread.sleep(delay);
+				}
+				catch (final InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					throw new ContainerLaunchException("Interrupted waiting for the container to be ready.", exception);
+				}
+			}
+			throw new ContainerLaunchException("Timed out waiting for " + this.getClass().getSimpleName() + " on port " + this.port + " (last result: "
+					+ result + ").");
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package org.coldis.library.test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test container reaper. Stops reused containers once they have been idle (no
+ * leases) for the configured timeout.
+ */
+public class TestContainerReaper {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerReaper.class);
+
+	/**
+	 * Idle timeout property (milliseconds).
+	 */
+	public static final String IDLE_TIMEOUT_PROPERTY = "project.config.source.test.container.idle-timeout";
+
+	/**
+	 * Default idle timeout (milliseconds).
+	 */
+	public static final Long DEFAULT_IDLE_TIMEOUT = 20_000L;
+
+	/**
+	 * Scheduler (single daemon thread).
+	 */
+	private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "test-container-reaper");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Pending stops.
+	 */
+	private static final Map<TestContainerRegistration, ScheduledFuture<?>> PENDING_STOPS = new ConcurrentHashMap<>();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(TestContainerReaper::shutdown, "test-container-reaper-shutdown"));
+	}
+
+	/**
+	 * Gets the idle timeout.
+	 *
+	 * @return The idle timeout (milliseconds).
+	 */
+	public static Long getIdleTimeout() {
+		final String idleTimeout = System.getProperty(TestContainerReaper.IDLE_TIMEOUT_PROPERTY);
+		return (NumberUtils.isParsable(idleTimeout) ? Long.parseLong(idleTimeout) : TestContainerReaper.DEFAULT_IDLE_TIMEOUT);
+	}
+
+	/**
+	 * Schedules the container to be stopped once it has been idle for the idle
+	 * timeout. Replaces any pending stop for the container.
+	 *
+	 * @param registration Container registration.
+	 */
+	public static void scheduleStop(
+			final TestContainerRegistration registration) {
+		TestContainerReaper.PENDING_STOPS.compute(registration, (key, pendingStop) -> {
+			if (pendingStop != null) {
+				pendingStop.cancel(false);
+			}
+			return TestContainerReaper.SCHEDULER.schedule(() -> TestContainerReaper.reap(registration), TestContainerReaper.getIdleTimeout(),
+					TimeUnit.MILLISECONDS);
+		});
+	}
+
+	/**
+	 * Cancels a pending stop for the container (if any).
+	 *
+	 * @param registration Container registration.
+	 */
+	public static void cancelStop(
+			final TestContainerRegistration registration) {
+		final ScheduledFuture<?> pendingStop = TestContainerReaper.PENDING_STOPS.remove(registration);
+		if (pendingStop != null) {
+			pendingStop.cancel(false);
+		}
+	}
+
+	/**
+	 * Stops the container if it is still idle, or schedules the remaining idle
+	 * time otherwise.
+	 *
+	 * @param registration Container registration.
+	 */
+	private static void reap(
+			final TestContainerRegistration registration) {
+		final Long idleTime = System.currentTimeMillis() - registration.getLastReleaseTimestamp();
+		final Long idleTimeout = TestContainerReaper.getIdleTimeout();
+		// If the container is leased, the stop is no longer pending.
+		if (registration.getLeaseCount() > 0) {
+			TestContainerReaper.PENDING_STOPS.remove(registration);
+		}
+		// If the container has been released again meanwhile, waits for the rest of the timeout.
+		else if (idleTime < idleTimeout) {
+			TestContainerReaper.PENDING_STOPS.computeIfPresent(registration, (key, pendingStop) -> TestContainerReaper.SCHEDULER
+					.schedule(() -> TestContainerReaper.reap(registration), idleTimeout - idleTime, TimeUnit.MILLISECONDS));
+		}
+		// Otherwise, stops the container.
+		else {
+			TestContainerReaper.PENDING_STOPS.remove(registration);
+			if (registration.stopIfUnused(() -> TestWithContainerExtensionHelper.stopTestContainer(registration.getContainer()))) {
+				TestContainerReaper.LOGGER.info("Reused test container '{}' stopped after being idle for {}ms.", registration.getContainer().getDockerImageName(),
+						idleTime);
+			}
+		}
+	}
+
+	/**
+	 * Shuts the reaper down, stopping the containers with pending stops.
+	 */
+	public static void shutdown() {
+		TestContainerReaper.SCHEDULER.shutdownNow();
+		TestContainerReaper.PENDING_STOPS.forEach((registration, pendingStop) -> {
+			pendingStop.cancel(false);
+			registration.stopIfUnused(() -> TestWithContainerExtensionHelper.stopTestContainer(registration.getContainer()));
+		});
+		TestContainerReaper.PENDING_STOPS.clear();
+	}
+
+}
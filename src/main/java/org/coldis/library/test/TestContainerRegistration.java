@@ -0,0 +1,209 @@
+package org.coldis.library.test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test container registration (lease count and start state of a single
+ * container).
+ */
+public class TestContainerRegistration {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerRegistration.class);
+
+	/**
+	 * Container.
+	 */
+	private final GenericContainer<?> container;
+
+	/**
+	 * Active leases.
+	 */
+	private final AtomicInteger leases = new AtomicInteger();
+
+	/**
+	 * Last time a lease has been released.
+	 */
+	private volatile long lastReleaseTimestamp = System.currentTimeMillis();
+
+	/**
+	 * Lock for start/stop transitions (one per container).
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Current start (null if the container has not been started or has been
+	 * stopped).
+	 */
+	private CompletableFuture<Void> start;
+
+	/**
+	 * Callbacks run (once) right before the container stops, by key.
+	 */
+	private final Map<Object, Runnable> stopCallbacks = new LinkedHashMap<>();
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param container Container.
+	 */
+	public TestContainerRegistration(final GenericContainer<?> container) {
+		super();
+		this.container = container;
+	}
+
+	/**
+	 * Gets the container.
+	 *
+	 * @return The container.
+	 */
+	public GenericContainer<?> getContainer() {
+		return this.container;
+	}
+
+	/**
+	 * Gets the number of active leases.
+	 *
+	 * @return The number of active leases.
+	 */
+	public Integer getLeaseCount() {
+		return this.leases.get();
+	}
+
+	/**
+	 * Gets the last time a lease has been released.
+	 *
+	 * @return The last time a lease has been released.
+	 */
+	public long getLastReleaseTimestamp() {
+		return this.lastReleaseTimestamp;
+	}
+
+	/**
+	 * Acquires a lease for the container (cancelling any pending idle stop). Waits
+	 * for a stop in progress, so the container is never leased while stopping
+	 * (it is then started again through {@link #start(Runnable)}).
+	 *
+	 * @return The lease.
+	 */
+	public TestContainerLease acquire() {
+		this.lock.lock();
+		try {
+			this.leases.incrementAndGet();
+			TestContainerReaper.cancelStop(this);
+			return new TestContainerLease(this);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a callback to run (once) right before the container stops, such as
+	 * evicting a cached Spring context connected to it. Replaces a callback with
+	 * the same key.
+	 *
+	 * @param key      Callback key.
+	 * @param callback Callback.
+	 */
+	public void addStopCallback(
+			final Object key,
+			final Runnable callback) {
+		this.lock.lock();
+		try {
+			this.stopCallbacks.put(key, callback);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Releases a lease for the container.
+	 *
+	 * @return The number of remaining leases.
+	 */
+	protected Integer release() {
+		this.lastReleaseTimestamp = System.currentTimeMillis();
+		return this.leases.updateAndGet(leases -> Math.max(0, leases - 1));
+	}
+
+	/**
+	 * Starts the container exactly once. Concurrent callers share the same start,
+	 * and the container is only started again if the previous start failed or the
+	 * container is no longer running.
+	 *
+	 * @param  starter Container starter.
+	 * @return         The (shared) container start.
+	 */
+	public CompletableFuture<Void> start(
+			final Runnable starter) {
+		final CompletableFuture<Void> newStart;
+		this.lock.lock();
+		try {
+			// Reuses the current start if it is still valid.
+			if ((this.start != null) && !this.start.isCompletedExceptionally() && (!this.start.isDone() || this.container.isRunning())) {
+				return this.start;
+			}
+			newStart = new CompletableFuture<>();
+			this.start = newStart;
+		}
+		finally {
+			this.lock.unlock();
+		}
+		// Starts the container.
+		try {
+			starter.run();
+			newStart.complete(null);
+		}
+		catch (final Throwable throwable) {
+			newStart.completeExceptionally(throwable);
+		}
+		return newStart;
+	}
+
+	/**
+	 * Stops the container if there are no active leases and no start in progress.
+	 *
+	 * @param  stopper Container stopper.
+	 * @return         If the container has been stopped.
+	 */
+	public Boolean stopIfUnused(
+			final Runnable stopper) {
+		this.lock.lock();
+		try {
+			if ((this.leases.get() > 0) || ((this.start != null) && !this.start.isDone())) {
+				return false;
+			}
+			final List<Runnable> callbacks = List.copyOf(this.stopCallbacks.values());
+			this.stopCallbacks.clear();
+			for (final Runnable callback : callbacks) {
+				try {
+					callback.run();
+				}
+				catch (final Exception exception) {
+					TestContainerRegistration.LOGGER.warn("Test container '{}' stop callback failed: {}.", this.container.getDockerImageName(),
+							exception.getLocalizedMessage());
+				}
+			}
+			stopper.run();
+			this.start = null;
+			return true;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+}
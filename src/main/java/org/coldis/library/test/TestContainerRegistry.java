@@ -0,0 +1,90 @@
+package org.coldis.library.test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test container registry. Keeps one registration per container instance
+ * (identity), so leases and starts are tracked atomically per container.
+ */
+public class TestContainerRegistry {
+
+	/**
+	 * Container identity key.
+	 */
+	private static final class ContainerKey {
+
+		/**
+		 * Container.
+		 */
+		private final GenericContainer<?> container;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param container Container.
+		 */
+		private ContainerKey(final GenericContainer<?> container) {
+			this.container = container;
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.container);
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(
+				final Object obj) {
+			return (obj instanceof ContainerKey) && (((ContainerKey) obj).container == this.container);
+		}
+
+	}
+
+	/**
+	 * Registrations.
+	 */
+	private static final Map<ContainerKey, TestContainerRegistration> REGISTRATIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the registration for a container (creating it if needed).
+	 *
+	 * @param  container Container.
+	 * @return           The container registration.
+	 */
+	public static TestContainerRegistration getRegistration(
+			final GenericContainer<?> container) {
+		return TestContainerRegistry.REGISTRATIONS.computeIfAbsent(new ContainerKey(container), key -> new TestContainerRegistration(container));
+	}
+
+	/**
+	 * Acquires a lease for a container.
+	 *
+	 * @param  container Container.
+	 * @return           The lease.
+	 */
+	public static TestContainerLease acquire(
+			final GenericContainer<?> container) {
+		return TestContainerRegistry.getRegistration(container).acquire();
+	}
+
+	/**
+	 * Gets the number of active leases for a container.
+	 *
+	 * @param  container Container.
+	 * @return           The number of active leases.
+	 */
+	public static Integer getLeaseCount(
+			final GenericContainer<?> container) {
+		return TestContainerRegistry.getRegistration(container).getLeaseCount();
+	}
+
+}
@@ -0,0 +1,129 @@
+package org.coldis.library.test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Starts the configured test containers asynchronously as soon as the launcher
+ * session opens, so their startup overlaps with test discovery and context
+ * setup. Classes declaring them later simply wait for the ongoing start. The
+ * warmed up containers are leased for the whole session (so classes that do
+ * not reuse containers do not stop them) and released when it closes.
+ */
+public class TestContainerWarmUpListener implements LauncherSessionListener {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestContainerWarmUpListener.class);
+
+	/**
+	 * Containers to warm up property. Comma separated container fields, as
+	 * {@code fully.qualified.ClassName#FIELD_NAME} (or just {@code NAME} for
+	 * {@link TestContainerDefinitions} containers).
+	 */
+	public static final String WARM_UP_PROPERTY = "project.config.source.test.container.warm-up";
+
+	/**
+	 * Field separator.
+	 */
+	private static final String FIELD_SEPARATOR = "#";
+
+	/**
+	 * Warmed up container leases (held for the session).
+	 */
+	private final Collection<TestContainerLease> leases = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Gets a container field.
+	 *
+	 * @param  fieldReference               Field reference.
+	 * @return                              The container field.
+	 * @throws ReflectiveOperationException If the field cannot be found.
+	 */
+	private static Field getContainerField(
+			final String fieldReference) throws ReflectiveOperationException {
+		final Class<?> fieldClass = Class.forName(StringUtils.substringBefore(fieldReference, TestContainerWarmUpListener.FIELD_SEPARATOR), true,
+				Thread.currentThread().getContextClassLoader());
+		final String fieldName = StringUtils.substringAfter(fieldReference, TestContainerWarmUpListener.FIELD_SEPARATOR);
+		final Field field = FieldUtils.getField(fieldClass, fieldName, true);
+		if ((field == null) || !GenericContainer.class.isAssignableFrom(field.getType())) {
+			throw new NoSuchFieldException("Container field '" + fieldReference + "' not found.");
+		}
+		return field;
+	}
+
+	/**
+	 * @see org.junit.platform.launcher.LauncherSessionListener#launcherSessionOpened(org.junit.platform.launcher.LauncherSession)
+	 */
+	@Override
+	public void launcherSessionOpened(
+			final LauncherSession session) {
+		// Pre-pulls the configured images (the test classes images are pulled once
+		// the test plan is known).
+		if (TestContainerImagePuller.isEnabled()) {
+			TestContainerImagePuller.prePull(TestContainerImagePuller.getImageNames(List.of()));
+		}
+		final String warmUp = System.getProperty(TestContainerWarmUpListener.WARM_UP_PROPERTY);
+		if (StringUtils.isNotBlank(warmUp)) {
+			Arrays.stream(warmUp.split(",")).map(String::trim).filter(StringUtils::isNotEmpty).forEach(fieldReference -> {
+				try {
+					// Resolves either a container field or a container definition.
+					final Class<?> testClass;
+					final String name;
+					final GenericContainer<?> container;
+					if (fieldReference.contains(TestContainerWarmUpListener.FIELD_SEPARATOR)) {
+						final Field field = TestContainerWarmUpListener.getContainerField(fieldReference);
+						testClass = field.getDeclaringClass();
+						name = field.getName();
+						container = Objects.requireNonNull((GenericContainer<?>) field.get(null));
+					}
+					else {
+						testClass = TestHelper.class;
+						name = fieldReference;
+						container = TestContainerDefinitions.get(fieldReference);
+					}
+					TestContainerWarmUpListener.LOGGER.info("Test container '{}' warming up.", fieldReference);
+					// Leases the container before starting it, so it is not stopped meanwhile.
+					this.leases.add(TestContainerRegistry.acquire(container));
+					TestContainerLifecycleExecutor.getExecutor().execute(() -> TestContainerRegistry.getRegistration(container)
+							.start(() -> TestWithContainerExtensionHelper.startTestContainer(testClass, name, container)));
+				}
+				catch (final Exception exception) {
+					TestContainerWarmUpListener.LOGGER.warn("Test container '{}' could not be warmed up: {}.", fieldReference,
+							exception.getLocalizedMessage());
+				}
+			});
+		}
+	}
+
+	/**
+	 * @see org.junit.platform.launcher.LauncherSessionListener#launcherSessionClosed(org.junit.platform.launcher.LauncherSession)
+	 */
+	@Override
+	public void launcherSessionClosed(
+			final LauncherSession session) {
+		// Releases the warmed up containers, stopping the ones no class still uses.
+		for (final TestContainerLease lease : this.leases) {
+			lease.release();
+			final GenericContainer<?> container = lease.getContainer();
+			if (container.isRunning() && !lease.getRegistration().stopIfUnused(() -> TestWithContainerExtensionHelper.stopTestContainer(container))) {
+				TestContainerWarmUpListener.LOGGER.info("Test container '{}' not stopping as it is still in use.", container.getDockerImageName());
+			}
+		}
+		this.leases.clear();
+	}
+
+}
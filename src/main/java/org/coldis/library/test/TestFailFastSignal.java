@@ -0,0 +1,176 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fail fast signal, shared by all forks of a test run through a memory mapped
+ * flag file (keyed by the run id). The signal is only shared when the build
+ * passes an explicit run id to the forks (for instance, through the Surefire
+ * {@code systemPropertyVariables}), and is JVM local otherwise (a long lived
+ * parent, such as an IDE or a build daemon, does not identify a run).
+ */
+public class TestFailFastSignal {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestFailFastSignal.class);
+
+	/**
+	 * Run id property (the same for every fork of a build, and unique per build).
+	 */
+	public static final String RUN_ID_PROPERTY = "project.config.source.test.run-id";
+
+	/**
+	 * Flag directory property.
+	 */
+	public static final String DIRECTORY_PROPERTY = "project.config.source.test.fail-fast.directory";
+
+	/**
+	 * Flag files older than this (milliseconds) are deleted.
+	 */
+	private static final Long STALE_FLAG_AGE = 24L * 60 * 60 * 1000;
+
+	/**
+	 * Flag (the failure timestamp) access with volatile semantics.
+	 */
+	private static final VarHandle FLAG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+	/**
+	 * If a test has failed in this JVM.
+	 */
+	private static final AtomicBoolean FAILED = new AtomicBoolean();
+
+	/**
+	 * Shared flag buffer (lazily mapped).
+	 */
+	private static volatile MappedByteBuffer SHARED_FLAG;
+
+	/**
+	 * If the shared flag could not be mapped.
+	 */
+	private static volatile Boolean SHARED_FLAG_UNAVAILABLE = false;
+
+	/**
+	 * Gets the run id.
+	 *
+	 * @return The run id (or null if the build does not provide one).
+	 */
+	public static String getRunId() {
+		return StringUtils.trimToNull(System.getProperty(TestFailFastSignal.RUN_ID_PROPERTY));
+	}
+
+	/**
+	 * Gets the shared flag file.
+	 *
+	 * @return The shared flag file (or null if there is no run id).
+	 */
+	public static Path getFlagFile() {
+		final String runId = TestFailFastSignal.getRunId();
+		return (runId == null ? null
+				: Path.of(System.getProperty(TestFailFastSignal.DIRECTORY_PROPERTY, TestForkTenancy.LOCK_DIRECTORY.toString()))
+						.resolve("fail-fast-" + runId.replaceAll("[^\\w.-]", "_") + ".flag"));
+	}
+
+	/**
+	 * Resets the signal (in this JVM only), so the run id and directory are read
+	 * again.
+	 */
+	public static void reset() {
+		synchronized (TestFailFastSignal.class) {
+			TestFailFastSignal.FAILED.set(false);
+			TestFailFastSignal.SHARED_FLAG = null;
+			TestFailFastSignal.SHARED_FLAG_UNAVAILABLE = false;
+		}
+	}
+
+	/**
+	 * Gets the shared flag buffer (mapping it the first time).
+	 *
+	 * @return The shared flag buffer (or null if it is not available).
+	 */
+	private static MappedByteBuffer getSharedFlag() {
+		if ((TestFailFastSignal.SHARED_FLAG == null) && !TestFailFastSignal.SHARED_FLAG_UNAVAILABLE) {
+			synchronized (TestFailFastSignal.class) {
+				if ((TestFailFastSignal.SHARED_FLAG == null) && !TestFailFastSignal.SHARED_FLAG_UNAVAILABLE) {
+					final Path flagFile = TestFailFastSignal.getFlagFile();
+					// Without a run id, the signal stays in this JVM.
+					if (flagFile == null) {
+						TestFailFastSignal.SHARED_FLAG_UNAVAILABLE = true;
+						return null;
+					}
+					try {
+						Files.createDirectories(flagFile.getParent());
+						// Deletes flags of old runs.
+						try (var flags = Files.newDirectoryStream(flagFile.getParent(), "fail-fast-*.flag")) {
+							for (final Path flag : flags) {
+								if (Files.getLastModifiedTime(flag).toMillis() < (System.currentTimeMillis() - TestFailFastSignal.STALE_FLAG_AGE)) {
+									Files.deleteIfExists(flag);
+								}
+							}
+						}
+						// Maps the run flag (concurrent creation is safe, the file is only mapped).
+						try (FileChannel channel = FileChannel.open(flagFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+							TestFailFastSignal.SHARED_FLAG = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+						}
+					}
+					catch (final IOException exception) {
+						TestFailFastSignal.LOGGER.warn("Fail fast signal cannot be shared across forks: " + exception.getLocalizedMessage());
+						TestFailFastSignal.SHARED_FLAG_UNAVAILABLE = true;
+					}
+				}
+			}
+		}
+		return TestFailFastSignal.SHARED_FLAG;
+	}
+
+	/**
+	 * Gets if a test has failed (in this JVM or, if shared, in any fork of the
+	 * run).
+	 *
+	 * @param  shared If the signal of the other forks should be checked.
+	 * @return        If a test has failed.
+	 */
+	public static Boolean isFailed(
+			final Boolean shared) {
+		if (TestFailFastSignal.FAILED.get()) {
+			return true;
+		}
+		final MappedByteBuffer sharedFlag = (shared ? TestFailFastSignal.getSharedFlag() : null);
+		if ((sharedFlag != null) && (((long) TestFailFastSignal.FLAG.getVolatile(sharedFlag, 0)) != 0)) {
+			TestFailFastSignal.FAILED.set(true);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Signals that a test has failed (in this JVM and, if shared, to the other
+	 * forks of the run).
+	 *
+	 * @param shared If the signal should be shared with the other forks.
+	 */
+	public static void signal(
+			final Boolean shared) {
+		TestFailFastSignal.FAILED.set(true);
+		final MappedByteBuffer sharedFlag = (shared ? TestFailFastSignal.getSharedFlag() : null);
+		if (sharedFlag != null) {
+			TestFailFastSignal.FLAG.setVolatile(sharedFlag, 0, System.currentTimeMillis());
+			sharedFlag.force();
+		}
+	}
+
+}
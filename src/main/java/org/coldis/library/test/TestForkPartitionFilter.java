@@ -0,0 +1,60 @@
+package org.coldis.library.test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * Keeps only the test classes assigned to the current fork by
+ * {@link TestForkPartitioner} (if the fork partition is enabled). It must only
+ * be enabled when every fork discovers the whole suite (and not when the build
+ * tool already distributes the classes across forks).
+ */
+public class TestForkPartitionFilter implements PostDiscoveryFilter {
+
+	/**
+	 * Classes assigned to the current fork (by engine).
+	 */
+	private final Map<UniqueId, Set<String>> forkClasses = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the classes assigned to the current fork, from all top level classes
+	 * of the engine.
+	 *
+	 * @param  engineDescriptor Engine descriptor.
+	 * @return                  The classes assigned to the current fork.
+	 */
+	private Set<String> getForkClasses(
+			final TestDescriptor engineDescriptor) {
+		return this.forkClasses.computeIfAbsent(engineDescriptor.getUniqueId(), engineId -> {
+			final List<String> classNames = engineDescriptor.getChildren().stream()
+					.filter(descriptor -> descriptor.getSource().filter(ClassSource.class::isInstance).isPresent())
+					.map(descriptor -> ((ClassSource) descriptor.getSource().get()).getClassName()).distinct().toList();
+			return new HashSet<>(TestForkPartitioner.getCurrentForkClasses(classNames));
+		});
+	}
+
+	/**
+	 * @see org.junit.platform.engine.DiscoveryFilter#apply(java.lang.Object)
+	 */
+	@Override
+	public FilterResult apply(
+			final TestDescriptor descriptor) {
+		// Only top level classes are partitioned.
+		if (TestForkPartitioner.isEnabled() && (TestHelper.getTestForkCount() > 1) && descriptor.getParent().isPresent()
+				&& descriptor.getParent().get().getParent().isEmpty() && (descriptor.getSource().orElse(null) instanceof final ClassSource classSource)) {
+			return FilterResult.includedIf(this.getForkClasses(descriptor.getParent().get()).contains(classSource.getClassName()),
+					() -> "Assigned to the current fork", () -> "Assigned to another fork");
+		}
+		return FilterResult.included("Not partitioned");
+	}
+
+}
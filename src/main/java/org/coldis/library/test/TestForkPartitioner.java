@@ -0,0 +1,156 @@
+package org.coldis.library.test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Partitions test classes across forks by their recorded durations (longest
+ * processing time first bin-packing), so forks finish at about the same time.
+ * Since every fork must compute the same partition, the first fork saves it and
+ * the others reuse it.
+ */
+public class TestForkPartitioner {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestForkPartitioner.class);
+
+	/**
+	 * Enabled property.
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.fork-partition-enabled";
+
+	/**
+	 * Maximum age of a saved partition (milliseconds) property.
+	 */
+	public static final String MAX_AGE_PROPERTY = "project.config.source.test.fork-partition-max-age";
+
+	/**
+	 * Default maximum age of a saved partition (milliseconds).
+	 */
+	public static final Long DEFAULT_MAX_AGE = 10L * 60 * 1000;
+
+	/**
+	 * If the fork partition is enabled.
+	 *
+	 * @return If the fork partition is enabled.
+	 */
+	public static Boolean isEnabled() {
+		return Objects.equals(System.getProperty(TestForkPartitioner.ENABLED_PROPERTY), "true");
+	}
+
+	/**
+	 * Partitions classes across forks (longest first, each into the least loaded
+	 * fork).
+	 *
+	 * @param  durations Class durations.
+	 * @param  forkCount Fork count.
+	 * @return           The classes of each fork (1 to fork count).
+	 */
+	public static Map<Integer, List<String>> partition(
+			final Map<String, Long> durations,
+			final Integer forkCount) {
+		final Map<Integer, List<String>> partition = new LinkedHashMap<>();
+		final Map<Integer, Long> loads = new HashMap<>();
+		final PriorityQueue<Integer> forks = new PriorityQueue<>(
+				Comparator.comparing((final Integer fork) -> loads.get(fork)).thenComparing(Comparator.naturalOrder()));
+		for (Integer fork = 1; fork <= forkCount; fork++) {
+			partition.put(fork, new ArrayList<>());
+			loads.put(fork, 0L);
+			forks.add(fork);
+		}
+		durations.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+				.forEach(classDuration -> {
+					final Integer fork = forks.poll();
+					partition.get(fork).add(classDuration.getKey());
+					loads.put(fork, loads.get(fork) + classDuration.getValue());
+					forks.add(fork);
+				});
+		return partition;
+	}
+
+	/**
+	 * Partitions classes across forks by their recorded durations (classes without
+	 * history get the average duration).
+	 *
+	 * @param  classNames Class names.
+	 * @param  forkCount  Fork count.
+	 * @return            The classes of each fork (1 to fork count).
+	 */
+	public static Map<Integer, List<String>> partition(
+			final Collection<String> classNames,
+			final Integer forkCount) {
+		final Map<String, Long> durations = new HashMap<>();
+		for (final String className : classNames) {
+			final Long duration = TestHistoryClassOrderer.getDuration(className);
+			if (duration != null) {
+				durations.put(className, duration);
+			}
+		}
+		final Long averageDuration = (long) durations.values().stream().mapToLong(Long::longValue).average().orElse(1);
+		classNames.forEach(className -> durations.putIfAbsent(className, averageDuration));
+		return TestForkPartitioner.partition(durations, forkCount);
+	}
+
+	/**
+	 * Gets the classes assigned to the current fork. The partition is computed by
+	 * the first fork and saved (keyed by the classes and fork count), so all forks
+	 * agree even if the history changes meanwhile.
+	 *
+	 * @param  classNames Class names.
+	 * @return            The classes assigned to the current fork.
+	 */
+	public static List<String> getCurrentForkClasses(
+			final Collection<String> classNames) {
+		final Integer forkCount = TestHelper.getTestForkCount();
+		final Integer forkNumber = TestHelper.getTestForkNumber();
+		final String maxAge = System.getProperty(TestForkPartitioner.MAX_AGE_PROPERTY);
+		try {
+			final String key = HexFormat.of()
+					.formatHex(MessageDigest.getInstance("SHA-256").digest(
+							(classNames.stream().sorted().collect(Collectors.joining(",")) + "/" + forkCount).getBytes(StandardCharsets.UTF_8)))
+					.substring(0, 16);
+			final Path partitionFile = TestForkTenancy.LOCK_DIRECTORY.resolve("fork-partition-" + key + ".txt");
+			return TestForkTenancy.withHostLock("fork-partition-" + key, () -> {
+				// Reuses a recent partition (from another fork of this run).
+				if (Files.exists(partitionFile) && (Files.getLastModifiedTime(partitionFile).compareTo(FileTime.fromMillis(System.currentTimeMillis()
+						- (NumberUtils.isParsable(maxAge) ? Long.parseLong(maxAge) : TestForkPartitioner.DEFAULT_MAX_AGE))) > 0)) {
+					return Files.readAllLines(partitionFile, StandardCharsets.UTF_8).stream().filter(line -> line.startsWith(forkNumber + "="))
+							.map(line -> line.substring(line.indexOf('=') + 1)).toList();
+				}
+				// Otherwise, computes and saves it.
+				final Map<Integer, List<String>> partition = TestForkPartitioner.partition(classNames, forkCount);
+				Files.write(partitionFile, partition.entrySet().stream()
+						.flatMap(forkClasses -> forkClasses.getValue().stream().map(className -> forkClasses.getKey() + "=" + className)).toList(),
+						StandardCharsets.UTF_8);
+				TestForkPartitioner.LOGGER.info("Test classes partitioned across {} forks: {}", forkCount, partition);
+				return partition.getOrDefault(forkNumber, List.of());
+			});
+		}
+		catch (final Exception exception) {
+			TestForkPartitioner.LOGGER.warn("Test classes could not be partitioned across forks, running all of them: " + exception.getLocalizedMessage());
+			return List.copyOf(classNames);
+		}
+	}
+
+}
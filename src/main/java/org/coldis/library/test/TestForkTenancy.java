@@ -0,0 +1,228 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+/**
+ * Fork tenancy. When containers are shared across forks (JVMs) on the same
+ * host, each fork gets its own Postgres database (a copy of the default one),
+ * Redis database index and Artemis address prefix (keyed by the fork number).
+ * The address prefix is applied to the JMS destinations of the Spring contexts
+ * by {@link TestJmsAutoConfiguration}.
+ */
+public class TestForkTenancy {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestForkTenancy.class);
+
+	/**
+	 * Shared across forks property.
+	 */
+	public static final String SHARED_ACROSS_FORKS_PROPERTY = "project.config.source.test.container.shared-across-forks";
+
+	/**
+	 * Host lock directory.
+	 */
+	public static final Path LOCK_DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "coldis-test");
+
+	/**
+	 * Redis database count.
+	 */
+	public static final Integer REDIS_DATABASES = 16;
+
+	/**
+	 * Database property suffix.
+	 */
+	public static final String DATABASE_PROPERTY_SUFFIX = "_DATABASE";
+
+	/**
+	 * Address prefix property suffix.
+	 */
+	public static final String ADDRESS_PREFIX_PROPERTY_SUFFIX = "_ADDRESS_PREFIX";
+
+	/**
+	 * In-JVM locks (file locks are held per JVM).
+	 */
+	private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+	/**
+	 * Tenants already prepared in this JVM.
+	 */
+	private static final Set<String> PREPARED_TENANTS = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * If containers are shared across forks.
+	 *
+	 * @return If containers are shared across forks.
+	 */
+	public static Boolean isSharedAcrossForks() {
+		return Objects.equals(System.getProperty(TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY), "true");
+	}
+
+	/**
+	 * Gets the fork Postgres database name (a copy of the default database if
+	 * containers are shared across forks or the schema cache is enabled, as the
+	 * cached schema is never restored into the default database).
+	 *
+	 * @return The fork Postgres database name.
+	 */
+	public static String getPostgresDatabase() {
+		return (TestForkTenancy.isSharedAcrossForks() ? TestHelper.TEST_USER_NAME + "_fork_" + TestHelper.getTestForkNumber()
+				: (PostgresSchemaCache.isEnabled() ? TestHelper.TEST_USER_NAME + "_cached" : TestHelper.TEST_USER_NAME));
+	}
+
+	/**
+	 * Gets the fork Redis database index. Forks beyond the number of Redis
+	 * databases would share a database with another fork, so they fail instead.
+	 *
+	 * @return The fork Redis database index.
+	 */
+	public static Integer getRedisDatabase() {
+		if (TestForkTenancy.isSharedAcrossForks()) {
+			final Integer forkNumber = TestHelper.getTestForkNumber();
+			if (forkNumber > TestForkTenancy.REDIS_DATABASES) {
+				throw new IllegalStateException("Test fork " + forkNumber + " has no Redis database of its own (only " + TestForkTenancy.REDIS_DATABASES
+						+ " are available when containers are shared across forks).");
+			}
+			return forkNumber % TestForkTenancy.REDIS_DATABASES;
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the fork Artemis address prefix.
+	 *
+	 * @return The fork Artemis address prefix.
+	 */
+	public static String getArtemisAddressPrefix() {
+		return (TestForkTenancy.isSharedAcrossForks() ? "fork" + TestHelper.getTestForkNumber() + "." : "");
+	}
+
+	/**
+	 * Runs an action holding a host-wide lock (shared by every JVM on the host).
+	 *
+	 * @param  <Type>    Result type.
+	 * @param  name      Lock name.
+	 * @param  action    Action.
+	 * @return           The action result.
+	 * @throws Exception If the action fails or the lock cannot be acquired.
+	 */
+	public static <Type> Type withHostLock(
+			final String name,
+			final Callable<Type> action) throws Exception {
+		final ReentrantLock jvmLock = TestForkTenancy.LOCKS.computeIfAbsent(name, key -> new ReentrantLock());
+		jvmLock.lock();
+		try {
+			Files.createDirectories(TestForkTenancy.LOCK_DIRECTORY);
+			try (FileChannel channel = FileChannel.open(TestForkTenancy.LOCK_DIRECTORY.resolve(name + ".lock"), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+					FileLock fileLock = channel.lock()) {
+				return action.call();
+			}
+		}
+		finally {
+			jvmLock.unlock();
+		}
+	}
+
+	/**
+	 * Prepares a container to be shared across forks (before it starts).
+	 *
+	 * @param container Container.
+	 */
+	public static void prepareContainer(
+			final GenericContainer<?> container) {
+		if (TestForkTenancy.isSharedAcrossForks()) {
+			if (!TestcontainersConfiguration.getInstance().environmentSupportsReuse()) {
+				TestForkTenancy.LOGGER.warn("Containers are shared across forks, but Testcontainers reuse is not enabled (testcontainers.reuse.enable=true).");
+			}
+			container.withReuse(true);
+		}
+	}
+
+	/**
+	 * Starts a container, sharing it across forks if enabled.
+	 *
+	 * @param  container Container.
+	 * @throws Exception If the container cannot be started.
+	 */
+	public static void startContainer(
+			final GenericContainer<?> container) throws Exception {
+		TestForkTenancy.prepareContainer(container);
+		if (TestForkTenancy.isSharedAcrossForks()) {
+			TestForkTenancy.withHostLock("container-" + TestContainerKind.of(container).name().toLowerCase(), () -> {
+				container.start();
+				return null;
+			});
+		}
+		else {
+			container.start();
+		}
+	}
+
+	/**
+	 * Prepares the fork tenant in a (started) container, once per JVM, and
+	 * publishes its properties (named after the container field).
+	 *
+	 * @param  fieldName Container field name.
+	 * @param  container Container.
+	 * @throws Exception If the tenant cannot be prepared.
+	 */
+	public static void prepareTenant(
+			final String fieldName,
+			final GenericContainer<?> container) throws Exception {
+		final TestContainerKind kind = TestContainerKind.of(container);
+		switch (kind) {
+			case POSTGRES:
+				final String database = TestForkTenancy.getPostgresDatabase();
+				// Sets the database first, so a failed preparation does not fall back to the default database.
+				System.setProperty(fieldName + TestForkTenancy.DATABASE_PROPERTY_SUFFIX, database);
+				// Creates the tenant database as a copy of the default one (with the image extensions), restoring the
+				// cached schema into it if available (once per container in this JVM).
+				if (!Objects.equals(database, TestHelper.TEST_USER_NAME) && TestForkTenancy.PREPARED_TENANTS.add(container.getContainerId() + database)) {
+					final Boolean schemaCached = TestForkTenancy.withHostLock("tenant-" + database, () -> {
+						if (PostgresSchemaCache.isEnabled() && PostgresSchemaCache.restore(container, database)) {
+							return true;
+						}
+						PostgresTestContainerHelper.createDatabase(container, database, TestHelper.TEST_USER_NAME, TestHelper.TEST_USER_NAME);
+						return false;
+					});
+					if (PostgresSchemaCache.isEnabled()) {
+						System.setProperty(fieldName + PostgresSchemaCache.SCHEMA_CACHED_PROPERTY_SUFFIX, schemaCached.toString());
+					}
+				}
+				// Pre-warms the shared connection pool (checking the property directly, as
+				// HikariCP is optional).
+				if (Objects.equals(System.getProperty(TestConnectionPools.ENABLED_PROPERTY), "true")) {
+					TestConnectionPools.warmUp(container, database);
+				}
+				break;
+			case REDIS:
+				System.setProperty(fieldName + TestForkTenancy.DATABASE_PROPERTY_SUFFIX, TestForkTenancy.getRedisDatabase().toString());
+				break;
+			case ARTEMIS:
+				System.setProperty(fieldName + TestForkTenancy.ADDRESS_PREFIX_PROPERTY_SUFFIX, TestForkTenancy.getArtemisAddressPrefix());
+				break;
+			default:
+				break;
+		}
+	}
+
+}
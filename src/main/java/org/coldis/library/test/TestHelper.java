@@ -8,26 +8,31 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.coldis.library.helper.DateTimeHelper;
 import org.coldis.library.helper.ReflectionHelper;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.GenericContainer;
-import org.testcontainers.containers.wait.strategy.Wait;
 
 /**
  * Test helper.
  */
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestMethodOrder(TestHistoryMethodOrderer.class)
+@ExtendWith({ TestLifecycleTimelineExtension.class, TestHistoryExtension.class })
 public class TestHelper {
 
 	/**
@@ -95,14 +100,35 @@ public class TestHelper {
 	 */
 	public static String TEST_USER_PASSWORD = "test";
 
-	/** Postgres container. */
-	public static GenericContainer<?> POSTGRES_CONTAINER = TestHelper.createPostgresContainer();
+	/**
+	 * Executor for asynchronous waits (virtual threads).
+	 */
+	private static final ExecutorService WAIT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+	/**
+	 * Test admin user name.
+	 */
+	public static String TEST_ADMIN_USER_NAME = "postgres";
+
+	/**
+	 * Test admin user password.
+	 */
+	public static String TEST_ADMIN_USER_PASSWORD = "postgres";
 
-	/** Artemis container. */
-	public static GenericContainer<?> ARTEMIS_CONTAINER = TestHelper.createArtemisContainer();
+	/**
+	 * Postgres image.
+	 */
+	public static final String POSTGRES_IMAGE = "coldis/infrastructure-transactional-repository:5.0.10";
 
-	/** Redis container. */
-	public static GenericContainer<?> REDIS_CONTAINER = TestHelper.createRedisContainer();
+	/**
+	 * Artemis image.
+	 */
+	public static final String ARTEMIS_IMAGE = "coldis/infrastructure-messaging-service:2.29";
+
+	/**
+	 * Redis image.
+	 */
+	public static final String REDIS_IMAGE = "redis:7.4.1-bookworm";
 
 	/**
 	 * Gets the test fork number.
@@ -119,6 +145,26 @@ public class TestHelper {
 		return forkNumber;
 	}
 
+	/**
+	 * Gets the test fork count. Surefire does not pass it to the forks, so the
+	 * build must (through the {@code systemPropertyVariables}). Counts per core
+	 * (such as {@code 1C} or {@code 0.5C}) are multiplied by the available
+	 * processors, as Surefire does.
+	 *
+	 * @return The test fork count.
+	 */
+	public static Integer getTestForkCount() {
+		String forkCount = System.getProperty("project.config.source.test.fork-count");
+		forkCount = (forkCount == null ? System.getProperty("forkCount") : forkCount);
+		forkCount = (forkCount == null ? System.getProperty("FORK_COUNT") : forkCount);
+		forkCount = StringUtils.trimToEmpty(forkCount);
+		// Counts per core.
+		if (StringUtils.endsWithIgnoreCase(forkCount, "C") && NumberUtils.isParsable(StringUtils.chop(forkCount))) {
+			return Math.max(1, (int) (Double.parseDouble(StringUtils.chop(forkCount)) * Runtime.getRuntime().availableProcessors()));
+		}
+		return (NumberUtils.isParsable(forkCount) ? Math.max(1, (int) Double.parseDouble(forkCount)) : 1);
+	}
+
 	/**
 	 * Gets the test cpu quota.
 	 *
@@ -211,6 +257,60 @@ public class TestHelper {
 		return diskQuota;
 	}
 
+	/**
+	 * Gets the test cpu quota for a container kind (split from the host resources
+	 * if the resource budget is enabled and no explicit quota is set).
+	 *
+	 * @param  kind Container kind.
+	 * @return      The test cpu quota.
+	 */
+	public static Long getCpuQuota(
+			final TestContainerKind kind) {
+		return ((System.getProperty("CPU_QUOTA") == null) && TestResourceBudget.isEnabled() ? TestResourceBudget.getCpuQuota(kind)
+				: TestHelper.getCpuQuota());
+	}
+
+	/**
+	 * Gets the test memoryReservation quota for a container kind (split from the
+	 * host resources if the resource budget is enabled and no explicit quota is
+	 * set).
+	 *
+	 * @param  kind Container kind.
+	 * @return      The test memoryReservation quota.
+	 */
+	public static Long getMemoryReservationQuota(
+			final TestContainerKind kind) {
+		return ((System.getProperty("MEMORY_RESERVATION_QUOTA") == null) && TestResourceBudget.isEnabled()
+				? TestResourceBudget.getMemoryReservationQuota(kind)
+				: TestHelper.getMemoryReservationQuota());
+	}
+
+	/**
+	 * Gets the test memory quota for a container kind (split from the host
+	 * resources if the resource budget is enabled and no explicit quota is set).
+	 *
+	 * @param  kind Container kind.
+	 * @return      The test memory quota.
+	 */
+	public static Long getMemoryQuota(
+			final TestContainerKind kind) {
+		return ((System.getProperty("MEMORY_QUOTA") == null) && TestResourceBudget.isEnabled() ? TestResourceBudget.getMemoryQuota(kind)
+				: TestHelper.getMemoryQuota());
+	}
+
+	/**
+	 * Gets the test disk quota for a container kind (split from the host
+	 * resources if the resource budget is enabled and no explicit quota is set).
+	 *
+	 * @param  kind Container kind.
+	 * @return      The test disk quota.
+	 */
+	public static Long getDiskQuota(
+			final TestContainerKind kind) {
+		return ((System.getProperty("DISK_QUOTA") == null) && TestResourceBudget.isEnabled() ? TestResourceBudget.getDiskQuota(kind)
+				: TestHelper.getDiskQuota());
+	}
+
 	/**
 	 * Cleans after each test.
 	 */
@@ -247,25 +347,52 @@ public class TestHelper {
 		TestHelper.cleanClock();
 	}
 
+	/**
+	 * Gets the shared Postgres container (created on first use).
+	 *
+	 * @return The shared Postgres container.
+	 */
+	public static GenericContainer<?> getPostgresContainer() {
+		return TestContainerDefinitions.get(TestContainerDefinitions.POSTGRES_CONTAINER);
+	}
+
+	/**
+	 * Gets the shared Artemis container (created on first use).
+	 *
+	 * @return The shared Artemis container.
+	 */
+	public static GenericContainer<?> getArtemisContainer() {
+		return TestContainerDefinitions.get(TestContainerDefinitions.ARTEMIS_CONTAINER);
+	}
+
+	/**
+	 * Gets the shared Redis container (created on first use).
+	 *
+	 * @return The shared Redis container.
+	 */
+	public static GenericContainer<?> getRedisContainer() {
+		return TestContainerDefinitions.get(TestContainerDefinitions.REDIS_CONTAINER);
+	}
+
 	/**
 	 * Creates a Postgres container.
 	 */
 	@SuppressWarnings("resource")
 	public static GenericContainer<?> createPostgresContainer() {
-		return new GenericContainer<>("coldis/infrastructure-transactional-repository:5.0.10")
+		return TestContainerImagePuller.register(TestHelper.POSTGRES_IMAGE, new GenericContainer<>(TestHelper.POSTGRES_IMAGE)
 				.withCreateContainerCmdModifier(
-						cmd -> cmd.getHostConfig().withCpuCount(TestHelper.getCpuQuota()).withMemoryReservation(TestHelper.getMemoryReservationQuota())
-								.withMemory(TestHelper.getMemoryQuota()).withDiskQuota(TestHelper.getDiskQuota()))
+						cmd -> cmd.getHostConfig().withCpuCount(TestHelper.getCpuQuota(TestContainerKind.POSTGRES))
+								.withMemoryReservation(TestHelper.getMemoryReservationQuota(TestContainerKind.POSTGRES))
+								.withMemory(TestHelper.getMemoryQuota(TestContainerKind.POSTGRES)).withDiskQuota(TestHelper.getDiskQuota(TestContainerKind.POSTGRES)))
 				.withExposedPorts(5432)
-				.withEnv(Map.of("ENABLE_JSON_CAST", "true", "ENABLE_UNACCENT", "true", "POSTGRES_ADMIN_PASSWORD", "postgres", "POSTGRES_ADMIN_USER", "postgres",
+				.withEnv(Map.of("ENABLE_JSON_CAST", "true", "ENABLE_UNACCENT", "true", "POSTGRES_ADMIN_PASSWORD", TestHelper.TEST_ADMIN_USER_PASSWORD,
+						"POSTGRES_ADMIN_USER", TestHelper.TEST_ADMIN_USER_NAME,
 						"REPLICATOR_USER_NAME", "replicator", "REPLICATOR_USER_PASSWORD", "replicator", "POSTGRES_DEFAULT_USER", TestHelper.TEST_USER_NAME,
 						"POSTGRES_DEFAULT_PASSWORD", TestHelper.TEST_USER_PASSWORD, "POSTGRES_DEFAULT_DATABASE", TestHelper.TEST_USER_NAME, "MAX_CONNECTIONS",
 						"200"))
-				.waitingFor(Wait
-						.forSuccessfulCommand(
-								"PGPASSWORD=\"" + TestHelper.TEST_USER_PASSWORD + "\" psql -c 'SELECT 1;' -U \"" + TestHelper.TEST_USER_NAME + "\"")
+				.waitingFor(new PostgresReadinessProbe(5432, TestHelper.TEST_USER_NAME, TestHelper.TEST_USER_PASSWORD, TestHelper.TEST_USER_NAME)
 						.withStartupTimeout(Duration.ofMinutes(3)))
-				.withStartupAttempts(3);
+				.withStartupAttempts(3));
 	}
 
 	/**
@@ -273,27 +400,42 @@ public class TestHelper {
 	 */
 	@SuppressWarnings("resource")
 	public static GenericContainer<?> createArtemisContainer() {
-		return new GenericContainer<>("coldis/infrastructure-messaging-service:2.29")
+		return TestContainerImagePuller.register(TestHelper.ARTEMIS_IMAGE, new GenericContainer<>(TestHelper.ARTEMIS_IMAGE)
 				.withCreateContainerCmdModifier(
-						cmd -> cmd.getHostConfig().withCpuCount(TestHelper.getCpuQuota()).withMemoryReservation(TestHelper.getMemoryReservationQuota())
-								.withMemory(TestHelper.getMemoryQuota()).withDiskQuota(TestHelper.getDiskQuota()))
+						cmd -> cmd.getHostConfig().withCpuCount(TestHelper.getCpuQuota(TestContainerKind.ARTEMIS))
+								.withMemoryReservation(TestHelper.getMemoryReservationQuota(TestContainerKind.ARTEMIS))
+								.withMemory(TestHelper.getMemoryQuota(TestContainerKind.ARTEMIS)).withDiskQuota(TestHelper.getDiskQuota(TestContainerKind.ARTEMIS)))
 				.withExposedPorts(8161, 61616)
 				.withEnv(Map.of("JDK_USE_TUNED_OPTS", "false", "ARTEMIS_USERNAME", TestHelper.TEST_USER_NAME, "ARTEMIS_PASSWORD", TestHelper.TEST_USER_PASSWORD,
 						"ARTEMIS_PERF_JOURNAL", "ALWAYS"))
-				.waitingFor(Wait.forLogMessage(".*AMQ241004.*", 1).withStartupTimeout(Duration.ofMinutes(3))).withStartupAttempts(3);
+				.waitingFor(new ArtemisReadinessProbe(61616).withStartupTimeout(Duration.ofMinutes(3))).withStartupAttempts(3));
 	}
 
 	/**
 	 * Creates a Redis container.
 	 */
-	@SuppressWarnings("resource")
 	public static GenericContainer<?> createRedisContainer() {
-		return new GenericContainer<>("redis:7.4.1-bookworm")
+		return TestHelper.createRedisContainer(true);
+	}
+
+	/**
+	 * Creates a Redis container.
+	 *
+	 * @param persistent If RDB saves should be enabled (disabling it avoids disk
+	 *                       writes, for faster tests).
+	 */
+	@SuppressWarnings("resource")
+	public static GenericContainer<?> createRedisContainer(
+			final Boolean persistent) {
+		return TestContainerImagePuller.register(TestHelper.REDIS_IMAGE, new GenericContainer<>(TestHelper.REDIS_IMAGE)
 				.withCreateContainerCmdModifier(
-						cmd -> cmd.getHostConfig().withCpuCount(TestHelper.getCpuQuota()).withMemoryReservation(TestHelper.getMemoryReservationQuota())
-								.withMemory(TestHelper.getMemoryQuota()).withDiskQuota(TestHelper.getDiskQuota()))
-				.withExposedPorts(6379).withCommand("redis-server", "--save", "60", "1", "--loglevel", "warning")
-				.waitingFor(Wait.forListeningPort().withStartupTimeout(Duration.ofMinutes(3))).withStartupAttempts(3);
+						cmd -> cmd.getHostConfig().withCpuCount(TestHelper.getCpuQuota(TestContainerKind.REDIS))
+								.withMemoryReservation(TestHelper.getMemoryReservationQuota(TestContainerKind.REDIS))
+								.withMemory(TestHelper.getMemoryQuota(TestContainerKind.REDIS)).withDiskQuota(TestHelper.getDiskQuota(TestContainerKind.REDIS)))
+				.withExposedPorts(6379)
+				.withCommand(persistent ? new String[] { "redis-server", "--save", "60", "1", "--loglevel", "warning" }
+						: new String[] { "redis-server", "--save", "", "--appendonly", "no", "--loglevel", "warning" })
+				.waitingFor(new RedisReadinessProbe(6379).withStartupTimeout(Duration.ofMinutes(3))).withStartupAttempts(3));
 	}
 
 	/**
@@ -317,36 +459,120 @@ public class TestHelper {
 			final Integer maxWait,
 			final Integer poll,
 			final Class<? extends Throwable>... exceptionsToIgnore) throws Exception {
+		return TestHelper.waitUntilValid(variableSupplier, validVariableState, maxWait, WaitBackoff.fixed(poll), null, exceptionsToIgnore);
+	}
+
+	/**
+	 * Waits until variable is valid, using the given backoff between
+	 * verifications and waking up as soon as the (optional) signal is triggered.
+	 *
+	 * @param  <Type>             The variable type.
+	 * @param  variableSupplier   Variable supplier function.
+	 * @param  validVariableState The variable valid state verification.
+	 * @param  maxWait            Milliseconds to wait until valid state is met.
+	 * @param  backoff            Backoff between validity verifications.
+	 * @param  signal             Signal that triggers an immediate verification
+	 *                                (optional).
+	 * @param  exceptionsToIgnore Exceptions to be ignored on validity verification.
+	 * @return                    If a valid variable state has been met within the
+	 *                            maximum wait period.
+	 * @throws Exception          If the validity verification throws a non
+	 *                                ignorable exception.
+	 */
+	@SafeVarargs
+	public static <Type> Boolean waitUntilValid(
+			final Supplier<Type> variableSupplier,
+			final Predicate<Type> validVariableState,
+			final Integer maxWait,
+			final WaitBackoff backoff,
+			final WaitSignal signal,
+			final Class<? extends Throwable>... exceptionsToIgnore) throws Exception {
 		// Valid state is not considered met by default.
 		boolean validStateMet = false;
-		// Validation start time stamp.
-		final Long startTimestamp = System.currentTimeMillis();
-		// Until wait time is not reached.
-		for (Long currentTimestamp = System.currentTimeMillis(); (startTimestamp + maxWait) > currentTimestamp; currentTimestamp = System.currentTimeMillis()) {
-			// If the variable state is valid.
-			try {
-				if (validVariableState.test(variableSupplier.get())) {
-					// Valid state has been met.
-					validStateMet = true;
-					break;
+		// Times the wait loop.
+		final TestLifecycleSpan span = TestLifecycleTimeline.start(TestLifecycleTimeline.WAIT_LOOP, validVariableState.getClass().getName());
+		// Exceptions to be ignored.
+		final List<Class<? extends Throwable>> ignorableExceptions = (exceptionsToIgnore == null ? List.of() : Arrays.asList(exceptionsToIgnore));
+		// Validation deadline.
+		final Long deadline = System.currentTimeMillis() + maxWait;
+		try {
+			// Until wait time is not reached.
+			for (Integer attempt = 0; deadline > System.currentTimeMillis(); attempt++) {
+				// Signal version before the verification (so signals during it are not lost).
+				final long signalVersion = (signal == null ? 0 : signal.getVersion());
+				// If the variable state is valid.
+				try {
+					if (validVariableState.test(variableSupplier.get())) {
+						// Valid state has been met.
+						validStateMet = true;
+						break;
+					}
 				}
-			}
-			// If the variable state cannot be tested.
-			catch (final Throwable throwable) {
-				// If the exception is not to be ignored.
-				if ((exceptionsToIgnore == null)
-						|| !Arrays.asList(exceptionsToIgnore).stream().anyMatch(exception -> exception.isAssignableFrom(throwable.getClass()))) {
-					// Throws the exception and stops the wait.
-					throw throwable;
+				// If the variable state cannot be tested.
+				catch (final Throwable throwable) {
+					// If the exception is not to be ignored.
+					if (!ignorableExceptions.stream().anyMatch(exception -> exception.isAssignableFrom(throwable.getClass()))) {
+						// Throws the exception and stops the wait.
+						throw throwable;
+					}
+				}
+				// Waits a bit (never beyond the deadline).
+				final Long delay = Math.min(backoff.getDelay(attempt), deadline - System.currentTimeMillis());
+				if (delay <= 0) {
+					Thread.onSpinWait();
+				}
+				else if (signal != null) {
+					signal.await(signalVersion, delay);
+				}
+				else {
+					Thread.sleep(delay);
 				}
 			}
-			// Waits a bit.
-			Thread.sleep(poll);
+		}
+		finally {
+			span.close();
 		}
 		// Returns if valid state has been met.
 		return validStateMet;
 	}
 
+	/**
+	 * Waits until variable is valid on a virtual thread.
+	 *
+	 * @param  <Type>             The variable type.
+	 * @param  variableSupplier   Variable supplier function.
+	 * @param  validVariableState The variable valid state verification.
+	 * @param  maxWait            Milliseconds to wait until valid state is met.
+	 * @param  backoff            Backoff between validity verifications.
+	 * @param  signal             Signal that triggers an immediate verification
+	 *                                (optional).
+	 * @param  exceptionsToIgnore Exceptions to be ignored on validity verification.
+	 * @return                    A future with if a valid variable state has been
+	 *                            met within the maximum wait period (completed
+	 *                            exceptionally if the validity verification throws
+	 *                            a non ignorable exception).
+	 */
+	@SafeVarargs
+	public static <Type> CompletableFuture<Boolean> waitUntilValidAsync(
+			final Supplier<Type> variableSupplier,
+			final Predicate<Type> validVariableState,
+			final Integer maxWait,
+			final WaitBackoff backoff,
+			final WaitSignal signal,
+			final Class<? extends Throwable>... exceptionsToIgnore) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return TestHelper.waitUntilValid(variableSupplier, validVariableState, maxWait, backoff, signal, exceptionsToIgnore);
+			}
+			catch (final RuntimeException exception) {
+				throw exception;
+			}
+			catch (final Exception exception) {
+				throw new CompletionException(exception);
+			}
+		}, TestHelper.WAIT_EXECUTOR);
+	}
+
 	/**
 	 * Creates incomplete objects.
 	 *
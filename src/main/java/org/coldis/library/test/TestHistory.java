@@ -0,0 +1,171 @@
+package org.coldis.library.test;
+
+/**
+ * Recorded history of a test (or test class).
+ */
+public class TestHistory {
+
+	/**
+	 * Test id.
+	 */
+	private final String testId;
+
+	/**
+	 * Number of runs.
+	 */
+	private Integer runs = 0;
+
+	/**
+	 * Number of failed runs (after all attempts).
+	 */
+	private Integer failures = 0;
+
+	/**
+	 * Number of flaky runs (passed only after retrying).
+	 */
+	private Integer flakyRuns = 0;
+
+	/**
+	 * Total duration (milliseconds).
+	 */
+	private Long totalDuration = 0L;
+
+	/**
+	 * Last duration (milliseconds).
+	 */
+	private Long lastDuration = 0L;
+
+	/**
+	 * Last failure timestamp.
+	 */
+	private Long lastFailureTimestamp = 0L;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param testId Test id.
+	 */
+	public TestHistory(final String testId) {
+		super();
+		this.testId = testId;
+	}
+
+	/**
+	 * Records an outcome.
+	 *
+	 * @param timestamp Timestamp.
+	 * @param outcome   Outcome.
+	 * @param attempts  Attempts.
+	 * @param duration  Duration (milliseconds).
+	 */
+	protected synchronized void record(
+			final Long timestamp,
+			final TestOutcome outcome,
+			final Integer attempts,
+			final Long duration) {
+		if (outcome != TestOutcome.ABORTED) {
+			this.runs++;
+			this.totalDuration += duration;
+			this.lastDuration = duration;
+			if (outcome == TestOutcome.FAILED) {
+				this.failures++;
+				this.lastFailureTimestamp = Math.max(this.lastFailureTimestamp, timestamp);
+			}
+			else if (attempts > 1) {
+				this.flakyRuns++;
+			}
+		}
+	}
+
+	/**
+	 * Gets the testId.
+	 *
+	 * @return The testId.
+	 */
+	public String getTestId() {
+		return this.testId;
+	}
+
+	/**
+	 * Gets the runs.
+	 *
+	 * @return The runs.
+	 */
+	public synchronized Integer getRuns() {
+		return this.runs;
+	}
+
+	/**
+	 * Gets the failures.
+	 *
+	 * @return The failures.
+	 */
+	public synchronized Integer getFailures() {
+		return this.failures;
+	}
+
+	/**
+	 * Gets the flakyRuns.
+	 *
+	 * @return The flakyRuns.
+	 */
+	public synchronized Integer getFlakyRuns() {
+		return this.flakyRuns;
+	}
+
+	/**
+	 * Gets the lastDuration.
+	 *
+	 * @return The lastDuration.
+	 */
+	public synchronized Long getLastDuration() {
+		return this.lastDuration;
+	}
+
+	/**
+	 * Gets the lastFailureTimestamp.
+	 *
+	 * @return The lastFailureTimestamp.
+	 */
+	public synchronized Long getLastFailureTimestamp() {
+		return this.lastFailureTimestamp;
+	}
+
+	/**
+	 * Gets the average duration (milliseconds).
+	 *
+	 * @return The average duration.
+	 */
+	public synchronized Long getAverageDuration() {
+		return this.runs == 0 ? 0L : this.totalDuration / this.runs;
+	}
+
+	/**
+	 * If the test is flaky (passed only after retrying, or both passed and
+	 * failed).
+	 *
+	 * @return If the test is flaky.
+	 */
+	public synchronized Boolean isFlaky() {
+		return (this.flakyRuns > 0) || ((this.failures > 0) && (this.failures < this.runs));
+	}
+
+	/**
+	 * Gets the flaky rate (flaky and failed runs over runs).
+	 *
+	 * @return The flaky rate.
+	 */
+	public synchronized Double getFlakyRate() {
+		return this.runs == 0 ? 0D : (this.flakyRuns + this.failures) / (double) this.runs;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public synchronized String toString() {
+		return this.testId + " (runs: " + this.runs + ", failures: " + this.failures + ", flaky runs: " + this.flakyRuns + ", average duration: "
+				+ this.getAverageDuration() + "ms)";
+	}
+
+}
@@ -0,0 +1,88 @@
+package org.coldis.library.test;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+/**
+ * Orders test classes by their recorded history (see {@link TestHistoryStore}):
+ * recently failing classes first (if fail fast is enabled), then the longest
+ * classes first (classes without history are considered the longest). Enable
+ * it with the "junit.jupiter.testclass.order.default" configuration parameter.
+ */
+public class TestHistoryClassOrderer implements ClassOrderer {
+
+	/**
+	 * Recent failure window (milliseconds) property.
+	 */
+	public static final String RECENT_FAILURE_WINDOW_PROPERTY = "project.config.source.test.history-recent-failure-window";
+
+	/**
+	 * Default recent failure window (milliseconds).
+	 */
+	public static final Long DEFAULT_RECENT_FAILURE_WINDOW = 7L * 24 * 60 * 60 * 1000;
+
+	/**
+	 * Gets the recorded duration of a test class (the class duration, or the sum
+	 * of its tests durations).
+	 *
+	 * @param  className Class name.
+	 * @return           The recorded duration (or null if there is no history).
+	 */
+	public static Long getDuration(
+			final String className) {
+		final Map<String, TestHistory> history = TestHistoryStore.getHistory();
+		final TestHistory classHistory = history.get(className);
+		if ((classHistory != null) && (classHistory.getRuns() > 0)) {
+			return classHistory.getAverageDuration();
+		}
+		final Long testsDuration = history.values().stream().filter(testHistory -> testHistory.getTestId().startsWith(className + "#"))
+				.mapToLong(TestHistory::getAverageDuration).sum();
+		return testsDuration > 0 ? testsDuration : null;
+	}
+
+	/**
+	 * Gets if a test (class or test method id) has failed within the recent
+	 * failure window.
+	 *
+	 * @param  testId Test id.
+	 * @return        If the test has failed recently.
+	 */
+	public static Boolean isRecentlyFailing(
+			final String testId) {
+		final String window = System.getProperty(TestHistoryClassOrderer.RECENT_FAILURE_WINDOW_PROPERTY);
+		final Long since = System.currentTimeMillis()
+				- (NumberUtils.isParsable(window) ? Long.parseLong(window) : TestHistoryClassOrderer.DEFAULT_RECENT_FAILURE_WINDOW);
+		return TestHistoryStore.getHistory().values().stream()
+				.filter(history -> Objects.equals(history.getTestId(), testId) || history.getTestId().startsWith(testId + "#"))
+				.anyMatch(history -> history.getLastFailureTimestamp() >= since);
+	}
+
+	/**
+	 * @see org.junit.jupiter.api.ClassOrderer#orderClasses(org.junit.jupiter.api.ClassOrdererContext)
+	 */
+	@Override
+	public void orderClasses(
+			final ClassOrdererContext context) {
+		if (TestHistoryStore.isEnabled()) {
+			// Computes the sort keys once per class.
+			final Boolean failFast = RetryAndFailFastExtension.isFailFastEnabled();
+			final Map<ClassDescriptor, Boolean> recentlyFailing = new IdentityHashMap<>();
+			final Map<ClassDescriptor, Long> durations = new IdentityHashMap<>();
+			for (final ClassDescriptor descriptor : context.getClassDescriptors()) {
+				final Long duration = TestHistoryClassOrderer.getDuration(descriptor.getTestClass().getName());
+				recentlyFailing.put(descriptor, failFast && TestHistoryClassOrderer.isRecentlyFailing(descriptor.getTestClass().getName()));
+				durations.put(descriptor, duration == null ? Long.MAX_VALUE : duration);
+			}
+			context.getClassDescriptors().sort(Comparator.comparing((final ClassDescriptor descriptor) -> recentlyFailing.get(descriptor) ? 0 : 1)
+					.thenComparing(durations::get, Comparator.reverseOrder()));
+		}
+	}
+
+}
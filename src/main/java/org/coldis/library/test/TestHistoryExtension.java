@@ -0,0 +1,67 @@
+package org.coldis.library.test;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+/**
+ * Records the duration and outcome of each test class in the test history (if
+ * enabled), so classes can be ordered and partitioned across forks.
+ */
+public class TestHistoryExtension implements BeforeAllCallback, AfterAllCallback, TestWatcher {
+
+	/**
+	 * Extension namespace.
+	 */
+	private static final Namespace NAMESPACE = Namespace.create(TestHistoryExtension.class);
+
+	/**
+	 * Class start store key.
+	 */
+	private static final String START_KEY = "start";
+
+	/**
+	 * Class failed store key.
+	 */
+	private static final String FAILED_KEY = "failed";
+
+	/**
+	 * @see org.junit.jupiter.api.extension.BeforeAllCallback#beforeAll(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public void beforeAll(
+			final ExtensionContext context) throws Exception {
+		if (TestHistoryStore.isEnabled()) {
+			context.getStore(TestHistoryExtension.NAMESPACE).put(TestHistoryExtension.START_KEY, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * @see org.junit.jupiter.api.extension.TestWatcher#testFailed(org.junit.jupiter.api.extension.ExtensionContext,
+	 *      java.lang.Throwable)
+	 */
+	@Override
+	public void testFailed(
+			final ExtensionContext context,
+			final Throwable cause) {
+		context.getParent().ifPresent(classContext -> classContext.getStore(TestHistoryExtension.NAMESPACE).put(TestHistoryExtension.FAILED_KEY, true));
+	}
+
+	/**
+	 * @see org.junit.jupiter.api.extension.AfterAllCallback#afterAll(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public void afterAll(
+			final ExtensionContext context) throws Exception {
+		final Long start = context.getStore(TestHistoryExtension.NAMESPACE).remove(TestHistoryExtension.START_KEY, Long.class);
+		if (TestHistoryStore.isEnabled() && (start != null)) {
+			final Boolean failed = context.getExecutionException().isPresent()
+					|| context.getStore(TestHistoryExtension.NAMESPACE).getOrDefault(TestHistoryExtension.FAILED_KEY, Boolean.class, false);
+			TestHistoryStore.record(context.getRequiredTestClass().getName(), failed ? TestOutcome.FAILED : TestOutcome.PASSED, 1,
+					System.currentTimeMillis() - start);
+		}
+	}
+
+}
@@ -0,0 +1,38 @@
+package org.coldis.library.test;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.Order;
+
+/**
+ * Orders test methods by their {@link Order} annotation (as
+ * {@link MethodOrderer.OrderAnnotation}) and, if the test history and fail fast
+ * are enabled, runs recently failing methods first among the same order.
+ */
+public class TestHistoryMethodOrderer implements MethodOrderer {
+
+	/**
+	 * @see org.junit.jupiter.api.MethodOrderer#orderMethods(org.junit.jupiter.api.MethodOrdererContext)
+	 */
+	@Override
+	public void orderMethods(
+			final MethodOrdererContext context) {
+		// Computes the sort keys once per method.
+		final Boolean recentFailuresFirst = TestHistoryStore.isEnabled() && RetryAndFailFastExtension.isFailFastEnabled();
+		final Map<MethodDescriptor, Integer> orders = new IdentityHashMap<>();
+		final Map<MethodDescriptor, Boolean> recentlyFailing = new IdentityHashMap<>();
+		for (final MethodDescriptor descriptor : context.getMethodDescriptors()) {
+			orders.put(descriptor, descriptor.findAnnotation(Order.class).map(Order::value).orElse(Order.DEFAULT));
+			recentlyFailing.put(descriptor, recentFailuresFirst
+					&& TestHistoryClassOrderer.isRecentlyFailing(context.getTestClass().getName() + "#" + descriptor.getMethod().getName()));
+		}
+		context.getMethodDescriptors().sort(Comparator.comparing((final MethodDescriptor descriptor) -> orders.get(descriptor))
+				.thenComparing(descriptor -> recentlyFailing.get(descriptor) ? 0 : 1));
+	}
+
+}
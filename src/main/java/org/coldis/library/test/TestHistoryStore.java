@@ -0,0 +1,394 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local test history store. An append-only binary file (safe for concurrent
+ * writes from several forks through a file lock) recording the outcome,
+ * attempts and duration of each test run. It is read once per JVM through a
+ * memory mapped buffer.
+ */
+public class TestHistoryStore {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestHistoryStore.class);
+
+	/**
+	 * Enabled property.
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.history-enabled";
+
+	/**
+	 * File property.
+	 */
+	public static final String FILE_PROPERTY = "project.config.source.test.history-file";
+
+	/**
+	 * Default file.
+	 */
+	public static final Path DEFAULT_FILE = Path.of(System.getProperty("user.home"), ".cache", "coldis-test", "test-history.bin");
+
+	/**
+	 * Minimum runs (for a test to be known stable or a quarantine candidate)
+	 * property.
+	 */
+	public static final String MIN_RUNS_PROPERTY = "project.config.source.test.history-min-runs";
+
+	/**
+	 * Default minimum runs.
+	 */
+	public static final Integer DEFAULT_MIN_RUNS = 3;
+
+	/**
+	 * Quarantine flaky rate property.
+	 */
+	public static final String QUARANTINE_FLAKY_RATE_PROPERTY = "project.config.source.test.history-quarantine-flaky-rate";
+
+	/**
+	 * Default quarantine flaky rate.
+	 */
+	public static final Double DEFAULT_QUARANTINE_FLAKY_RATE = 0.1;
+
+	/**
+	 * Maximum file size (before it is compacted) property.
+	 */
+	public static final String MAX_FILE_SIZE_PROPERTY = "project.config.source.test.history-max-file-size";
+
+	/**
+	 * Default maximum file size.
+	 */
+	public static final Long DEFAULT_MAX_FILE_SIZE = 8L * 1024 * 1024;
+
+	/**
+	 * Records kept per test when compacting.
+	 */
+	public static final Integer COMPACTED_RECORDS_PER_TEST = 20;
+
+	/**
+	 * File header ("CTH1").
+	 */
+	private static final Integer MAGIC = 0x43544831;
+
+	/**
+	 * JVM lock (file locks are held per JVM).
+	 */
+	private static final ReentrantLock JVM_LOCK = new ReentrantLock();
+
+	/**
+	 * If the quarantine report has been registered.
+	 */
+	private static final AtomicBoolean REPORT_REGISTERED = new AtomicBoolean();
+
+	/**
+	 * History (lazily loaded).
+	 */
+	private static volatile Map<String, TestHistory> HISTORY;
+
+	/**
+	 * Record.
+	 *
+	 * @param testId    Test id.
+	 * @param timestamp Timestamp.
+	 * @param outcome   Outcome.
+	 * @param attempts  Attempts.
+	 * @param duration  Duration (milliseconds).
+	 */
+	private record Record(
+			String testId,
+			Long timestamp,
+			TestOutcome outcome,
+			Integer attempts,
+			Long duration) {
+
+		/**
+		 * Encodes the record.
+		 *
+		 * @return The encoded record.
+		 */
+		private ByteBuffer encode() {
+			final byte[] id = this.testId.getBytes(StandardCharsets.UTF_8);
+			final Integer length = Long.BYTES + 1 + Short.BYTES + Long.BYTES + Short.BYTES + id.length;
+			final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+			buffer.putInt(length).putLong(this.timestamp).put((byte) this.outcome.ordinal()).putShort((short) Math.min(this.attempts, Short.MAX_VALUE))
+					.putLong(this.duration).putShort((short) id.length).put(id);
+			return buffer.flip();
+		}
+
+	}
+
+	/**
+	 * If the history is enabled.
+	 *
+	 * @return If the history is enabled.
+	 */
+	public static Boolean isEnabled() {
+		return Objects.equals(System.getProperty(TestHistoryStore.ENABLED_PROPERTY), "true");
+	}
+
+	/**
+	 * Gets the history file.
+	 *
+	 * @return The history file.
+	 */
+	public static Path getFile() {
+		final String file = System.getProperty(TestHistoryStore.FILE_PROPERTY);
+		return file == null ? TestHistoryStore.DEFAULT_FILE : Path.of(file);
+	}
+
+	/**
+	 * Gets the minimum runs for a test to be known stable or a quarantine
+	 * candidate.
+	 *
+	 * @return The minimum runs.
+	 */
+	public static Integer getMinRuns() {
+		final String minRuns = System.getProperty(TestHistoryStore.MIN_RUNS_PROPERTY);
+		return NumberUtils.isParsable(minRuns) ? Integer.parseInt(minRuns) : TestHistoryStore.DEFAULT_MIN_RUNS;
+	}
+
+	/**
+	 * Runs an action holding the history lock (in this JVM and host). The lock is
+	 * taken on a separate (stable) lock file, and the history file is only opened
+	 * once it is held, as compaction replaces the history file.
+	 *
+	 * @param  action      Action.
+	 * @throws IOException If the action fails.
+	 */
+	private static void withLock(
+			final IoAction action) throws IOException {
+		final Path file = TestHistoryStore.getFile();
+		TestHistoryStore.JVM_LOCK.lock();
+		try {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			try (FileChannel lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+					FileLock fileLock = lockChannel.lock();
+					FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				if (channel.size() == 0) {
+					channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(TestHistoryStore.MAGIC).flip());
+				}
+				action.run(channel);
+			}
+		}
+		finally {
+			TestHistoryStore.JVM_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Action on the (locked) history file.
+	 */
+	@FunctionalInterface
+	private interface IoAction {
+
+		/**
+		 * Runs the action.
+		 *
+		 * @param  channel     Append channel.
+		 * @throws IOException If the action fails.
+		 */
+		void run(
+				FileChannel channel) throws IOException;
+
+	}
+
+	/**
+	 * Reads the records from the history file (memory mapped).
+	 *
+	 * @param  file        History file.
+	 * @return             The records.
+	 * @throws IOException If the file cannot be read.
+	 */
+	private static List<Record> read(
+			final Path file) throws IOException {
+		final List<Record> records = new ArrayList<>();
+		if (Files.exists(file)) {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if ((buffer.remaining() >= Integer.BYTES) && (buffer.getInt() == TestHistoryStore.MAGIC)) {
+					// Stops at the first incomplete record (an interrupted write).
+					while (buffer.remaining() >= Integer.BYTES) {
+						final Integer length = buffer.getInt();
+						if ((length <= 0) || (length > buffer.remaining())) {
+							break;
+						}
+						final Long timestamp = buffer.getLong();
+						final Integer outcome = (int) buffer.get();
+						final Integer attempts = (int) buffer.getShort();
+						final Long duration = buffer.getLong();
+						final byte[] id = new byte[buffer.getShort() & 0xFFFF];
+						buffer.get(id);
+						if ((outcome >= 0) && (outcome < TestOutcome.values().length)) {
+							records.add(new Record(new String(id, StandardCharsets.UTF_8), timestamp, TestOutcome.values()[outcome], attempts, duration));
+						}
+					}
+				}
+				else {
+					TestHistoryStore.LOGGER.warn("Ignoring test history file '{}' with an unknown format.", file);
+				}
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Compacts the history file, keeping only the latest records of each test.
+	 *
+	 * @param  records     Records.
+	 * @throws IOException If the file cannot be compacted.
+	 */
+	private static void compact(
+			final List<Record> records) throws IOException {
+		final Map<String, Deque<Record>> latestRecords = new LinkedHashMap<>();
+		for (final Record record : records) {
+			final Deque<Record> testRecords = latestRecords.computeIfAbsent(record.testId(), testId -> new ArrayDeque<>());
+			testRecords.addLast(record);
+			if (testRecords.size() > TestHistoryStore.COMPACTED_RECORDS_PER_TEST) {
+				testRecords.removeFirst();
+			}
+		}
+		final Path file = TestHistoryStore.getFile();
+		final Path compactedFile = file.resolveSibling(file.getFileName() + ".compacted");
+		try (FileChannel channel = FileChannel.open(compactedFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(TestHistoryStore.MAGIC).flip());
+			for (final Record record : latestRecords.values().stream().flatMap(Deque::stream).sorted(Comparator.comparing(Record::timestamp)).toList()) {
+				channel.write(record.encode());
+			}
+		}
+		Files.move(compactedFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Gets the history of all tests (loaded once per JVM).
+	 *
+	 * @return The history of all tests.
+	 */
+	public static Map<String, TestHistory> getHistory() {
+		if (TestHistoryStore.HISTORY == null) {
+			synchronized (TestHistoryStore.class) {
+				if (TestHistoryStore.HISTORY == null) {
+					final Map<String, TestHistory> history = new ConcurrentHashMap<>();
+					try {
+						final Path file = TestHistoryStore.getFile();
+						final List<Record> records = TestHistoryStore.read(file);
+						for (final Record record : records) {
+							history.computeIfAbsent(record.testId(), TestHistory::new).record(record.timestamp(), record.outcome(), record.attempts(),
+									record.duration());
+						}
+						// Compacts the file if it is too big.
+						final String maxFileSize = System.getProperty(TestHistoryStore.MAX_FILE_SIZE_PROPERTY);
+						if (Files.exists(file) && (Files.size(file) > (NumberUtils.isParsable(maxFileSize) ? Long.parseLong(maxFileSize)
+								: TestHistoryStore.DEFAULT_MAX_FILE_SIZE))) {
+							TestHistoryStore.withLock(channel -> TestHistoryStore.compact(TestHistoryStore.read(file)));
+						}
+					}
+					catch (final Exception exception) {
+						TestHistoryStore.LOGGER.warn("Test history could not be read: " + exception.getLocalizedMessage());
+						TestHistoryStore.LOGGER.debug("Test history could not be read.", exception);
+					}
+					if (TestHistoryStore.REPORT_REGISTERED.compareAndSet(false, true)) {
+						Runtime.getRuntime().addShutdownHook(new Thread(TestHistoryStore::reportQuarantineCandidates, "test-history"));
+					}
+					TestHistoryStore.HISTORY = history;
+				}
+			}
+		}
+		return TestHistoryStore.HISTORY;
+	}
+
+	/**
+	 * Discards the loaded history, so it is read from the file again.
+	 */
+	public static void reload() {
+		synchronized (TestHistoryStore.class) {
+			TestHistoryStore.HISTORY = null;
+		}
+	}
+
+	/**
+	 * Gets the history of a test.
+	 *
+	 * @param  testId Test id.
+	 * @return        The history of the test (or null if it has never run).
+	 */
+	public static TestHistory getHistory(
+			final String testId) {
+		return TestHistoryStore.getHistory().get(testId);
+	}
+
+	/**
+	 * Records a test run.
+	 *
+	 * @param testId   Test id.
+	 * @param outcome  Outcome.
+	 * @param attempts Attempts.
+	 * @param duration Duration (milliseconds).
+	 */
+	public static void record(
+			final String testId,
+			final TestOutcome outcome,
+			final Integer attempts,
+			final Long duration) {
+		final Record record = new Record(testId, System.currentTimeMillis(), outcome, attempts, duration);
+		TestHistoryStore.getHistory().computeIfAbsent(testId, TestHistory::new).record(record.timestamp(), outcome, attempts, duration);
+		try {
+			TestHistoryStore.withLock(channel -> channel.write(record.encode()));
+		}
+		catch (final Exception exception) {
+			TestHistoryStore.LOGGER.warn("Test history could not be recorded for '{}': {}", testId, exception.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Gets the tests that are candidates for quarantine (flaky rate over the
+	 * threshold after the minimum runs).
+	 *
+	 * @return The quarantine candidates (most flaky first).
+	 */
+	public static List<TestHistory> getQuarantineCandidates() {
+		final String flakyRateProperty = System.getProperty(TestHistoryStore.QUARANTINE_FLAKY_RATE_PROPERTY);
+		final Double flakyRate = NumberUtils.isParsable(flakyRateProperty) ? Double.parseDouble(flakyRateProperty)
+				: TestHistoryStore.DEFAULT_QUARANTINE_FLAKY_RATE;
+		return TestHistoryStore.getHistory().values().stream()
+				.filter(history -> (history.getRuns() >= TestHistoryStore.getMinRuns()) && history.isFlaky() && (history.getFlakyRate() >= flakyRate))
+				.sorted(Comparator.comparing(TestHistory::getFlakyRate).reversed()).toList();
+	}
+
+	/**
+	 * Reports (logs) the quarantine candidates.
+	 */
+	public static void reportQuarantineCandidates() {
+		final List<TestHistory> candidates = TestHistoryStore.getQuarantineCandidates();
+		if (!candidates.isEmpty()) {
+			TestHistoryStore.LOGGER.warn("Flaky tests that are candidates for quarantine: {}", candidates);
+		}
+	}
+
+}
@@ -0,0 +1,35 @@
+package org.coldis.library.test;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jms.JmsAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jms.support.destination.DestinationResolver;
+
+/**
+ * Applies the fork address prefix to the JMS destinations of the context (used
+ * by the auto-configured JMS template and listener container factory) when
+ * containers are shared across forks.
+ */
+@AutoConfiguration(before = JmsAutoConfiguration.class)
+@ConditionalOnClass(DestinationResolver.class)
+@ConditionalOnProperty(
+		name = TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY,
+		havingValue = "true"
+)
+public class TestJmsAutoConfiguration {
+
+	/**
+	 * Fork prefixed destination resolver.
+	 *
+	 * @return The fork prefixed destination resolver.
+	 */
+	@Bean
+	@ConditionalOnMissingBean(DestinationResolver.class)
+	public DestinationResolver destinationResolver() {
+		return new TestJmsDestinationResolver();
+	}
+
+}
@@ -0,0 +1,68 @@
+package org.coldis.library.test;
+
+import org.springframework.jms.support.destination.DestinationResolver;
+import org.springframework.jms.support.destination.DynamicDestinationResolver;
+
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+
+/**
+ * Destination resolver that prefixes the destination names with the fork
+ * address prefix, so forks sharing one Artemis container do not consume each
+ * other messages.
+ */
+public class TestJmsDestinationResolver implements DestinationResolver {
+
+	/**
+	 * Destination resolver.
+	 */
+	private final DestinationResolver destinationResolver;
+
+	/**
+	 * Address prefix.
+	 */
+	private final String addressPrefix;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param destinationResolver Destination resolver.
+	 * @param addressPrefix       Address prefix.
+	 */
+	public TestJmsDestinationResolver(final DestinationResolver destinationResolver, final String addressPrefix) {
+		super();
+		this.destinationResolver = destinationResolver;
+		this.addressPrefix = addressPrefix;
+	}
+
+	/**
+	 * Default constructor (for the fork address prefix).
+	 */
+	public TestJmsDestinationResolver() {
+		this(new DynamicDestinationResolver(), TestForkTenancy.getArtemisAddressPrefix());
+	}
+
+	/**
+	 * Gets the prefixed destination name.
+	 *
+	 * @param  destinationName Destination name.
+	 * @return                 The prefixed destination name.
+	 */
+	public String getDestinationName(
+			final String destinationName) {
+		return (destinationName.startsWith(this.addressPrefix) ? destinationName : this.addressPrefix + destinationName);
+	}
+
+	/**
+	 * @see DestinationResolver#resolveDestinationName(Session, String, boolean)
+	 */
+	@Override
+	public Destination resolveDestinationName(
+			final Session session,
+			final String destinationName,
+			final boolean pubSubDomain) throws JMSException {
+		return this.destinationResolver.resolveDestinationName(session, this.getDestinationName(destinationName), pubSubDomain);
+	}
+
+}
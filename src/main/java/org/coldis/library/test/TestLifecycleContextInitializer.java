@@ -0,0 +1,63 @@
+package org.coldis.library.test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.test.context.ApplicationContextFailureProcessor;
+
+/**
+ * Times the Spring context refresh in the test lifecycle timeline (ending the
+ * span once the context is refreshed or fails to load).
+ */
+public class TestLifecycleContextInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext>, ApplicationContextFailureProcessor {
+
+	/**
+	 * Context refresh spans (by context).
+	 */
+	private static final Map<ApplicationContext, TestLifecycleSpan> SPANS = new ConcurrentHashMap<>();
+
+	/**
+	 * Ends the context refresh span (if any).
+	 *
+	 * @param applicationContext Application context.
+	 */
+	private static void endSpan(
+			final ApplicationContext applicationContext) {
+		final TestLifecycleSpan span = TestLifecycleContextInitializer.SPANS.remove(applicationContext);
+		if (span != null) {
+			span.close();
+		}
+	}
+
+	/**
+	 * @see org.springframework.context.ApplicationContextInitializer#initialize(org.springframework.context.ConfigurableApplicationContext)
+	 */
+	@Override
+	public void initialize(
+			final ConfigurableApplicationContext applicationContext) {
+		TestLifecycleContextInitializer.SPANS.put(applicationContext,
+				TestLifecycleTimeline.start(TestLifecycleTimeline.CONTEXT_REFRESH, applicationContext.getId()));
+		applicationContext.addApplicationListener((ApplicationListener<ContextRefreshedEvent>) event -> {
+			if (event.getApplicationContext() == applicationContext) {
+				TestLifecycleContextInitializer.endSpan(applicationContext);
+			}
+		});
+	}
+
+	/**
+	 * @see org.springframework.test.context.ApplicationContextFailureProcessor#processLoadFailure(org.springframework.context.ApplicationContext,
+	 *      java.lang.Throwable)
+	 */
+	@Override
+	public void processLoadFailure(
+			final ApplicationContext context,
+			final Throwable exception) {
+		TestLifecycleContextInitializer.endSpan(context);
+	}
+
+}
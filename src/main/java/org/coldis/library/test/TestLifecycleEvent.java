@@ -0,0 +1,36 @@
+package org.coldis.library.test;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Test lifecycle JDK Flight Recorder event.
+ */
+@Name("org.coldis.library.test.Lifecycle")
+@Label("Test Lifecycle")
+@Category({ "Coldis", "Test" })
+@Description("Test lifecycle phase (container start, context refresh, test, retry, wait).")
+public class TestLifecycleEvent extends Event {
+
+	/**
+	 * Phase.
+	 */
+	@Label("Phase")
+	public String phase;
+
+	/**
+	 * Subject (container, context, test...).
+	 */
+	@Label("Subject")
+	public String subject;
+
+	/**
+	 * Fork number.
+	 */
+	@Label("Fork")
+	public int fork;
+
+}
@@ -0,0 +1,155 @@
+package org.coldis.library.test;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Test lifecycle span (a timed phase).
+ */
+public class TestLifecycleSpan implements AutoCloseable {
+
+	/**
+	 * Phase.
+	 */
+	private final String phase;
+
+	/**
+	 * Subject.
+	 */
+	private final String subject;
+
+	/**
+	 * Thread name.
+	 */
+	private final String thread;
+
+	/**
+	 * Start (epoch milliseconds).
+	 */
+	private final Long start;
+
+	/**
+	 * Start (nanoseconds, for the duration).
+	 */
+	private final Long startNanos;
+
+	/**
+	 * Duration (milliseconds).
+	 */
+	private Long duration;
+
+	/**
+	 * JFR event.
+	 */
+	private final TestLifecycleEvent event;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param phase   Phase.
+	 * @param subject Subject.
+	 */
+	protected TestLifecycleSpan(final String phase, final String subject) {
+		super();
+		this.phase = phase;
+		this.subject = subject;
+		this.thread = Thread.currentThread().getName();
+		this.start = System.currentTimeMillis();
+		this.startNanos = System.nanoTime();
+		this.event = new TestLifecycleEvent();
+		this.event.begin();
+	}
+
+	/**
+	 * Ended span constructor (for phases timed as part of another one, only
+	 * recorded in the timeline).
+	 *
+	 * @param phase    Phase.
+	 * @param subject  Subject.
+	 * @param start    Start (epoch milliseconds).
+	 * @param duration Duration (milliseconds).
+	 */
+	protected TestLifecycleSpan(final String phase, final String subject, final Long start, final Long duration) {
+		super();
+		this.phase = phase;
+		this.subject = subject;
+		this.thread = Thread.currentThread().getName();
+		this.start = start;
+		this.startNanos = null;
+		this.duration = duration;
+		this.event = null;
+	}
+
+	/**
+	 * Gets the phase.
+	 *
+	 * @return The phase.
+	 */
+	public String getPhase() {
+		return this.phase;
+	}
+
+	/**
+	 * Gets the subject.
+	 *
+	 * @return The subject.
+	 */
+	public String getSubject() {
+		return this.subject;
+	}
+
+	/**
+	 * Gets the thread name.
+	 *
+	 * @return The thread name.
+	 */
+	public String getThread() {
+		return this.thread;
+	}
+
+	/**
+	 * Gets the start (epoch milliseconds).
+	 *
+	 * @return The start.
+	 */
+	public Long getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Gets the duration (milliseconds).
+	 *
+	 * @return The duration (null while the span is open).
+	 */
+	public Long getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Gets the end (epoch milliseconds).
+	 *
+	 * @return The end (null while the span is open).
+	 */
+	@JsonIgnore
+	public Long getEnd() {
+		return (this.duration == null ? null : this.start + this.duration);
+	}
+
+	/**
+	 * Ends the span (only the first call has effect).
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.duration == null) {
+			this.duration = (System.nanoTime() - this.startNanos) / 1_000_000;
+			this.event.end();
+			if (this.event.shouldCommit()) {
+				this.event.phase = this.phase;
+				this.event.subject = this.subject;
+				this.event.fork = TestLifecycleTimeline.FORK_NUMBER;
+				this.event.commit();
+			}
+			TestLifecycleTimeline.record(this);
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+package org.coldis.library.test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test lifecycle timeline. Times the lifecycle phases as JDK Flight Recorder
+ * events and, if enabled, writes a per-fork JSON timeline when the JVM exits
+ * (see {@link TestLifecycleTimelineMerger} to merge them).
+ */
+public class TestLifecycleTimeline {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestLifecycleTimeline.class);
+
+	/**
+	 * Image pull phase.
+	 */
+	public static final String IMAGE_PULL = "image-pull";
+
+	/**
+	 * Container create phase (until the container is created).
+	 */
+	public static final String CONTAINER_CREATE = "container-create";
+
+	/**
+	 * Container start phase (from its creation until its process runs).
+	 */
+	public static final String CONTAINER_START = "container-start";
+
+	/**
+	 * Container ready phase (readiness probe).
+	 */
+	public static final String CONTAINER_READY = "container-ready";
+
+	/**
+	 * Context refresh phase.
+	 */
+	public static final String CONTEXT_REFRESH = "context-refresh";
+
+	/**
+	 * Test phase.
+	 */
+	public static final String TEST = "test";
+
+	/**
+	 * Retry sleep phase.
+	 */
+	public static final String RETRY_SLEEP = "retry-sleep";
+
+	/**
+	 * Wait loop phase.
+	 */
+	public static final String WAIT_LOOP = "wait-loop";
+
+	/**
+	 * Enabled property (JSON timeline).
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.timeline-enabled";
+
+	/**
+	 * Directory property.
+	 */
+	public static final String DIRECTORY_PROPERTY = "project.config.source.test.timeline-directory";
+
+	/**
+	 * Default directory.
+	 */
+	public static final String DEFAULT_DIRECTORY = "target/test-timeline";
+
+	/**
+	 * Fork number.
+	 */
+	protected static final Integer FORK_NUMBER = TestHelper.getTestForkNumber();
+
+	/**
+	 * Spans.
+	 */
+	private static final Collection<TestLifecycleSpan> SPANS = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Container start in progress (in the current thread).
+	 */
+	private static class ContainerStart {
+
+		/**
+		 * Container name (field name).
+		 */
+		private final String name;
+
+		/**
+		 * Ready phase start (nanoseconds).
+		 */
+		private Long readyNanos;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param name Container name (field name).
+		 */
+		private ContainerStart(final String name) {
+			this.name = name;
+		}
+
+	}
+
+	/**
+	 * Container starts in progress (by thread).
+	 */
+	private static final ThreadLocal<ContainerStart> CONTAINER_STARTS = new ThreadLocal<>();
+
+	static {
+		if (TestLifecycleTimeline.isEnabled()) {
+			Runtime.getRuntime().addShutdownHook(new Thread(TestLifecycleTimeline::write, "test-lifecycle-timeline"));
+		}
+	}
+
+	/**
+	 * If the JSON timeline is enabled.
+	 *
+	 * @return If the JSON timeline is enabled.
+	 */
+	public static Boolean isEnabled() {
+		return Objects.equals(System.getProperty(TestLifecycleTimeline.ENABLED_PROPERTY), "true");
+	}
+
+	/**
+	 * Gets the timeline directory.
+	 *
+	 * @return The timeline directory.
+	 */
+	public static Path getDirectory() {
+		return Path.of(System.getProperty(TestLifecycleTimeline.DIRECTORY_PROPERTY, TestLifecycleTimeline.DEFAULT_DIRECTORY));
+	}
+
+	/**
+	 * Starts a span.
+	 *
+	 * @param  phase   Phase.
+	 * @param  subject Subject.
+	 * @return         The span (to be closed when the phase ends).
+	 */
+	public static TestLifecycleSpan start(
+			final String phase,
+			final String subject) {
+		return new TestLifecycleSpan(phase, subject);
+	}
+
+	/**
+	 * Gets the time between the container creation and its process start, as
+	 * reported by the daemon.
+	 *
+	 * @param  container Container.
+	 * @return           The time (milliseconds, or 0 if unknown).
+	 */
+	private static Long getDaemonStartDuration(
+			final GenericContainer<?> container) {
+		try {
+			final InspectContainerResponse containerInfo = container.getContainerInfo();
+			return Math.max(0L,
+					Duration.between(Instant.parse(containerInfo.getCreated()), Instant.parse(containerInfo.getState().getStartedAt())).toMillis());
+		}
+		catch (final Exception exception) {
+			return 0L;
+		}
+	}
+
+	/**
+	 * Times a container start as create, start and ready spans. The ready span is
+	 * timed by the readiness probe (see {@link #startContainerReady(String)});
+	 * create and start happen in a single Testcontainers call, so they are split
+	 * with the creation and start times reported by the daemon.
+	 *
+	 * @param  name      Container name (field name).
+	 * @param  container Container.
+	 * @param  starter   Container starter.
+	 * @throws Exception If the container does not start.
+	 */
+	public static void timeContainerStart(
+			final String name,
+			final GenericContainer<?> container,
+			final Callable<?> starter) throws Exception {
+		final ContainerStart containerStart = new ContainerStart(name);
+		final Long start = System.currentTimeMillis();
+		final Long startNanos = System.nanoTime();
+		TestLifecycleTimeline.CONTAINER_STARTS.set(containerStart);
+		try {
+			starter.call();
+		}
+		finally {
+			TestLifecycleTimeline.CONTAINER_STARTS.remove();
+			final Long createAndStartDuration = ((containerStart.readyNanos == null ? System.nanoTime() : containerStart.readyNanos) - startNanos)
+					/ 1_000_000;
+			final Long startDuration = Math.min(createAndStartDuration, TestLifecycleTimeline.getDaemonStartDuration(container));
+			TestLifecycleTimeline
+					.record(new TestLifecycleSpan(TestLifecycleTimeline.CONTAINER_CREATE, name, start, createAndStartDuration - startDuration));
+			TestLifecycleTimeline.record(
+					new TestLifecycleSpan(TestLifecycleTimeline.CONTAINER_START, name, start + createAndStartDuration - startDuration, startDuration));
+		}
+	}
+
+	/**
+	 * Starts a container ready span, ending the create and start phases of the
+	 * container being started in the current thread (if any).
+	 *
+	 * @param  subject Subject (if no container is being timed).
+	 * @return         The span (to be closed when the container is ready).
+	 */
+	public static TestLifecycleSpan startContainerReady(
+			final String subject) {
+		final ContainerStart containerStart = TestLifecycleTimeline.CONTAINER_STARTS.get();
+		if (containerStart != null) {
+			containerStart.readyNanos = System.nanoTime();
+		}
+		return TestLifecycleTimeline.start(TestLifecycleTimeline.CONTAINER_READY, (containerStart == null ? subject : containerStart.name));
+	}
+
+	/**
+	 * Records an ended span.
+	 *
+	 * @param span Span.
+	 */
+	protected static void record(
+			final TestLifecycleSpan span) {
+		if (TestLifecycleTimeline.isEnabled()) {
+			TestLifecycleTimeline.SPANS.add(span);
+		}
+	}
+
+	/**
+	 * Gets the recorded spans.
+	 *
+	 * @return The recorded spans.
+	 */
+	public static List<TestLifecycleSpan> getSpans() {
+		return new ArrayList<>(TestLifecycleTimeline.SPANS);
+	}
+
+	/**
+	 * Writes the fork timeline.
+	 */
+	public static void write() {
+		try {
+			final Path directory = TestLifecycleTimeline.getDirectory();
+			Files.createDirectories(directory);
+			final Path file = directory.resolve("fork-" + TestLifecycleTimeline.FORK_NUMBER + ".json");
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(),
+					Map.of("fork", TestLifecycleTimeline.FORK_NUMBER, "spans", TestLifecycleTimeline.getSpans()));
+			TestLifecycleTimeline.LOGGER.info("Test lifecycle timeline written to '{}'.", file);
+		}
+		catch (final Exception exception) {
+			TestLifecycleTimeline.LOGGER.error("Test lifecycle timeline could not be written: {}.", exception.getLocalizedMessage());
+		}
+	}
+
+}
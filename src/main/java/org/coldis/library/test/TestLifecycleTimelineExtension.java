@@ -0,0 +1,41 @@
+package org.coldis.library.test;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Times each test in the test lifecycle timeline.
+ */
+public class TestLifecycleTimelineExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	/**
+	 * Span store key.
+	 */
+	private static final String SPAN_KEY = "span";
+
+	/**
+	 * @see org.junit.jupiter.api.extension.BeforeTestExecutionCallback#beforeTestExecution(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public void beforeTestExecution(
+			final ExtensionContext context) throws Exception {
+		context.getStore(ExtensionContext.Namespace.create(TestLifecycleTimelineExtension.class, context.getUniqueId())).put(
+				TestLifecycleTimelineExtension.SPAN_KEY, TestLifecycleTimeline.start(TestLifecycleTimeline.TEST,
+						context.getRequiredTestClass().getName() + "." + context.getRequiredTestMethod().getName()));
+	}
+
+	/**
+	 * @see org.junit.jupiter.api.extension.AfterTestExecutionCallback#afterTestExecution(org.junit.jupiter.api.extension.ExtensionContext)
+	 */
+	@Override
+	public void afterTestExecution(
+			final ExtensionContext context) throws Exception {
+		final TestLifecycleSpan span = context.getStore(ExtensionContext.Namespace.create(TestLifecycleTimelineExtension.class, context.getUniqueId()))
+				.remove(TestLifecycleTimelineExtension.SPAN_KEY, TestLifecycleSpan.class);
+		if (span != null) {
+			span.close();
+		}
+	}
+
+}
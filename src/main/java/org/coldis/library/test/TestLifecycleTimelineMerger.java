@@ -0,0 +1,109 @@
+package org.coldis.library.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Merges the per-fork test lifecycle timelines into a single summary: wall time
+ * and time per phase for each fork, and the critical path (the slowest fork and
+ * its longest spans).
+ */
+public class TestLifecycleTimelineMerger {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestLifecycleTimelineMerger.class);
+
+	/**
+	 * Longest spans reported for the critical path.
+	 */
+	public static final Integer CRITICAL_PATH_SPANS = 20;
+
+	/**
+	 * Object mapper.
+	 */
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * Merges the fork timelines in a directory.
+	 *
+	 * @param  directory   Timeline directory.
+	 * @return             The summary.
+	 * @throws IOException If the timelines cannot be read.
+	 */
+	public static Map<String, Object> merge(
+			final Path directory) throws IOException {
+		final Map<String, Object> forks = new TreeMap<>();
+		String criticalFork = null;
+		Long criticalWallTime = -1L;
+		List<JsonNode> criticalSpans = List.of();
+		try (Stream<Path> files = Files.list(directory)) {
+			for (final Path file : files.filter(path -> path.getFileName().toString().matches("fork-.*\\.json")).toList()) {
+				final JsonNode timeline = TestLifecycleTimelineMerger.OBJECT_MAPPER.readTree(file.toFile());
+				final List<JsonNode> spans = new ArrayList<>();
+				timeline.path("spans").forEach(spans::add);
+				// Sums the time per phase and gets the fork wall time.
+				final Map<String, Long> phases = new TreeMap<>();
+				Long start = Long.MAX_VALUE;
+				Long end = Long.MIN_VALUE;
+				for (final JsonNode span : spans) {
+					phases.merge(span.path("phase").asText(), span.path("duration").asLong(), Long::sum);
+					start = Math.min(start, span.path("start").asLong());
+					end = Math.max(end, span.path("start").asLong() + span.path("duration").asLong());
+				}
+				final Long wallTime = (spans.isEmpty() ? 0L : end - start);
+				final String fork = timeline.path("fork").asText();
+				final Map<String, Object> forkSummary = new LinkedHashMap<>();
+				forkSummary.put("wallTime", wallTime);
+				forkSummary.put("phases", phases);
+				forks.put(fork, forkSummary);
+				if (wallTime > criticalWallTime) {
+					criticalFork = fork;
+					criticalWallTime = wallTime;
+					criticalSpans = spans;
+				}
+			}
+		}
+		// The critical path is the slowest fork (and its longest spans).
+		final Map<String, Object> criticalPath = new LinkedHashMap<>();
+		criticalPath.put("fork", criticalFork);
+		criticalPath.put("wallTime", criticalWallTime);
+		criticalPath.put("longestSpans", criticalSpans.stream().sorted(Comparator.comparingLong((
+				final JsonNode span) -> span.path("duration").asLong()).reversed()).limit(TestLifecycleTimelineMerger.CRITICAL_PATH_SPANS).toList());
+		final Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("forks", forks);
+		summary.put("criticalPath", criticalPath);
+		return summary;
+	}
+
+	/**
+	 * Merges the fork timelines and writes the summary to the timeline directory.
+	 *
+	 * @param  args        Timeline directory (optional).
+	 * @throws IOException If the timelines cannot be merged.
+	 */
+	public static void main(
+			final String[] args) throws IOException {
+		final Path directory = (args.length > 0 ? Path.of(args[0]) : TestLifecycleTimeline.getDirectory());
+		final Path summaryFile = directory.resolve("summary.json");
+		TestLifecycleTimelineMerger.OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(summaryFile.toFile(),
+				TestLifecycleTimelineMerger.merge(directory));
+		TestLifecycleTimelineMerger.LOGGER.info("Test lifecycle summary written to '{}'.", summaryFile);
+	}
+
+}
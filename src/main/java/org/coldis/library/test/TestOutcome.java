@@ -0,0 +1,23 @@
+package org.coldis.library.test;
+
+/**
+ * Test outcome.
+ */
+public enum TestOutcome {
+
+	/**
+	 * Passed (possibly after retrying).
+	 */
+	PASSED,
+
+	/**
+	 * Failed (after all attempts).
+	 */
+	FAILED,
+
+	/**
+	 * Aborted (or skipped).
+	 */
+	ABORTED
+
+}
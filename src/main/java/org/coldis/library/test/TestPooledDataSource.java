@@ -0,0 +1,33 @@
+package org.coldis.library.test;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Data source handed to a Spring context for a shared test connection pool.
+ * It has no close method, so closing the context does not close the pool (see
+ * {@link TestConnectionPools}).
+ */
+public class TestPooledDataSource extends DelegatingDataSource {
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pool Shared pool.
+	 */
+	public TestPooledDataSource(final HikariDataSource pool) {
+		super(pool);
+	}
+
+	/**
+	 * Gets the shared pool bean (statistics and eviction).
+	 *
+	 * @return The shared pool bean.
+	 */
+	public HikariPoolMXBean getHikariPoolMXBean() {
+		return ((HikariDataSource) this.obtainTargetDataSource()).getHikariPoolMXBean();
+	}
+
+}
@@ -0,0 +1,228 @@
+package org.coldis.library.test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test container resource budget. Splits the host resources (cores, memory from
+ * cgroup limits when present, and disk) across the forks and the declared
+ * containers, according to each container kind weight.
+ */
+public class TestResourceBudget {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestResourceBudget.class);
+
+	/**
+	 * Enabled property.
+	 */
+	public static final String ENABLED_PROPERTY = "project.config.source.test.container.resource-budget-enabled";
+
+	/**
+	 * Host fraction property (share of the host resources given to containers).
+	 */
+	public static final String HOST_FRACTION_PROPERTY = "project.config.source.test.container.resource-budget-fraction";
+
+	/**
+	 * Default host fraction.
+	 */
+	public static final Double DEFAULT_HOST_FRACTION = 0.75D;
+
+	/**
+	 * Declared container kinds property (comma separated, the containers running
+	 * at the same time in each fork).
+	 */
+	public static final String CONTAINERS_PROPERTY = "project.config.source.test.container.resource-budget-containers";
+
+	/**
+	 * Default declared container kinds.
+	 */
+	public static final String DEFAULT_CONTAINERS = "POSTGRES,ARTEMIS,REDIS";
+
+	/**
+	 * Weight property suffix (prefixed by the container kind).
+	 */
+	public static final String WEIGHT_PROPERTY_SUFFIX = "_RESOURCE_WEIGHT";
+
+	/**
+	 * Minimum memory (bytes).
+	 */
+	public static final Long MINIMUM_MEMORY = 256L * 1024L * 1024L;
+
+	/**
+	 * Minimum disk (bytes).
+	 */
+	public static final Long MINIMUM_DISK = 1024L * 1024L * 1024L;
+
+	/**
+	 * Cgroup v2 memory limit file.
+	 */
+	private static final Path CGROUP_V2_MEMORY_LIMIT = Path.of("/sys/fs/cgroup/memory.max");
+
+	/**
+	 * Cgroup v1 memory limit file.
+	 */
+	private static final Path CGROUP_V1_MEMORY_LIMIT = Path.of("/sys/fs/cgroup/memory/memory.limit_in_bytes");
+
+	/**
+	 * Docker data directory (for disk space).
+	 */
+	private static final File DOCKER_DATA_DIRECTORY = new File("/var/lib/docker");
+
+	/**
+	 * If the resource budget is enabled.
+	 *
+	 * @return If the resource budget is enabled.
+	 */
+	public static Boolean isEnabled() {
+		return Objects.equals(System.getProperty(TestResourceBudget.ENABLED_PROPERTY), "true");
+	}
+
+	/**
+	 * Gets the host fraction given to containers.
+	 *
+	 * @return The host fraction given to containers.
+	 */
+	public static Double getHostFraction() {
+		final String hostFraction = System.getProperty(TestResourceBudget.HOST_FRACTION_PROPERTY);
+		return (NumberUtils.isParsable(hostFraction) ? Double.parseDouble(hostFraction) : TestResourceBudget.DEFAULT_HOST_FRACTION);
+	}
+
+	/**
+	 * Gets the fork count (containers shared across forks count once).
+	 *
+	 * @return The fork count.
+	 */
+	public static Integer getForkCount() {
+		return (TestForkTenancy.isSharedAcrossForks() ? 1 : TestHelper.getTestForkCount());
+	}
+
+	/**
+	 * Gets the weight of a container kind.
+	 *
+	 * @param  kind Container kind.
+	 * @return      The weight.
+	 */
+	public static Double getWeight(
+			final TestContainerKind kind) {
+		final String weight = System.getProperty(kind.name() + TestResourceBudget.WEIGHT_PROPERTY_SUFFIX);
+		if (NumberUtils.isParsable(weight)) {
+			return Double.parseDouble(weight);
+		}
+		switch (kind) {
+			case POSTGRES:
+				return 4D;
+			case ARTEMIS:
+				return 3D;
+			case REDIS:
+				return 1D;
+			default:
+				return 2D;
+		}
+	}
+
+	/**
+	 * Gets the share of the host resources for one container of a kind.
+	 *
+	 * @param  kind Container kind.
+	 * @return      The share of the host resources.
+	 */
+	public static Double getShare(
+			final TestContainerKind kind) {
+		final Double totalWeight = Arrays
+				.stream(System.getProperty(TestResourceBudget.CONTAINERS_PROPERTY, TestResourceBudget.DEFAULT_CONTAINERS).split(","))
+				.map(String::trim).filter(StringUtils::isNotEmpty).map(TestContainerKind::valueOf).mapToDouble(TestResourceBudget::getWeight).sum();
+		return (TestResourceBudget.getHostFraction() * TestResourceBudget.getWeight(kind))
+				/ (Math.max(totalWeight, TestResourceBudget.getWeight(kind)) * TestResourceBudget.getForkCount());
+	}
+
+	/**
+	 * Gets the host memory (the cgroup limit when present).
+	 *
+	 * @return The host memory (bytes).
+	 */
+	public static Long getHostMemory() {
+		final Long physicalMemory = ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getTotalMemorySize();
+		for (final Path cgroupLimit : new Path[] { TestResourceBudget.CGROUP_V2_MEMORY_LIMIT, TestResourceBudget.CGROUP_V1_MEMORY_LIMIT }) {
+			try {
+				if (Files.isReadable(cgroupLimit)) {
+					final String limit = Files.readString(cgroupLimit).trim();
+					if (NumberUtils.isParsable(limit) && (Long.parseLong(limit) < physicalMemory)) {
+						return Long.parseLong(limit);
+					}
+				}
+			}
+			catch (final Exception exception) {
+				TestResourceBudget.LOGGER.debug("Cgroup memory limit '{}' could not be read: {}.", cgroupLimit, exception.getLocalizedMessage());
+			}
+		}
+		return physicalMemory;
+	}
+
+	/**
+	 * Gets the host usable disk space.
+	 *
+	 * @return The host usable disk space (bytes).
+	 */
+	public static Long getHostDisk() {
+		return (TestResourceBudget.DOCKER_DATA_DIRECTORY.exists() ? TestResourceBudget.DOCKER_DATA_DIRECTORY
+				: new File(System.getProperty("java.io.tmpdir"))).getUsableSpace();
+	}
+
+	/**
+	 * Gets the CPU quota for a container kind.
+	 *
+	 * @param  kind Container kind.
+	 * @return      The CPU quota.
+	 */
+	public static Long getCpuQuota(
+			final TestContainerKind kind) {
+		return Math.max(1L, Math.round(Runtime.getRuntime().availableProcessors() * TestResourceBudget.getShare(kind)));
+	}
+
+	/**
+	 * Gets the memory quota for a container kind.
+	 *
+	 * @param  kind Container kind.
+	 * @return      The memory quota (bytes).
+	 */
+	public static Long getMemoryQuota(
+			final TestContainerKind kind) {
+		return Math.max(TestResourceBudget.MINIMUM_MEMORY, Math.round(TestResourceBudget.getHostMemory() * TestResourceBudget.getShare(kind)));
+	}
+
+	/**
+	 * Gets the memory reservation quota for a container kind (a quarter of the
+	 * memory quota, as the defaults).
+	 *
+	 * @param  kind Container kind.
+	 * @return      The memory reservation quota (bytes).
+	 */
+	public static Long getMemoryReservationQuota(
+			final TestContainerKind kind) {
+		return TestResourceBudget.getMemoryQuota(kind) / 4;
+	}
+
+	/**
+	 * Gets the disk quota for a container kind.
+	 *
+	 * @param  kind Container kind.
+	 * @return      The disk quota (bytes).
+	 */
+	public static Long getDiskQuota(
+			final TestContainerKind kind) {
+		return Math.max(TestResourceBudget.MINIMUM_DISK, Math.round(TestResourceBudget.getHostDisk() * TestResourceBudget.getShare(kind)));
+	}
+
+}
@@ -6,15 +6,12 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-import org.springframework.test.annotation.DirtiesContext;
-
 /**
  * Test with container.
  */
 @Inherited
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
-@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 public @interface TestWithContainer {
 
 	/**
@@ -28,5 +25,71 @@ public @interface TestWithContainer {
 	 * Whether to reuse containers. Defaults to {@code true}.
 	 */
 	boolean reuse() default false;
-	
+
+	/**
+	 * Whether the Spring context should be cached (instead of dirtied after the
+	 * class) and shared by classes using the same containers. The containers (and
+	 * their mapped ports) become part of the context cache key, so a new context
+	 * is only created when a container is replaced. Defaults to {@code false}.
+	 *
+	 * @return if the Spring context should be cached.
+	 */
+	boolean cacheContext() default false;
+
+	/**
+	 * Whether containers should use the ephemeral (tmpfs, no durability)
+	 * profile. May also be enabled for every class with the
+	 * {@code project.config.source.test.container.ephemeral} system property.
+	 * Only applies to containers not created yet. Defaults to {@code false}.
+	 *
+	 * @return if containers should use the ephemeral profile.
+	 */
+	boolean ephemeral() default false;
+
+	/**
+	 * Whether containers should join a shared (user-defined) network, with an
+	 * alias derived from their field name, and be reached directly when the host
+	 * can route to it. May also be enabled for every class with the
+	 * {@code project.config.source.test.container.network} system property. Only
+	 * applies to containers not created yet. Defaults to {@code false}.
+	 *
+	 * @return if containers should join the shared network.
+	 */
+	boolean network() default false;
+
+	/**
+	 * Whether containers should only start on first use: when one of their
+	 * properties is resolved by Spring, when a container helper connects to them
+	 * or through {@link TestContainerLazyStart#getContainer(Class, String)}. May
+	 * also be enabled for every class with the
+	 * {@code project.config.source.test.container.lazy} system property. Defaults
+	 * to {@code false}.
+	 *
+	 * @return if containers should only start on first use.
+	 */
+	boolean lazy() default false;
+
+	/**
+	 * Whether containers should start in the background (in dependency order)
+	 * without blocking the class, so the Spring context bootstrap (scanning, bean
+	 * definitions, metamodel) overlaps with their startup. Beans resolving their
+	 * properties (and container helpers) wait for each container readiness, and
+	 * every container is ready before each test. May also be enabled for every
+	 * class with the {@code project.config.source.test.container.pipelined}
+	 * system property. Defaults to {@code false}.
+	 *
+	 * @return if containers should start in the background.
+	 */
+	boolean pipelined() default false;
+
+	/**
+	 * Whether each test class should get its own Redis logical database (other
+	 * than the fork database), published as the {@code <field>_DATABASE}
+	 * property of the class Spring context and flushed after the class. Not available when containers are
+	 * shared across forks. Defaults to {@code false}.
+	 *
+	 * @return if each test class should get its own Redis logical database.
+	 */
+	boolean redisDatabasePerClass() default false;
+
 }
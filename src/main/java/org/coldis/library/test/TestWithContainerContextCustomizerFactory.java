@@ -0,0 +1,113 @@
+package org.coldis.library.test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Adds the test containers (and their mapped ports) to the Spring context cache
+ * key of classes with {@link TestWithContainer#cacheContext()} enabled, so
+ * classes sharing the same containers share the same context.
+ */
+public class TestWithContainerContextCustomizerFactory implements ContextCustomizerFactory {
+
+	/**
+	 * Context customizer whose identity is the container set.
+	 */
+	public static class TestWithContainerContextCustomizer implements ContextCustomizer {
+
+		/**
+		 * Container set key (by field name).
+		 */
+		private final TreeMap<String, String> containers;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param containers Container set key (by field name).
+		 */
+		public TestWithContainerContextCustomizer(final TreeMap<String, String> containers) {
+			super();
+			this.containers = containers;
+		}
+
+		/**
+		 * @see org.springframework.test.context.ContextCustomizer#customizeContext(org.springframework.context.ConfigurableApplicationContext,
+		 *      org.springframework.test.context.MergedContextConfiguration)
+		 */
+		@Override
+		public void customizeContext(
+				final ConfigurableApplicationContext context,
+				final MergedContextConfiguration mergedConfig) {
+			// The customizer only takes part in the context cache key.
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.containers);
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(
+				final Object obj) {
+			return (obj instanceof TestWithContainerContextCustomizer) && Objects.equals(this.containers, ((TestWithContainerContextCustomizer) obj).containers);
+		}
+
+	}
+
+	/**
+	 * Gets the container key (identity, id and mapped ports).
+	 *
+	 * @param  container Container.
+	 * @return           The container key.
+	 */
+	public static String getContainerKey(
+			final GenericContainer<?> container) {
+		final StringBuilder key = new StringBuilder(Integer.toHexString(System.identityHashCode(container)));
+		if (container.isRunning()) {
+			key.append(':').append(container.getContainerId());
+			container.getExposedPorts().forEach(exposedPort -> key.append(':').append(exposedPort).append('=').append(container.getMappedPort(exposedPort)));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @see org.springframework.test.context.ContextCustomizerFactory#createContextCustomizer(java.lang.Class,
+	 *      java.util.List)
+	 */
+	@Override
+	public ContextCustomizer createContextCustomizer(
+			final Class<?> testClass,
+			final List<ContextConfigurationAttributes> configAttributes) {
+		if (TestWithContainerExtensionHelper.shouldCacheContext(testClass)) {
+			final TreeMap<String, String> containers = new TreeMap<>();
+			for (final Field field : TestWithContainerExtensionHelper.getContainersFieldsFromTests(testClass)) {
+				try {
+					// Containers started in the background take part in the key once ready.
+					TestContainerLazyStart.getReadiness(testClass, field.getName()).join();
+					containers.put(field.getName(), TestWithContainerContextCustomizerFactory.getContainerKey((GenericContainer<?>) field.get(null)));
+				}
+				catch (final IllegalAccessException exception) {
+					throw new IllegalStateException(exception);
+				}
+			}
+			return new TestWithContainerContextCustomizer(containers);
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,90 @@
+package org.coldis.library.test;
+
+import java.lang.reflect.Field;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Dirties the Spring context after each {@link SpringTestHelper} or
+ * {@link TestWithContainer} class, unless
+ * {@link TestWithContainer#cacheContext()} is enabled and the class containers
+ * are still running. Cached contexts are evicted (closed) when one of their
+ * containers is actually stopped (by the reaper or another class), so they do
+ * not keep connections to a dead container.
+ */
+public class TestWithContainerContextTestExecutionListener extends AbstractTestExecutionListener {
+
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(TestWithContainerContextTestExecutionListener.class);
+
+	/**
+	 * Order (right after the default dirties context listener).
+	 */
+	public static final Integer ORDER = 3100;
+
+	/**
+	 * @see org.springframework.test.context.support.AbstractTestExecutionListener#getOrder()
+	 */
+	@Override
+	public int getOrder() {
+		return TestWithContainerContextTestExecutionListener.ORDER;
+	}
+
+	/**
+	 * If the containers of the class have all been kept running.
+	 *
+	 * @param  testClass Test class.
+	 * @return           If the containers of the class have all been kept running.
+	 */
+	private static Boolean containersStillRunning(
+			final Class<?> testClass) {
+		for (final Field field : TestWithContainerExtensionHelper.getContainersFieldsFromTests(testClass)) {
+			try {
+				final GenericContainer<?> container = (GenericContainer<?>) field.get(null);
+				if (!container.isRunning()) {
+					return false;
+				}
+			}
+			catch (final IllegalAccessException exception) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @see org.springframework.test.context.support.AbstractTestExecutionListener#afterTestClass(org.springframework.test.context.TestContext)
+	 */
+	@Override
+	public void afterTestClass(
+			final TestContext testContext) throws Exception {
+		final Class<?> testClass = testContext.getTestClass();
+		if (SpringTestHelper.class.isAssignableFrom(testClass) || (testClass.getAnnotation(TestWithContainer.class) != null)) {
+			if (!TestWithContainerExtensionHelper.shouldCacheContext(testClass) || !TestWithContainerContextTestExecutionListener.containersStillRunning(testClass)) {
+				testContext.markApplicationContextDirty(HierarchyMode.EXHAUSTIVE);
+				testContext.setAttribute(DependencyInjectionTestExecutionListener.REINJECT_DEPENDENCIES_ATTRIBUTE, Boolean.TRUE);
+			}
+			else {
+				TestWithContainerContextTestExecutionListener.LOGGER.debug("Spring context kept cached after class '{}'.", testClass.getSimpleName());
+				// Evicts the cached context once a container it is connected to stops.
+				final Object applicationContext = testContext.getApplicationContext();
+				for (final Field field : TestWithContainerExtensionHelper.getContainersFieldsFromTests(testClass)) {
+					TestContainerRegistry.getRegistration((GenericContainer<?>) field.get(null)).addStopCallback(applicationContext, () -> {
+						TestWithContainerContextTestExecutionListener.LOGGER.info("Cached Spring context of class '{}' evicted as its container '{}' stops.",
+								testClass.getSimpleName(), field.getName());
+						testContext.markApplicationContextDirty(HierarchyMode.EXHAUSTIVE);
+					});
+				}
+			}
+		}
+	}
+
+}
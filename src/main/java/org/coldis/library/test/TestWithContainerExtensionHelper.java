@@ -3,7 +3,9 @@ package org.coldis.library.test;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.jupiter.api.extension.ExtensionContext;
@@ -21,6 +23,76 @@ public class TestWithContainerExtensionHelper {
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(TestWithContainerExtensionHelper.class);
 
+	/**
+	 * Extension store namespace.
+	 */
+	public static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TestWithContainerExtensionHelper.class);
+
+	/**
+	 * Container leases store key.
+	 */
+	private static final String LEASES_KEY = "leases";
+
+	/**
+	 * Containers readiness store key.
+	 */
+	private static final String READINESS_KEY = "readiness";
+
+	/**
+	 * Stores the container leases held by a test class.
+	 *
+	 * @param context Test context.
+	 * @param leases  Container leases.
+	 */
+	public static void storeLeases(
+			final ExtensionContext context,
+			final Collection<TestContainerLease> leases) {
+		context.getStore(TestWithContainerExtensionHelper.NAMESPACE).put(TestWithContainerExtensionHelper.LEASES_KEY, new ArrayList<>(leases));
+	}
+
+	/**
+	 * Removes the container leases held by a test class.
+	 *
+	 * @param  context Test context.
+	 * @return         The container leases (empty if none).
+	 */
+	@SuppressWarnings("unchecked")
+	public static Collection<TestContainerLease> removeLeases(
+			final ExtensionContext context) {
+		final Collection<TestContainerLease> leases = context.getStore(TestWithContainerExtensionHelper.NAMESPACE)
+				.remove(TestWithContainerExtensionHelper.LEASES_KEY, Collection.class);
+		return (leases == null ? List.of() : leases);
+	}
+
+	/**
+	 * Stores the readiness of the containers started in the background for a
+	 * test class.
+	 *
+	 * @param context   Test context.
+	 * @param readiness Containers readiness.
+	 */
+	public static void storeReadiness(
+			final ExtensionContext context,
+			final CompletableFuture<Void> readiness) {
+		context.getStore(TestWithContainerExtensionHelper.NAMESPACE).put(TestWithContainerExtensionHelper.READINESS_KEY, readiness);
+	}
+
+	/**
+	 * Waits for the containers started in the background for a test class (if
+	 * any) to be ready.
+	 *
+	 * @param context Test context.
+	 */
+	public static void awaitReadiness(
+			final ExtensionContext context) {
+		@SuppressWarnings("unchecked")
+		final CompletableFuture<Void> readiness = context.getStore(TestWithContainerExtensionHelper.NAMESPACE)
+				.get(TestWithContainerExtensionHelper.READINESS_KEY, CompletableFuture.class);
+		if (readiness != null) {
+			readiness.join();
+		}
+	}
+
 	/**
 	 * Gets the containers from tests.
 	 *
@@ -29,8 +101,19 @@ public class TestWithContainerExtensionHelper {
 	 */
 	public static Collection<Field> getContainersFieldsFromTests(
 			final ExtensionContext context) {
+		return TestWithContainerExtensionHelper.getContainersFieldsFromTests(context.getTestClass().get());
+	}
+
+	/**
+	 * Gets the containers from tests.
+	 *
+	 * @param  testClass Test class.
+	 * @return           The container fields.
+	 */
+	public static Collection<Field> getContainersFieldsFromTests(
+			final Class<?> testClass) {
 		final Collection<Field> containersFields = new ArrayList<>();
-		for (final Field field : FieldUtils.getAllFieldsList(context.getTestClass().get())) {
+		for (final Field field : FieldUtils.getAllFieldsList(testClass)) {
 			if (!Objects.equals(TestHelper.class, field.getDeclaringClass())) {
 				if (java.lang.reflect.Modifier.isStatic(field.getModifiers())) {
 					if (field.getType().equals(GenericContainer.class)) {
@@ -45,38 +128,133 @@ public class TestWithContainerExtensionHelper {
 	/**
 	 * Starts the test container.
 	 *
-	 * @param field Container field.
+	 * @param testClass Test class.
+	 * @param field     Container field.
 	 */
 	public static void startTestContainer(
 			final Class<?> testClass,
 			final Field field) {
 		try {
-			TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' starting for class '{}'.", field.getName(), testClass.getSimpleName());
-			final GenericContainer<?> container = (GenericContainer<?>) field.get(null);
-			container.start();
-			// Sets the container ports as system properties.
-			container.getExposedPorts().forEach((
-					exposedPort) -> {
-				final Integer mappedPort = container.getMappedPort(exposedPort);
-				final String mappedPortPropertyName = field.getName() + "_" + exposedPort;
-				System.setProperty(mappedPortPropertyName, mappedPort.toString());
-				TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' for class '{}' setting {}={}", field.getName(), testClass.getSimpleName(),
-						mappedPortPropertyName, mappedPort.toString());
+			TestWithContainerExtensionHelper.startTestContainer(testClass, field.getName(), (GenericContainer<?>) field.get(null));
+		}
+		catch (final IllegalAccessException exception) {
+			TestWithContainerExtensionHelper.LOGGER.error("Test container '{}' could not be read for class '{}': {}.", field.getName(),
+					testClass.getSimpleName(), exception.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Starts the test container.
+	 *
+	 * @param testClass Test class.
+	 * @param name      Container name (field name).
+	 * @param container Container.
+	 */
+	public static void startTestContainer(
+			final Class<?> testClass,
+			final String name,
+			final GenericContainer<?> container) {
+		try {
+			TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' starting for class '{}'.", name, testClass.getSimpleName());
+			// Pulls the image (if needed).
+			try (TestLifecycleSpan span = TestLifecycleTimeline.start(TestLifecycleTimeline.IMAGE_PULL, name)) {
+				TestContainerImagePuller.prepare(container);
+				container.getDockerImageName();
+			}
+			// Applies the profile (which may inspect the image) and network before the container is created.
+			final Boolean ephemeral = TestContainerProfile.isEphemeral(testClass) && (container.getContainerId() == null);
+			if (ephemeral) {
+				TestContainerProfile.applyEphemeral(container);
+			}
+			if (TestContainerNetwork.isEnabled(testClass)) {
+				TestContainerNetwork.apply(container, name);
+			}
+			TestLifecycleTimeline.timeContainerStart(name, container, () -> {
+				TestForkTenancy.startContainer(container);
+				return null;
 			});
-			// Sets the container host as system property.
-			final String containerIpAddressEnv = field.getName() + "_IP";
-			final String containerIpAddress = container.getContainerInfo().getNetworkSettings().getIpAddress();
-			System.setProperty(containerIpAddressEnv, containerIpAddress);
-			TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' for class '{}' setting {}={}", field.getName(), testClass.getSimpleName(),
-					containerIpAddressEnv, containerIpAddress);
+			if (ephemeral && container.isRunning()) {
+				TestContainerProfile.applyEphemeralSettings(container);
+			}
+			TestWithContainerExtensionHelper.publishTestContainerProperties(testClass, name, container);
 		}
 		catch (final Exception exception) {
-			TestWithContainerExtensionHelper.LOGGER.error("Test container '{}' did not start for class '{}': {}.", field.getName(), testClass.getSimpleName(),
+			TestWithContainerExtensionHelper.LOGGER.error("Test container '{}' did not start for class '{}': {}.", name, testClass.getSimpleName(),
 					exception.getLocalizedMessage());
 			TestWithContainerExtensionHelper.LOGGER.debug("Error starting container.", exception);
 		}
 	}
 
+	/**
+	 * Publishes the test container ports and IP as system properties (named after
+	 * the container field).
+	 *
+	 * @param testClass Test class.
+	 * @param field     Container field.
+	 */
+	public static void publishTestContainerProperties(
+			final Class<?> testClass,
+			final Field field) {
+		try {
+			TestWithContainerExtensionHelper.publishTestContainerProperties(testClass, field.getName(), (GenericContainer<?>) field.get(null));
+		}
+		catch (final IllegalAccessException exception) {
+			TestWithContainerExtensionHelper.LOGGER.error("Test container '{}' could not be read for class '{}': {}.", field.getName(),
+					testClass.getSimpleName(), exception.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Publishes the test container ports and IP as system properties (named after
+	 * the container).
+	 *
+	 * @param testClass Test class.
+	 * @param name      Container name (field name).
+	 * @param container Container.
+	 */
+	public static void publishTestContainerProperties(
+			final Class<?> testClass,
+			final String name,
+			final GenericContainer<?> container) {
+		try {
+			if (container.isRunning()) {
+				// Sets the container ports as system properties.
+				container.getExposedPorts().forEach((
+						exposedPort) -> {
+					final Integer mappedPort = container.getMappedPort(exposedPort);
+					final String mappedPortPropertyName = name + "_" + exposedPort;
+					System.setProperty(mappedPortPropertyName, mappedPort.toString());
+					TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' for class '{}' setting {}={}", name, testClass.getSimpleName(),
+							mappedPortPropertyName, mappedPort.toString());
+				});
+				// Sets the container host as system property.
+				final String containerIpAddressEnv = name + "_IP";
+				final String containerIpAddress = TestContainerNetwork.getIpAddress(container);
+				System.setProperty(containerIpAddressEnv, containerIpAddress);
+				TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' for class '{}' setting {}={}", name, testClass.getSimpleName(),
+						containerIpAddressEnv, containerIpAddress);
+				// Sets the host (and ports) to connect to the container (directly, if
+				// possible) and its alias on the shared network as system properties.
+				final String containerHostEnv = name + TestContainerNetwork.HOST_PROPERTY_SUFFIX;
+				System.setProperty(containerHostEnv, TestContainerNetwork.getHost(container));
+				container.getExposedPorts().forEach(exposedPort -> System.setProperty(containerHostEnv + "_" + exposedPort,
+						TestContainerNetwork.getPort(container, exposedPort).toString()));
+				TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' for class '{}' setting {}={}", name, testClass.getSimpleName(),
+						containerHostEnv, System.getProperty(containerHostEnv));
+				if (TestContainerNetwork.isOnSharedNetwork(container)) {
+					System.setProperty(name + TestContainerNetwork.ALIAS_PROPERTY_SUFFIX, TestContainerNetwork.getAlias(name));
+				}
+				// Sets the fork tenant (database, address prefix) as system properties.
+				TestForkTenancy.prepareTenant(name, container);
+			}
+		}
+		catch (final Exception exception) {
+			TestWithContainerExtensionHelper.LOGGER.error("Test container '{}' properties not set for class '{}': {}.", name,
+					testClass.getSimpleName(), exception.getLocalizedMessage());
+			TestWithContainerExtensionHelper.LOGGER.debug("Error setting container properties.", exception);
+		}
+	}
+
 	/**
 	 * If test containers should be started in parallel.
 	 *
@@ -99,6 +277,17 @@ public class TestWithContainerExtensionHelper {
 		return (testClass.getAnnotation(TestWithContainer.class) != null) && testClass.getAnnotation(TestWithContainer.class).reuse();
 	}
 
+	/**
+	 * If the Spring context should be cached for the test class.
+	 *
+	 * @param  testClass Test class.
+	 * @return           If the Spring context should be cached.
+	 */
+	public static Boolean shouldCacheContext(
+			final Class<?> testClass) {
+		return (testClass.getAnnotation(TestWithContainer.class) != null) && testClass.getAnnotation(TestWithContainer.class).cacheContext();
+	}
+
 	/**
 	 * Stops the test container.
 	 *
@@ -107,7 +296,31 @@ public class TestWithContainerExtensionHelper {
 	public static void stopTestContainer(
 			final Field field) {
 		try {
-			final GenericContainer<?> container = (GenericContainer<?>) field.get(null);
+			TestWithContainerExtensionHelper.stopTestContainer((GenericContainer<?>) field.get(null));
+		}
+		catch (final Exception exception) {
+			TestWithContainerExtensionHelper.LOGGER.error("Error stopping container.", exception);
+		}
+	}
+
+	/**
+	 * Stops the test container.
+	 *
+	 * @param container Container.
+	 */
+	public static void stopTestContainer(
+			final GenericContainer<?> container) {
+		try {
+			// Containers shared across forks may still be in use by other JVMs.
+			if (TestForkTenancy.isSharedAcrossForks()) {
+				TestWithContainerExtensionHelper.LOGGER.info("Test container '{}' not stopping as it is shared across forks.", container.getDockerImageName());
+				return;
+			}
+			// Closes the shared connection pools (checking the property directly, as
+			// HikariCP is optional).
+			if (Objects.equals(System.getProperty(TestConnectionPools.ENABLED_PROPERTY), "true")) {
+				TestConnectionPools.close(container);
+			}
 			container.stop();
 			container.close();
 		}
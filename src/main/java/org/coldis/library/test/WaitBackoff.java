@@ -0,0 +1,99 @@
+package org.coldis.library.test;
+
+/**
+ * Backoff policy used while waiting for a valid state.
+ */
+public class WaitBackoff {
+
+	/**
+	 * Default number of tight spins before the first actual wait.
+	 */
+	public static final Integer DEFAULT_SPINS = 3;
+
+	/**
+	 * Default initial delay (milliseconds).
+	 */
+	public static final Long DEFAULT_INITIAL_DELAY = 1L;
+
+	/**
+	 * Default delay multiplier.
+	 */
+	public static final Double DEFAULT_MULTIPLIER = 2D;
+
+	/**
+	 * Number of tight spins before the first actual wait.
+	 */
+	private final Integer spins;
+
+	/**
+	 * Initial delay (milliseconds).
+	 */
+	private final Long initialDelay;
+
+	/**
+	 * Delay multiplier.
+	 */
+	private final Double multiplier;
+
+	/**
+	 * Maximum delay (milliseconds).
+	 */
+	private final Long maxDelay;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param spins        Number of tight spins before the first actual wait.
+	 * @param initialDelay Initial delay (milliseconds).
+	 * @param multiplier   Delay multiplier.
+	 * @param maxDelay     Maximum delay (milliseconds).
+	 */
+	public WaitBackoff(final Integer spins, final Long initialDelay, final Double multiplier, final Long maxDelay) {
+		super();
+		this.spins = Math.max(0, spins);
+		this.initialDelay = Math.max(0L, initialDelay);
+		this.multiplier = Math.max(1D, multiplier);
+		this.maxDelay = Math.max(this.initialDelay, maxDelay);
+	}
+
+	/**
+	 * Creates a fixed backoff (no spins, always the same delay).
+	 *
+	 * @param  delay Delay (milliseconds).
+	 * @return       The fixed backoff.
+	 */
+	public static WaitBackoff fixed(
+			final Integer delay) {
+		return new WaitBackoff(0, delay.longValue(), 1D, delay.longValue());
+	}
+
+	/**
+	 * Creates an adaptive backoff (a few tight spins, then exponential growth up
+	 * to the maximum delay).
+	 *
+	 * @param  maxDelay Maximum delay (milliseconds).
+	 * @return          The adaptive backoff.
+	 */
+	public static WaitBackoff adaptive(
+			final Integer maxDelay) {
+		return new WaitBackoff(WaitBackoff.DEFAULT_SPINS, WaitBackoff.DEFAULT_INITIAL_DELAY, WaitBackoff.DEFAULT_MULTIPLIER, maxDelay.longValue());
+	}
+
+	/**
+	 * Gets the delay before the next verification.
+	 *
+	 * @param  attempt Number of failed verifications so far (starting at 0).
+	 * @return         The delay (milliseconds). Zero means a tight spin.
+	 */
+	public Long getDelay(
+			final Integer attempt) {
+		// Spins first.
+		if (attempt < this.spins) {
+			return 0L;
+		}
+		// Then grows the delay exponentially up to the maximum delay.
+		final Double delay = this.initialDelay * Math.pow(this.multiplier, attempt - this.spins);
+		return (delay >= this.maxDelay ? this.maxDelay : delay.longValue());
+	}
+
+}
@@ -0,0 +1,76 @@
+package org.coldis.library.test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Wake-up signal that producers may use to notify threads waiting for a valid
+ * state, so they verify it again immediately instead of waiting for the next
+ * poll.
+ */
+public class WaitSignal {
+
+	/**
+	 * Lock.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Signalled condition.
+	 */
+	private final Condition signalled = this.lock.newCondition();
+
+	/**
+	 * Signal version (incremented on each signal).
+	 */
+	private volatile long version;
+
+	/**
+	 * Gets the current signal version.
+	 *
+	 * @return The current signal version.
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Wakes up every waiting thread.
+	 */
+	public void signal() {
+		this.lock.lock();
+		try {
+			this.version++;
+			this.signalled.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until the signal version changes or the timeout elapses.
+	 *
+	 * @param  lastVersion          Version seen before the last verification.
+	 * @param  timeout              Maximum time to wait (milliseconds).
+	 * @return                      If the signal has been triggered.
+	 * @throws InterruptedException If the thread is interrupted.
+	 */
+	public boolean await(
+			final long lastVersion,
+			final long timeout) throws InterruptedException {
+		long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+		this.lock.lock();
+		try {
+			while ((this.version == lastVersion) && (remaining > 0)) {
+				remaining = this.signalled.awaitNanos(remaining);
+			}
+			return this.version != lastVersion;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.RedisTestClient;
+import org.coldis.library.test.RedisTestContainerHelper;
+import org.coldis.library.test.StartTestWithContainerExtension;
+import org.coldis.library.test.StopTestWithContainerExtension;
+import org.coldis.library.test.TestContainerLazyStart;
+import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.TestWithContainer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Lazy container start test.
+ */
+@TestWithContainer(lazy = true)
+@ExtendWith(value = { StartTestWithContainerExtension.class })
+@ExtendWith(value = { StopTestWithContainerExtension.class })
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ContainerLazyStartTest {
+
+	/**
+	 * Redis container (only used by this class).
+	 */
+	public static GenericContainer<?> LAZY_REDIS_CONTAINER = TestHelper.createRedisContainer(false);
+
+	/**
+	 * Other class container (with the same field name).
+	 */
+	public static class OtherContainerHolder {
+
+		/**
+		 * Redis container (with the same field name as this class).
+		 */
+		public static GenericContainer<?> LAZY_REDIS_CONTAINER = TestHelper.createRedisContainer(false);
+
+	}
+
+	/**
+	 * Tests the container only starts when its property is resolved.
+	 */
+	@Test
+	@Order(1)
+	public void testStartOnPropertyResolution() throws Exception {
+		Assertions.assertFalse(ContainerLazyStartTest.LAZY_REDIS_CONTAINER.isRunning());
+		final String mappedPort = TestContainerLazyStart.resolveProperty("LAZY_REDIS_CONTAINER_6379");
+		Assertions.assertTrue(ContainerLazyStartTest.LAZY_REDIS_CONTAINER.isRunning());
+		Assertions.assertEquals(ContainerLazyStartTest.LAZY_REDIS_CONTAINER.getMappedPort(6379).toString(), mappedPort);
+		try (RedisTestClient client = RedisTestContainerHelper.getClient(ContainerLazyStartTest.LAZY_REDIS_CONTAINER)) {
+			Assertions.assertEquals("PONG", client.execute("PING"));
+		}
+	}
+
+	/**
+	 * Tests deferred containers with the same field name in different classes
+	 * are kept apart.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	@Order(2)
+	public void testSameFieldNameInDifferentClasses() throws Exception {
+		try {
+			TestContainerLazyStart.register(OtherContainerHolder.class, OtherContainerHolder.class.getField("LAZY_REDIS_CONTAINER"));
+			Assertions.assertSame(ContainerLazyStartTest.LAZY_REDIS_CONTAINER,
+					TestContainerLazyStart.getContainer(ContainerLazyStartTest.class, "LAZY_REDIS_CONTAINER"));
+			Assertions.assertFalse(OtherContainerHolder.LAZY_REDIS_CONTAINER.isRunning());
+			// Unregistering the other class keeps the container of this class.
+			TestContainerLazyStart.unregister(OtherContainerHolder.class);
+			Assertions.assertNull(TestContainerLazyStart.getContainer(OtherContainerHolder.class, "LAZY_REDIS_CONTAINER"));
+			Assertions.assertSame(ContainerLazyStartTest.LAZY_REDIS_CONTAINER, TestContainerLazyStart.getContainer("LAZY_REDIS_CONTAINER"));
+		}
+		finally {
+			TestContainerLazyStart.unregister(OtherContainerHolder.class);
+		}
+	}
+
+}
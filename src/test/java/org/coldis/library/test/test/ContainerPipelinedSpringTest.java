@@ -0,0 +1,120 @@
+package org.coldis.library.test.test;
+
+import java.sql.Connection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.coldis.library.test.StartTestWithContainerExtension;
+import org.coldis.library.test.StopTestWithContainerExtension;
+import org.coldis.library.test.TestContainerLazyStart;
+import org.coldis.library.test.TestContainerNetwork;
+import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.TestWithContainer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Pipelined container start test (with a Spring context).
+ */
+@TestWithContainer(pipelined = true)
+@ExtendWith(value = { StartTestWithContainerExtension.class })
+@SpringBootTest(classes = SpringTestApplication.class)
+@Import(ContainerPipelinedSpringTest.BootstrapConfiguration.class)
+@ExtendWith(value = { StopTestWithContainerExtension.class })
+public class ContainerPipelinedSpringTest {
+
+	/**
+	 * Context bootstrap gate (the Postgres container is only created once the
+	 * context bootstrap has started).
+	 */
+	private static final CountDownLatch BOOTSTRAP_GATE = new CountDownLatch(1);
+
+	/**
+	 * Postgres container (only used by this class, and held back until the
+	 * context bootstrap starts, so it is not ready yet at that point).
+	 */
+	public static GenericContainer<?> POSTGRES_CONTAINER = TestHelper.createPostgresContainer().withCreateContainerCmdModifier(command -> {
+		try {
+			// Does not wait forever if the bootstrap configuration is not loaded (the test then fails).
+			ContainerPipelinedSpringTest.BOOTSTRAP_GATE.await(TestHelper.LONG_WAIT, TimeUnit.MILLISECONDS);
+		}
+		catch (final InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	});
+
+	/**
+	 * Artemis container.
+	 */
+	public static GenericContainer<?> ARTEMIS_CONTAINER = TestHelper.getArtemisContainer();
+
+	/**
+	 * Redis container.
+	 */
+	public static GenericContainer<?> REDIS_CONTAINER = TestHelper.getRedisContainer();
+
+	/**
+	 * If the Postgres container was ready when the context bootstrap started.
+	 */
+	private static Boolean POSTGRES_READY_ON_BOOTSTRAP;
+
+	/**
+	 * Records the Postgres container readiness when the context bootstrap starts
+	 * (before any bean is created) and then lets the container start.
+	 */
+	@TestConfiguration
+	public static class BootstrapConfiguration {
+
+		/**
+		 * Bootstrap readiness recorder.
+		 *
+		 * @return The bootstrap readiness recorder.
+		 */
+		@Bean
+		public static BeanFactoryPostProcessor bootstrapReadinessRecorder() {
+			return beanFactory -> {
+				ContainerPipelinedSpringTest.POSTGRES_READY_ON_BOOTSTRAP = TestContainerLazyStart
+						.getReadiness(ContainerPipelinedSpringTest.class, "POSTGRES_CONTAINER").isDone();
+				// Lets the container start.
+				ContainerPipelinedSpringTest.BOOTSTRAP_GATE.countDown();
+			};
+		}
+
+	}
+
+	/**
+	 * Data source.
+	 */
+	@Autowired
+	private DataSource dataSource;
+
+	/**
+	 * Tests the context bootstrap overlaps with the container start and the data
+	 * source waits for the container readiness.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testContextStartedBeforeContainerReady() throws Exception {
+		Assertions.assertNotNull(ContainerPipelinedSpringTest.POSTGRES_READY_ON_BOOTSTRAP);
+		Assertions.assertFalse(ContainerPipelinedSpringTest.POSTGRES_READY_ON_BOOTSTRAP);
+		Assertions.assertTrue(TestContainerLazyStart.getReadiness(ContainerPipelinedSpringTest.class, "POSTGRES_CONTAINER").isDone());
+		Assertions.assertTrue(ContainerPipelinedSpringTest.POSTGRES_CONTAINER.isRunning());
+		try (Connection connection = this.dataSource.getConnection()) {
+			Assertions.assertTrue(connection.isValid(5));
+			Assertions.assertTrue(connection.getMetaData().getURL().contains(
+					":" + TestContainerNetwork.getPort(ContainerPipelinedSpringTest.POSTGRES_CONTAINER, 5432) + "/"));
+		}
+	}
+
+}
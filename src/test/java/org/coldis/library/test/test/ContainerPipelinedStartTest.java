@@ -0,0 +1,79 @@
+package org.coldis.library.test.test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.coldis.library.test.RedisTestClient;
+import org.coldis.library.test.RedisTestContainerHelper;
+import org.coldis.library.test.StartTestWithContainerExtension;
+import org.coldis.library.test.StopTestWithContainerExtension;
+import org.coldis.library.test.TestContainerLazyStart;
+import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.TestWithContainer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Pipelined container start test.
+ */
+@TestWithContainer(pipelined = true)
+@ExtendWith(value = { StartTestWithContainerExtension.class })
+@ExtendWith(value = { StopTestWithContainerExtension.class })
+public class ContainerPipelinedStartTest {
+
+	/**
+	 * Redis container (only used by this class).
+	 */
+	public static GenericContainer<?> PIPELINED_REDIS_CONTAINER = TestHelper.createRedisContainer(false);
+
+	/**
+	 * Holder of a container that cannot start (not a field of the test class, so
+	 * the extension does not start it).
+	 */
+	public static class FailingContainerHolder {
+
+		/**
+		 * Container with an image that does not exist.
+		 */
+		public static GenericContainer<?> FAILING_CONTAINER = new GenericContainer<>("coldis/does-not-exist:0").withExposedPorts(1234);
+
+	}
+
+	/**
+	 * Tests the container started in the background is ready before the test.
+	 */
+	@Test
+	public void testReadyBeforeTest() throws Exception {
+		Assertions.assertTrue(TestContainerLazyStart.getReadiness(ContainerPipelinedStartTest.class, "PIPELINED_REDIS_CONTAINER").isDone());
+		Assertions.assertTrue(ContainerPipelinedStartTest.PIPELINED_REDIS_CONTAINER.isRunning());
+		Assertions.assertEquals(ContainerPipelinedStartTest.PIPELINED_REDIS_CONTAINER.getMappedPort(6379).toString(),
+				TestContainerLazyStart.resolveProperty("PIPELINED_REDIS_CONTAINER_6379"));
+		try (RedisTestClient client = RedisTestContainerHelper.getClient(ContainerPipelinedStartTest.PIPELINED_REDIS_CONTAINER)) {
+			Assertions.assertEquals("PONG", client.execute("PING"));
+		}
+	}
+
+	/**
+	 * Tests the readiness fails if the container does not start in the
+	 * background.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testReadinessFailsIfNotStarted() throws Exception {
+		try {
+			TestContainerLazyStart.register(FailingContainerHolder.class, FailingContainerHolder.class.getField("FAILING_CONTAINER"));
+			final CompletableFuture<Void> readiness = TestContainerLazyStart.pipeline(FailingContainerHolder.class,
+					List.of(FailingContainerHolder.class.getField("FAILING_CONTAINER")), true);
+			Assertions.assertThrows(CompletionException.class, readiness::join);
+			Assertions.assertTrue(TestContainerLazyStart.getReadiness(FailingContainerHolder.class, "FAILING_CONTAINER").isCompletedExceptionally());
+		}
+		finally {
+			TestContainerLazyStart.unregister(FailingContainerHolder.class);
+		}
+	}
+
+}
@@ -4,18 +4,28 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
 
+import org.coldis.library.test.PostgresTestContainerHelper;
+import org.coldis.library.test.RedisTestClient;
+import org.coldis.library.test.RedisTestContainerHelper;
 import org.coldis.library.test.SpringTestHelper;
 import org.coldis.library.test.StartTestWithContainerExtension;
 import org.coldis.library.test.StopTestWithContainerExtension;
+import org.coldis.library.test.TestConnectionPools;
 import org.coldis.library.test.TestHelper;
 import org.coldis.library.test.TestWithContainer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
 import org.testcontainers.containers.GenericContainer;
 
+import com.zaxxer.hikari.HikariDataSource;
+
 /**
  * Test helper test.
  */
@@ -31,17 +41,23 @@ public class ContainerTestHelperATest extends SpringTestHelper {
 	/**
 	 * Postgres container.
 	 */
-	public static GenericContainer<?> POSTGRES_CONTAINER = TestHelper.POSTGRES_CONTAINER;
+	public static GenericContainer<?> POSTGRES_CONTAINER = TestHelper.getPostgresContainer();
 
 	/**
 	 * Artemis container.
 	 */
-	public static GenericContainer<?> ARTEMIS_CONTAINER = TestHelper.ARTEMIS_CONTAINER;
+	public static GenericContainer<?> ARTEMIS_CONTAINER = TestHelper.getArtemisContainer();
 
 	/**
 	 * Redis container.
 	 */
-	public static GenericContainer<?> REDIS_CONTAINER = TestHelper.REDIS_CONTAINER;
+	public static GenericContainer<?> REDIS_CONTAINER = TestHelper.getRedisContainer();
+
+	/**
+	 * JMS template.
+	 */
+	@Autowired
+	private JmsTemplate jmsTemplate;
 
 	/**
 	 * Test Postgres container.
@@ -76,4 +92,100 @@ public class ContainerTestHelperATest extends SpringTestHelper {
 		Assertions.assertTrue(sequenceValue > 0);
 	}
 
+	/**
+	 * Tests restoring the database from a template.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testRestoreDatabaseFromTemplate() throws Exception {
+		final String tableName = "test_template_table";
+		final String templateDatabase = "test_template";
+		this.jdbcTemplate.update("CREATE TABLE IF NOT EXISTS " + tableName + " (id BIGINT)");
+		this.jdbcTemplate.update("DELETE FROM " + tableName);
+		this.snapshotDatabase(ContainerTestHelperATest.POSTGRES_CONTAINER, templateDatabase);
+		this.jdbcTemplate.update("INSERT INTO " + tableName + " VALUES (1)");
+		Assertions.assertEquals(1, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName, Long.class));
+		this.restoreDatabase(ContainerTestHelperATest.POSTGRES_CONTAINER, templateDatabase);
+		Assertions.assertEquals(0, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName, Long.class));
+	}
+
+	/**
+	 * Tests resetting a Redis database and key prefix.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testRedisReset() throws Exception {
+		final Integer database = RedisTestContainerHelper.acquireDatabase();
+		try (RedisTestClient client = RedisTestContainerHelper.getClient(ContainerTestHelperATest.REDIS_CONTAINER)) {
+			final String prefix = RedisTestContainerHelper.getKeyPrefix(ContainerTestHelperATest.class);
+			client.pipeline(List.of(new String[] { "SELECT", database.toString() }, new String[] { "SET", prefix + "1", "1" },
+					new String[] { "SET", prefix + "2", "2" }, new String[] { "SET", "other", "3" }));
+			Assertions.assertEquals(2L, RedisTestContainerHelper.deleteKeys(ContainerTestHelperATest.REDIS_CONTAINER, database, prefix));
+			Assertions.assertEquals(1L, client.execute("DBSIZE"));
+			RedisTestContainerHelper.flushDatabase(ContainerTestHelperATest.REDIS_CONTAINER, database);
+			Assertions.assertEquals(0L, client.execute("DBSIZE"));
+		}
+		finally {
+			RedisTestContainerHelper.releaseDatabase(database);
+		}
+	}
+
+	/**
+	 * Tests purging the Artemis queues.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testPurgeArtemisQueues() throws Exception {
+		for (int message = 0; message < 3; message++) {
+			this.jmsTemplate.convertAndSend("test-purge", "message" + message);
+		}
+		Assertions.assertTrue(SpringTestHelper.countArtemisMessages(ContainerTestHelperATest.ARTEMIS_CONTAINER) > 0);
+		SpringTestHelper.purgeArtemisQueues(ContainerTestHelperATest.ARTEMIS_CONTAINER);
+		Assertions.assertEquals(0L, SpringTestHelper.countArtemisMessages(ContainerTestHelperATest.ARTEMIS_CONTAINER));
+	}
+
+	/**
+	 * Tests the shared connection pool is reused (for the same settings only),
+	 * applies the context settings and exposes its statistics.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testSharedConnectionPool() throws Exception {
+		final String jdbcUrl = PostgresTestContainerHelper.getJdbcUrl(ContainerTestHelperATest.POSTGRES_CONTAINER, TestHelper.TEST_USER_NAME);
+		final Map<String, String> settings = Map.of("connection-timeout", "5000", "allow-pool-suspension", "false");
+		final String poolKey = TestConnectionPools.getKey(jdbcUrl, TestHelper.TEST_USER_NAME, TestConnectionPools.getPoolSettings(settings));
+		final HikariDataSource pool = TestConnectionPools.getPool(jdbcUrl, TestHelper.TEST_USER_NAME, TestHelper.TEST_USER_PASSWORD, settings);
+		final HikariDataSource otherPool = TestConnectionPools.getPool(jdbcUrl, TestHelper.TEST_USER_NAME, TestHelper.TEST_USER_PASSWORD,
+				Map.of("connection-timeout", "6000"));
+		try {
+			// The same settings share the pool, while other settings get their own.
+			Assertions.assertSame(pool, TestConnectionPools.getPool(jdbcUrl, TestHelper.TEST_USER_NAME, TestHelper.TEST_USER_PASSWORD,
+					Map.of("allow-pool-suspension", "true", "connectionTimeout", "5000")));
+			Assertions.assertNotSame(pool, otherPool);
+			// The context pool settings are applied (but suspension is always allowed).
+			Assertions.assertEquals(5000, pool.getConnectionTimeout());
+			Assertions.assertEquals(6000, otherPool.getConnectionTimeout());
+			Assertions.assertTrue(pool.isAllowPoolSuspension());
+			try (Connection connection = TestConnectionPools.getDataSource(jdbcUrl, TestHelper.TEST_USER_NAME, TestHelper.TEST_USER_PASSWORD, settings)
+					.getConnection();
+					Statement statement = connection.createStatement();
+					ResultSet result = statement.executeQuery("SELECT 1")) {
+				Assertions.assertTrue(result.next());
+				Assertions.assertEquals(1, pool.getHikariPoolMXBean().getActiveConnections());
+			}
+			Assertions.assertTrue(TestConnectionPools.getStatistics().containsKey(poolKey));
+		}
+		// Closes the pools (shared pools are not enabled here, so the container would not close them).
+		finally {
+			TestConnectionPools.close(pool);
+			TestConnectionPools.close(otherPool);
+		}
+		Assertions.assertTrue(pool.isClosed());
+		Assertions.assertFalse(TestConnectionPools.getStatistics().containsKey(poolKey));
+	}
+
 }
@@ -0,0 +1,78 @@
+package org.coldis.library.test.test;
+
+import java.nio.file.Path;
+
+import org.coldis.library.test.PostgresSchemaCache;
+import org.coldis.library.test.TestForkTenancy;
+import org.coldis.library.test.TestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Postgres schema cache test.
+ */
+public class PostgresSchemaCacheTest {
+
+	/**
+	 * Temporary cache directory.
+	 */
+	@TempDir
+	private Path directory;
+
+	/**
+	 * Original enabled property.
+	 */
+	private String originalEnabled;
+
+	/**
+	 * Uses a temporary cache directory.
+	 */
+	@BeforeEach
+	public void setUp() {
+		this.originalEnabled = System.getProperty(PostgresSchemaCache.ENABLED_PROPERTY);
+		System.setProperty(PostgresSchemaCache.DIRECTORY_PROPERTY, this.directory.toString());
+	}
+
+	/**
+	 * Restores the original properties.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (this.originalEnabled == null) {
+			System.clearProperty(PostgresSchemaCache.ENABLED_PROPERTY);
+		}
+		else {
+			System.setProperty(PostgresSchemaCache.ENABLED_PROPERTY, this.originalEnabled);
+		}
+		System.clearProperty(PostgresSchemaCache.DIRECTORY_PROPERTY);
+	}
+
+	/**
+	 * Tests the cache key changes with the Postgres image.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testCacheKeyByImage() throws Exception {
+		Assertions.assertEquals(PostgresSchemaCache.getCacheKey("postgres:16"), PostgresSchemaCache.getCacheKey("postgres:16"));
+		Assertions.assertNotEquals(PostgresSchemaCache.getCacheKey("postgres:16"), PostgresSchemaCache.getCacheKey("postgres:17"));
+		Assertions.assertNotEquals(PostgresSchemaCache.getCacheFile("postgres:16"), PostgresSchemaCache.getCacheFile("postgres:17"));
+		Assertions.assertEquals(this.directory, PostgresSchemaCache.getCacheFile("postgres:16").getParent());
+	}
+
+	/**
+	 * Tests the cached schema is never restored into the default database.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testRestoreIntoDefaultDatabase() throws Exception {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> PostgresSchemaCache.restore(null, TestHelper.TEST_USER_NAME));
+		System.setProperty(PostgresSchemaCache.ENABLED_PROPERTY, "true");
+		Assertions.assertNotEquals(TestHelper.TEST_USER_NAME, TestForkTenancy.getPostgresDatabase());
+	}
+
+}
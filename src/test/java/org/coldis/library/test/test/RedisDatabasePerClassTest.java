@@ -0,0 +1,101 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.RedisTestClient;
+import org.coldis.library.test.RedisTestContainerHelper;
+import org.coldis.library.test.StartTestWithContainerExtension;
+import org.coldis.library.test.StopTestWithContainerExtension;
+import org.coldis.library.test.TestForkTenancy;
+import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.TestWithContainer;
+import org.coldis.library.test.TestWithContainerExtensionHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Redis database per class test.
+ */
+@TestWithContainer(redisDatabasePerClass = true)
+@ExtendWith(value = { StartTestWithContainerExtension.class })
+@ExtendWith(value = { StopTestWithContainerExtension.class })
+public class RedisDatabasePerClassTest {
+
+	/**
+	 * Redis container (only used by this class).
+	 */
+	public static GenericContainer<?> CLASS_REDIS_CONTAINER = TestHelper.createRedisContainer(false);
+
+	/**
+	 * Other test class with a Redis container field of the same name.
+	 */
+	@TestWithContainer(redisDatabasePerClass = true)
+	public static class OtherClass {
+
+		/**
+		 * Redis container (the same container, under the same field name).
+		 */
+		public static GenericContainer<?> CLASS_REDIS_CONTAINER = RedisDatabasePerClassTest.CLASS_REDIS_CONTAINER;
+
+	}
+
+	/**
+	 * Tests the class gets its own database (not the fork database), while the
+	 * global property keeps the fork database.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testClassDatabase() throws Exception {
+		final Integer database = RedisTestContainerHelper.getDatabase(RedisDatabasePerClassTest.class, "CLASS_REDIS_CONTAINER");
+		Assertions.assertNotEquals(TestForkTenancy.getRedisDatabase(), database);
+		Assertions.assertEquals(TestForkTenancy.getRedisDatabase().toString(),
+				System.getProperty("CLASS_REDIS_CONTAINER" + TestForkTenancy.DATABASE_PROPERTY_SUFFIX));
+		try (RedisTestClient client = RedisTestContainerHelper.getClient(RedisDatabasePerClassTest.CLASS_REDIS_CONTAINER)) {
+			client.execute("SELECT", database.toString());
+			client.execute("SET", "key", "value");
+			Assertions.assertEquals("value", client.execute("GET", "key"));
+		}
+	}
+
+	/**
+	 * Tests acquired databases never include the fork database.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testAcquireSkipsForkDatabase() throws Exception {
+		final Integer database = RedisTestContainerHelper.acquireDatabase();
+		try {
+			Assertions.assertNotEquals(TestForkTenancy.getRedisDatabase(), database);
+			Assertions.assertNotEquals(RedisTestContainerHelper.getDatabase(RedisDatabasePerClassTest.class, "CLASS_REDIS_CONTAINER"), database);
+		}
+		finally {
+			RedisTestContainerHelper.releaseDatabase(database);
+		}
+	}
+
+	/**
+	 * Tests classes with container fields of the same name get (and release)
+	 * their own databases.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testSameFieldNameInOtherClass() throws Exception {
+		final Integer database = RedisTestContainerHelper.getDatabase(RedisDatabasePerClassTest.class, "CLASS_REDIS_CONTAINER");
+		RedisTestContainerHelper.assignClass(OtherClass.class, TestWithContainerExtensionHelper.getContainersFieldsFromTests(OtherClass.class));
+		final Integer otherDatabase = RedisTestContainerHelper.getDatabase(OtherClass.class, "CLASS_REDIS_CONTAINER");
+		try {
+			Assertions.assertNotEquals(TestForkTenancy.getRedisDatabase(), otherDatabase);
+			Assertions.assertNotEquals(database, otherDatabase);
+		}
+		finally {
+			RedisTestContainerHelper.releaseClass(OtherClass.class, TestWithContainerExtensionHelper.getContainersFieldsFromTests(OtherClass.class));
+		}
+		// Releasing the other class keeps this class database.
+		Assertions.assertEquals(TestForkTenancy.getRedisDatabase(), RedisTestContainerHelper.getDatabase(OtherClass.class, "CLASS_REDIS_CONTAINER"));
+		Assertions.assertEquals(database, RedisTestContainerHelper.getDatabase(RedisDatabasePerClassTest.class, "CLASS_REDIS_CONTAINER"));
+	}
+
+}
@@ -0,0 +1,40 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.RetryAndFailFastExtension;
+import org.coldis.library.test.RetryableTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test for the retry and fail fast extension (executed by
+ * {@link RetryAndFailFastExtensionTest}).
+ */
+@Disabled
+@ExtendWith(RetryAndFailFastExtension.class)
+public class RetryAndFailFastExtensionDeterministicFakeTest {
+
+	/**
+	 * Test tries.
+	 */
+	public static Integer TEST1_TRIES = 0;
+
+	/**
+	 * Setup.
+	 */
+	@BeforeAll
+	public static void setup() {
+		RetryAndFailFastExtensionDeterministicFakeTest.TEST1_TRIES = 0;
+	}
+
+	/**
+	 * Test with a deterministic failure.
+	 */
+	@RetryableTest
+	public void failAssertion() {
+		RetryAndFailFastExtensionDeterministicFakeTest.TEST1_TRIES++;
+		Assertions.fail("Fake deterministic test failure, not retrying...");
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.coldis.library.test.test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.coldis.library.test.RetryAndFailFastExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test for the retry and fail fast extension with a plain test method
+ * (executed by {@link RetryAndFailFastExtensionTest}).
+ */
+@Disabled
+@ExtendWith(RetryAndFailFastExtension.class)
+public class RetryAndFailFastExtensionInPlaceFakeTest {
+
+	/**
+	 * Test tries.
+	 */
+	public static Integer TEST1_TRIES = 0;
+
+	/**
+	 * Setup.
+	 */
+	@BeforeAll
+	public static void setup() {
+		RetryAndFailFastExtensionInPlaceFakeTest.TEST1_TRIES = 0;
+	}
+
+	/**
+	 * Test retried in place.
+	 */
+	@Test
+	public void failTwice() {
+		RetryAndFailFastExtensionInPlaceFakeTest.TEST1_TRIES++;
+		if (RetryAndFailFastExtensionInPlaceFakeTest.TEST1_TRIES < 3) {
+			throw new UncheckedIOException(new IOException("Fake transient test failure, retrying..."));
+		}
+	}
+
+}
@@ -1,14 +1,22 @@
 package org.coldis.library.test.test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import org.coldis.library.test.RetryAndFailFastExtension;
+import org.coldis.library.test.RetryableTest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
 
 /**
  * Test for the retry and fail fast extension.
  */
 @ExtendWith(RetryAndFailFastExtension.class)
+@ExtendWith(RetryAndFailFastExtensionRetryFakeTest.CountingExtension.class)
 public class RetryAndFailFastExtensionRetryFakeTest {
 
 	/**
@@ -16,22 +24,72 @@ public class RetryAndFailFastExtensionRetryFakeTest {
 	 */
 	public static Integer TEST1_RETRIES = 0;
 
+	/**
+	 * Before each method calls.
+	 */
+	public static Integer BEFORE_EACH_CALLS = 0;
+
+	/**
+	 * After each method calls.
+	 */
+	public static Integer AFTER_EACH_CALLS = 0;
+
+	/**
+	 * Other extension before each callbacks.
+	 */
+	public static Integer EXTENSION_CALLS = 0;
+
+	/**
+	 * Counts the other extension callbacks.
+	 */
+	public static class CountingExtension implements BeforeEachCallback {
+
+		/**
+		 * @see BeforeEachCallback#beforeEach(ExtensionContext)
+		 */
+		@Override
+		public void beforeEach(
+				final ExtensionContext context) throws Exception {
+			RetryAndFailFastExtensionRetryFakeTest.EXTENSION_CALLS++;
+		}
+
+	}
+
 	/**
 	 * Setup.
 	 */
 	@BeforeAll
 	public static void setup() {
 		RetryAndFailFastExtensionRetryFakeTest.TEST1_RETRIES = 0;
+		RetryAndFailFastExtensionRetryFakeTest.BEFORE_EACH_CALLS = 0;
+		RetryAndFailFastExtensionRetryFakeTest.AFTER_EACH_CALLS = 0;
+		RetryAndFailFastExtensionRetryFakeTest.EXTENSION_CALLS = 0;
+	}
+
+	/**
+	 * Before each attempt.
+	 */
+	@BeforeEach
+	public void beforeEach() {
+		RetryAndFailFastExtensionRetryFakeTest.BEFORE_EACH_CALLS++;
+	}
+
+	/**
+	 * After each attempt.
+	 */
+	@AfterEach
+	public void afterEach() {
+		RetryAndFailFastExtensionRetryFakeTest.AFTER_EACH_CALLS++;
 	}
 
 	/**
 	 * Test retry.
 	 */
-	@Test
+	@RetryableTest
 	public void failTwice() {
 		RetryAndFailFastExtensionRetryFakeTest.TEST1_RETRIES++;
 		if (RetryAndFailFastExtensionRetryFakeTest.TEST1_RETRIES < 3) {
-			throw new RuntimeException("Fake test failure, retrying...");
+			throw new UncheckedIOException(new IOException("Fake transient test failure, retrying..."));
 		}
 	}
 
@@ -2,6 +2,7 @@ package org.coldis.library.test.test;
 
 import org.coldis.library.test.RetryAndFailFastExtension;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.platform.engine.discovery.DiscoverySelectors;
@@ -36,10 +37,67 @@ public class RetryAndFailFastExtensionTest {
 
 		// Validates the test execution summary.
 		Assertions.assertEquals(3, RetryAndFailFastExtensionRetryFakeTest.TEST1_RETRIES, "The test should have been tried 3 times.");
-		Assertions.assertEquals(1, listener.getSummary().getTestsFoundCount());
+		Assertions.assertEquals(3, RetryAndFailFastExtensionRetryFakeTest.BEFORE_EACH_CALLS);
+		Assertions.assertEquals(3, RetryAndFailFastExtensionRetryFakeTest.AFTER_EACH_CALLS);
+		Assertions.assertEquals(3, RetryAndFailFastExtensionRetryFakeTest.EXTENSION_CALLS);
+		Assertions.assertEquals(3, listener.getSummary().getTestsFoundCount());
+		Assertions.assertEquals(2, listener.getSummary().getTestsAbortedCount());
 		Assertions.assertEquals(1, listener.getSummary().getTestsSucceededCount());
 		Assertions.assertEquals(0, listener.getSummary().getTotalFailureCount());
 		Assertions.assertTrue((testFinishTime - testStartTime) > (RetryAndFailFastExtension.FIXED_DELAY_BEFORE_NEXT_ATTEMPT * 3));
+		Assertions.assertTrue((testFinishTime - testStartTime) < (RetryAndFailFastExtension.MAX_DELAY_BEFORE_NEXT_ATTEMPT * 2));
+
+	}
+
+	/**
+	 * Test plain test methods are still retried (in place).
+	 */
+	@Test
+	public void testRetryInPlace() {
+
+		// Executes a fake test.
+		final LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+				.selectors(DiscoverySelectors.selectClass(RetryAndFailFastExtensionInPlaceFakeTest.class))
+				.configurationParameter("junit.jupiter.conditions.deactivate", "org.junit.jupiter.api.condition.DisabledCondition").build();
+		final Launcher launcher = LauncherFactory.create();
+		final SummaryGeneratingListener listener = new SummaryGeneratingListener();
+		launcher.registerTestExecutionListeners(listener);
+		launcher.execute(request);
+
+		// Validates the test execution summary (a single test, with no aborted attempts).
+		Assertions.assertEquals(3, RetryAndFailFastExtensionInPlaceFakeTest.TEST1_TRIES, "The test should have been tried 3 times.");
+		Assertions.assertEquals(1, listener.getSummary().getTestsFoundCount());
+		Assertions.assertEquals(0, listener.getSummary().getTestsAbortedCount());
+		Assertions.assertEquals(1, listener.getSummary().getTestsSucceededCount());
+		Assertions.assertEquals(0, listener.getSummary().getTotalFailureCount());
+
+	}
+
+	/**
+	 * Test deterministic failures are not retried.
+	 */
+	@Test
+	public void testNoRetryForDeterministicFailure() {
+
+		// The fake failure would otherwise skip the remaining tests.
+		Assumptions.assumeFalse(RetryAndFailFastExtension.isFailFastEnabled());
+
+		// Executes a fake test.
+		final LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+				.selectors(DiscoverySelectors.selectClass(RetryAndFailFastExtensionDeterministicFakeTest.class))
+				.configurationParameter("junit.jupiter.conditions.deactivate", "org.junit.jupiter.api.condition.DisabledCondition").build();
+		final Launcher launcher = LauncherFactory.create();
+		final SummaryGeneratingListener listener = new SummaryGeneratingListener();
+		launcher.registerTestExecutionListeners(listener);
+		final Long testStartTime = System.currentTimeMillis();
+		launcher.execute(request);
+		final Long testFinishTime = System.currentTimeMillis();
+
+		// Validates the test execution summary.
+		Assertions.assertEquals(1, RetryAndFailFastExtensionDeterministicFakeTest.TEST1_TRIES, "The test should have been tried once.");
+		Assertions.assertEquals(1, listener.getSummary().getTestsFoundCount());
+		Assertions.assertEquals(1, listener.getSummary().getTotalFailureCount());
+		Assertions.assertTrue((testFinishTime - testStartTime) < RetryAndFailFastExtension.FIXED_DELAY_BEFORE_NEXT_ATTEMPT);
 
 	}
 
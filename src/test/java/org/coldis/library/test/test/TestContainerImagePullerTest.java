@@ -0,0 +1,91 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.TestContainerImagePuller;
+import org.coldis.library.test.TestHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
+
+/**
+ * Image puller test (against a local registry).
+ */
+public class TestContainerImagePullerTest {
+
+	/**
+	 * Local registry image.
+	 */
+	private static final String REGISTRY_IMAGE = "registry:2.8.3";
+
+	/**
+	 * Removes an image (if it exists).
+	 *
+	 * @param client    Docker client.
+	 * @param imageName Image name.
+	 */
+	private static void removeImage(
+			final DockerClient client,
+			final String imageName) {
+		try {
+			client.removeImageCmd(imageName).withForce(true).exec();
+		}
+		catch (final NotFoundException exception) {
+			// Already removed.
+		}
+	}
+
+	/**
+	 * Tests the image name of a container is known without resolving its image.
+	 */
+	@Test
+	public void testImageNameWithoutResolving() {
+		final GenericContainer<?> container = TestHelper.createRedisContainer();
+		Assertions.assertEquals(DockerImageName.parse(TestHelper.REDIS_IMAGE).asCanonicalNameString(), TestContainerImagePuller.getImageName(container));
+		Assertions.assertFalse(container.getImage().isDone());
+		Assertions.assertNull(TestContainerImagePuller.getImageName(new GenericContainer<>("coldis/not-registered:0")));
+	}
+
+	/**
+	 * Tests images are pulled from the registry and images already available
+	 * locally are not pulled again.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testPullFromLocalRegistry() throws Exception {
+		final DockerClient client = DockerClientFactory.lazyClient();
+		final String sourceImage = DockerImageName.parse(TestHelper.REDIS_IMAGE).asCanonicalNameString();
+		new RemoteDockerImage(DockerImageName.parse(sourceImage)).get();
+		try (GenericContainer<?> registry = new GenericContainer<>(TestContainerImagePullerTest.REGISTRY_IMAGE).withExposedPorts(5000)) {
+			registry.start();
+			final String repository = "localhost:" + registry.getMappedPort(5000) + "/coldis/test-pull";
+			final String pushedImage = repository + ":pushed-" + System.nanoTime();
+			final String localImage = repository + ":local-" + System.nanoTime();
+			try {
+				// Pushes an image to the registry and removes it locally.
+				client.tagImageCmd(sourceImage, repository, DockerImageName.parse(pushedImage).getVersionPart()).exec();
+				client.pushImageCmd(repository).withTag(DockerImageName.parse(pushedImage).getVersionPart()).exec(new ResultCallback.Adapter<>())
+						.awaitCompletion();
+				TestContainerImagePullerTest.removeImage(client, pushedImage);
+				// Pulls the image from the registry.
+				Assertions.assertTrue(TestContainerImagePuller.pull(pushedImage).join());
+				Assertions.assertNotNull(client.inspectImageCmd(pushedImage).exec().getId());
+				// An image only available locally (never pushed) is not pulled.
+				client.tagImageCmd(sourceImage, repository, DockerImageName.parse(localImage).getVersionPart()).exec();
+				registry.stop();
+				Assertions.assertTrue(TestContainerImagePuller.pull(localImage).join());
+			}
+			finally {
+				TestContainerImagePullerTest.removeImage(client, pushedImage);
+				TestContainerImagePullerTest.removeImage(client, localImage);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package org.coldis.library.test.test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.coldis.library.test.TestContainerLifecycleExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test container lifecycle executor test.
+ */
+public class TestContainerLifecycleExecutorTest {
+
+	/**
+	 * Tests that dependencies run before their dependents.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	@SuppressWarnings("resource")
+	public void testRunInDependencyOrder() throws Exception {
+		final GenericContainer<?> database = new GenericContainer<>("redis:7.4.1-bookworm");
+		final GenericContainer<?> broker = new GenericContainer<>("redis:7.4.1-bookworm");
+		final GenericContainer<?> application = new GenericContainer<>("redis:7.4.1-bookworm").dependsOn(database, broker);
+		final Map<GenericContainer<?>, String> containers = new IdentityHashMap<>();
+		containers.put(application, "application");
+		containers.put(database, "database");
+		containers.put(broker, "broker");
+		for (final Boolean parallel : List.of(true, false)) {
+			final List<String> started = new CopyOnWriteArrayList<>();
+			TestContainerLifecycleExecutor.runInDependencyOrder(containers, started::add, parallel).get();
+			Assertions.assertEquals(3, started.size());
+			Assertions.assertEquals("application", started.get(2));
+		}
+	}
+
+}
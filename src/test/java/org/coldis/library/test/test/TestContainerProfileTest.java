@@ -0,0 +1,67 @@
+package org.coldis.library.test.test;
+
+import java.util.List;
+import java.util.Map;
+
+import org.coldis.library.test.RedisTestClient;
+import org.coldis.library.test.RedisTestContainerHelper;
+import org.coldis.library.test.TestContainerProfile;
+import org.coldis.library.test.TestContainerRegistry;
+import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.TestWithContainerExtensionHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test container profile test.
+ */
+public class TestContainerProfileTest {
+
+	/**
+	 * Tests the ephemeral profile keeps the Artemis JVM arguments and restores
+	 * them when the container stops.
+	 */
+	@Test
+	public void testEphemeralArtemisDefinitionRestored() {
+		final GenericContainer<?> container = TestHelper.createArtemisContainer().withEnv(TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE, "-Xss1m");
+		final List<String> command = List.of(container.getCommandParts());
+		TestContainerProfile.applyEphemeral(container);
+		Assertions.assertEquals("-Xss1m " + TestContainerProfile.ARTEMIS_JAVA_ARGS, container.getEnvMap().get(TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE));
+		Assertions.assertEquals(command, List.of(container.getCommandParts()));
+		// Stopping the container restores its definition.
+		Assertions.assertTrue(TestContainerRegistry.getRegistration(container).stopIfUnused(() -> {}));
+		Assertions.assertEquals("-Xss1m", container.getEnvMap().get(TestContainerProfile.ARTEMIS_JAVA_ARGS_VARIABLE));
+	}
+
+	/**
+	 * Tests the ephemeral profile keeps the Redis command, disables persistence
+	 * once started and restores the definition when the container stops.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testEphemeralRedisStart() throws Exception {
+		final GenericContainer<?> container = TestHelper.createRedisContainer();
+		final List<String> command = List.of(container.getCommandParts());
+		final Map<String, String> tmpFs = container.getTmpFsMapping();
+		try {
+			TestContainerProfile.applyEphemeral(container);
+			Assertions.assertEquals("rw", container.getTmpFsMapping().get(TestContainerProfile.REDIS_DATA_DIRECTORY));
+			Assertions.assertEquals(command, List.of(container.getCommandParts()));
+			container.start();
+			Assertions.assertTrue(TestContainerProfile.applyEphemeralSettings(container));
+			try (RedisTestClient client = RedisTestContainerHelper.getClient(container)) {
+				Assertions.assertEquals(List.of("save", ""), client.execute("CONFIG", "GET", "save"));
+				Assertions.assertEquals(List.of("appendonly", "no"), client.execute("CONFIG", "GET", "appendonly"));
+			}
+		}
+		finally {
+			// Stopping the container restores its definition.
+			Assertions.assertTrue(
+					TestContainerRegistry.getRegistration(container).stopIfUnused(() -> TestWithContainerExtensionHelper.stopTestContainer(container)));
+		}
+		Assertions.assertEquals(tmpFs, container.getTmpFsMapping());
+	}
+
+}
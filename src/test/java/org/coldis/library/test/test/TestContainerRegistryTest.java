@@ -0,0 +1,128 @@
+package org.coldis.library.test.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.coldis.library.test.TestContainerLease;
+import org.coldis.library.test.TestContainerRegistration;
+import org.coldis.library.test.TestContainerRegistry;
+import org.coldis.library.test.TestHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test container registry test.
+ */
+public class TestContainerRegistryTest {
+
+	/**
+	 * Tests that concurrent starts of the same container run the starter once.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	@SuppressWarnings("resource")
+	public void testStartExactlyOnce() throws Exception {
+		final GenericContainer<?> container = new GenericContainer<>("redis:7.4.1-bookworm");
+		final AtomicInteger starts = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<CompletableFuture<Void>> jobs = IntStream.range(0, 8)
+					.mapToObj(index -> CompletableFuture.runAsync(() -> TestContainerRegistry.getRegistration(container).start(() -> {
+						starts.incrementAndGet();
+						try {
+							Thread.sleep(TestHelper.SHORT_WAIT);
+						}
+						catch (final InterruptedException exception) {
+							Thread.currentThread().interrupt();
+						}
+					}).join(), executor)).toList();
+			CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).get();
+			Assertions.assertEquals(1, starts.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests that a container is only stopped once every lease is released.
+	 */
+	@Test
+	@SuppressWarnings("resource")
+	public void testStopOnlyWhenUnused() {
+		final GenericContainer<?> container = new GenericContainer<>("redis:7.4.1-bookworm");
+		final AtomicInteger stops = new AtomicInteger();
+		final TestContainerLease firstLease = TestContainerRegistry.acquire(container);
+		final TestContainerLease secondLease = TestContainerRegistry.acquire(container);
+		Assertions.assertEquals(2, TestContainerRegistry.getLeaseCount(container));
+		Assertions.assertEquals(1, firstLease.release());
+		// Releasing twice has no effect.
+		Assertions.assertEquals(1, firstLease.release());
+		Assertions.assertFalse(firstLease.getRegistration().stopIfUnused(stops::incrementAndGet));
+		Assertions.assertEquals(0, secondLease.release());
+		Assertions.assertTrue(secondLease.getRegistration().stopIfUnused(stops::incrementAndGet));
+		Assertions.assertEquals(1, stops.get());
+	}
+
+	/**
+	 * Tests that a lease cannot be acquired while the container is stopping (and
+	 * that the container is then started again).
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	@SuppressWarnings("resource")
+	public void testAcquireWaitsForStop() throws Exception {
+		final GenericContainer<?> container = new GenericContainer<>("redis:7.4.1-bookworm");
+		final TestContainerRegistration registration = TestContainerRegistry.getRegistration(container);
+		final AtomicInteger starts = new AtomicInteger();
+		registration.start(starts::incrementAndGet).join();
+		final CountDownLatch stopping = new CountDownLatch(1);
+		final CountDownLatch stopped = new CountDownLatch(1);
+		final CompletableFuture<Boolean> stop = CompletableFuture.supplyAsync(() -> registration.stopIfUnused(() -> {
+			stopping.countDown();
+			try {
+				Thread.sleep(TestHelper.SHORT_WAIT);
+			}
+			catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+			stopped.countDown();
+		}));
+		Assertions.assertTrue(stopping.await(TestHelper.REGULAR_WAIT, TimeUnit.MILLISECONDS));
+		try (TestContainerLease lease = registration.acquire()) {
+			// The lease is only granted once the stop is over.
+			Assertions.assertEquals(0, stopped.getCount());
+			Assertions.assertTrue(stop.get());
+			registration.start(starts::incrementAndGet).join();
+			Assertions.assertEquals(2, starts.get());
+		}
+	}
+
+	/**
+	 * Tests that stop callbacks run once (by key), right before the container
+	 * stops.
+	 */
+	@Test
+	@SuppressWarnings("resource")
+	public void testStopCallbacks() {
+		final GenericContainer<?> container = new GenericContainer<>("redis:7.4.1-bookworm");
+		final TestContainerRegistration registration = TestContainerRegistry.getRegistration(container);
+		final List<String> events = new ArrayList<>();
+		registration.addStopCallback("context", () -> events.add("replaced"));
+		registration.addStopCallback("context", () -> events.add("callback"));
+		Assertions.assertTrue(registration.stopIfUnused(() -> events.add("stop")));
+		Assertions.assertTrue(registration.stopIfUnused(() -> events.add("stop")));
+		Assertions.assertEquals(List.of("callback", "stop", "stop"), events);
+	}
+
+}
@@ -0,0 +1,58 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.TestContainerRegistration;
+import org.coldis.library.test.TestContainerRegistry;
+import org.coldis.library.test.TestContainerWarmUpListener;
+import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.TestWithContainerExtensionHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Warm-up listener test.
+ */
+public class TestContainerWarmUpListenerTest {
+
+	/**
+	 * Warmed up container holder.
+	 */
+	public static class WarmUpContainerHolder {
+
+		/**
+		 * Redis container.
+		 */
+		public static GenericContainer<?> WARM_UP_REDIS_CONTAINER = TestHelper.createRedisContainer(false);
+
+	}
+
+	/**
+	 * Tests a warmed up container is leased for the session, so a class that does
+	 * not reuse it does not stop it, and is stopped when the session closes.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testWarmedUpContainerLeasedForSession() throws Exception {
+		final GenericContainer<?> container = WarmUpContainerHolder.WARM_UP_REDIS_CONTAINER;
+		final TestContainerRegistration registration = TestContainerRegistry.getRegistration(container);
+		final TestContainerWarmUpListener listener = new TestContainerWarmUpListener();
+		System.setProperty(TestContainerWarmUpListener.WARM_UP_PROPERTY, WarmUpContainerHolder.class.getName() + "#WARM_UP_REDIS_CONTAINER");
+		try {
+			listener.launcherSessionOpened(null);
+			Assertions.assertEquals(1, registration.getLeaseCount());
+			Assertions.assertTrue(TestHelper.waitUntilValid(container::isRunning, running -> running, TestHelper.VERY_LONG_WAIT * 4, TestHelper.SHORT_WAIT));
+			// A class that does not reuse the container releases its lease without stopping it.
+			registration.acquire().release();
+			Assertions.assertFalse(registration.stopIfUnused(() -> TestWithContainerExtensionHelper.stopTestContainer(container)));
+			Assertions.assertTrue(container.isRunning());
+		}
+		finally {
+			System.clearProperty(TestContainerWarmUpListener.WARM_UP_PROPERTY);
+			listener.launcherSessionClosed(null);
+		}
+		Assertions.assertEquals(0, registration.getLeaseCount());
+		Assertions.assertFalse(container.isRunning());
+	}
+
+}
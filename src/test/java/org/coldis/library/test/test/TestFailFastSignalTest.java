@@ -0,0 +1,103 @@
+package org.coldis.library.test.test;
+
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.coldis.library.test.TestFailFastSignal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Fail fast signal test.
+ */
+public class TestFailFastSignalTest {
+
+	/**
+	 * Temporary flag directory.
+	 */
+	@TempDir
+	private Path directory;
+
+	/**
+	 * Original run id.
+	 */
+	private String originalRunId;
+
+	/**
+	 * Uses a temporary flag directory and no run id.
+	 */
+	@BeforeEach
+	public void setUp() {
+		this.originalRunId = System.getProperty(TestFailFastSignal.RUN_ID_PROPERTY);
+		System.clearProperty(TestFailFastSignal.RUN_ID_PROPERTY);
+		System.setProperty(TestFailFastSignal.DIRECTORY_PROPERTY, this.directory.toString());
+		TestFailFastSignal.reset();
+	}
+
+	/**
+	 * Restores the original run id and directory.
+	 */
+	@AfterEach
+	public void tearDown() {
+		if (this.originalRunId == null) {
+			System.clearProperty(TestFailFastSignal.RUN_ID_PROPERTY);
+		}
+		else {
+			System.setProperty(TestFailFastSignal.RUN_ID_PROPERTY, this.originalRunId);
+		}
+		System.clearProperty(TestFailFastSignal.DIRECTORY_PROPERTY);
+		TestFailFastSignal.reset();
+	}
+
+	/**
+	 * Tests the signal stays in the JVM without an explicit run id.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testLocalWithoutRunId() throws Exception {
+		Assertions.assertNull(TestFailFastSignal.getFlagFile());
+		Assertions.assertFalse(TestFailFastSignal.isFailed(true));
+		TestFailFastSignal.signal(true);
+		Assertions.assertTrue(TestFailFastSignal.isFailed(true));
+		try (var files = Files.list(this.directory)) {
+			Assertions.assertEquals(0, files.count());
+		}
+	}
+
+	/**
+	 * Tests the signal is shared through the run flag file.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testSharedWithRunId() throws Exception {
+		System.setProperty(TestFailFastSignal.RUN_ID_PROPERTY, "run/1");
+		final Path flagFile = TestFailFastSignal.getFlagFile();
+		Assertions.assertEquals(this.directory, flagFile.getParent());
+		Assertions.assertFalse(TestFailFastSignal.isFailed(true));
+		// Another fork signals a failure.
+		try (FileChannel channel = FileChannel.open(flagFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final MappedByteBuffer otherFork = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+			Assertions.assertFalse(TestFailFastSignal.isFailed(false));
+			otherFork.putLong(0, System.currentTimeMillis());
+			Assertions.assertFalse(TestFailFastSignal.isFailed(false));
+			Assertions.assertTrue(TestFailFastSignal.isFailed(true));
+		}
+		// This fork signals a failure to the others.
+		TestFailFastSignal.reset();
+		Files.write(flagFile, new byte[Long.BYTES]);
+		Assertions.assertFalse(TestFailFastSignal.isFailed(true));
+		TestFailFastSignal.signal(true);
+		try (FileChannel channel = FileChannel.open(flagFile, StandardOpenOption.READ)) {
+			Assertions.assertNotEquals(0L, channel.map(FileChannel.MapMode.READ_ONLY, 0, Long.BYTES).getLong(0));
+		}
+	}
+
+}
@@ -0,0 +1,30 @@
+package org.coldis.library.test.test;
+
+import java.util.List;
+import java.util.Map;
+
+import org.coldis.library.test.TestForkPartitioner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test fork partitioner test.
+ */
+public class TestForkPartitionerTest {
+
+	/**
+	 * Tests bin-packing classes across forks.
+	 */
+	@Test
+	public void testPartition() {
+		final Map<String, Long> durations = Map.of("A", 60L, "B", 50L, "C", 40L, "D", 30L, "E", 20L, "F", 10L);
+		final Map<Integer, List<String>> partition = TestForkPartitioner.partition(durations, 2);
+		Assertions.assertEquals(2, partition.size());
+		// Longest classes are assigned first, each to the least loaded fork.
+		Assertions.assertEquals(List.of("A", "D", "E"), partition.get(1));
+		Assertions.assertEquals(List.of("B", "C", "F"), partition.get(2));
+		// Every class is assigned exactly once.
+		Assertions.assertEquals(durations.size(), partition.values().stream().mapToInt(List::size).sum());
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.TestForkTenancy;
+import org.coldis.library.test.TestJmsDestinationResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jms.support.destination.DynamicDestinationResolver;
+
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+
+/**
+ * Fork tenancy test.
+ */
+public class TestForkTenancyTest {
+
+	/**
+	 * Original shared across forks property.
+	 */
+	private String originalShared;
+
+	/**
+	 * Original fork number.
+	 */
+	private String originalForkNumber;
+
+	/**
+	 * Saves the original properties.
+	 */
+	@BeforeEach
+	public void setUp() {
+		this.originalShared = System.getProperty(TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY);
+		this.originalForkNumber = System.getProperty("forkNumber");
+	}
+
+	/**
+	 * Restores a property.
+	 *
+	 * @param name  Property name.
+	 * @param value Original value.
+	 */
+	private static void restoreProperty(
+			final String name,
+			final String value) {
+		if (value == null) {
+			System.clearProperty(name);
+		}
+		else {
+			System.setProperty(name, value);
+		}
+	}
+
+	/**
+	 * Restores the original properties.
+	 */
+	@AfterEach
+	public void tearDown() {
+		TestForkTenancyTest.restoreProperty(TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY, this.originalShared);
+		TestForkTenancyTest.restoreProperty("forkNumber", this.originalForkNumber);
+	}
+
+	/**
+	 * Tests each shared fork gets its own Redis database (and forks beyond the
+	 * available databases fail).
+	 */
+	@Test
+	public void testRedisDatabase() {
+		System.setProperty(TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY, "true");
+		System.setProperty("forkNumber", "3");
+		Assertions.assertEquals(3, TestForkTenancy.getRedisDatabase());
+		System.setProperty("forkNumber", TestForkTenancy.REDIS_DATABASES.toString());
+		Assertions.assertEquals(0, TestForkTenancy.getRedisDatabase());
+		System.setProperty("forkNumber", Integer.toString(TestForkTenancy.REDIS_DATABASES + 1));
+		Assertions.assertThrows(IllegalStateException.class, TestForkTenancy::getRedisDatabase);
+		System.clearProperty(TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY);
+		Assertions.assertEquals(0, TestForkTenancy.getRedisDatabase());
+	}
+
+	/**
+	 * Tests the JMS destinations get the fork address prefix.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testJmsDestinationPrefix() throws Exception {
+		System.setProperty(TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY, "true");
+		System.setProperty("forkNumber", "3");
+		Assertions.assertEquals("fork3.", TestForkTenancy.getArtemisAddressPrefix());
+		final TestJmsDestinationResolver resolver = new TestJmsDestinationResolver();
+		Assertions.assertEquals("fork3.queue", resolver.getDestinationName("queue"));
+		Assertions.assertEquals("fork3.queue", resolver.getDestinationName("fork3.queue"));
+		final Session session = Mockito.mock(Session.class);
+		final Queue queue = Mockito.mock(Queue.class);
+		Mockito.when(session.createQueue("fork3.queue")).thenReturn(queue);
+		Assertions.assertSame(queue, resolver.resolveDestinationName(session, "queue", false));
+		// Without sharing, the destinations are not prefixed.
+		System.clearProperty(TestForkTenancy.SHARED_ACROSS_FORKS_PROPERTY);
+		Assertions.assertEquals("queue", new TestJmsDestinationResolver(new DynamicDestinationResolver(), TestForkTenancy.getArtemisAddressPrefix())
+				.getDestinationName("queue"));
+	}
+
+}
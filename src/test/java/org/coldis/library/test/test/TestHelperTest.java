@@ -4,11 +4,19 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.coldis.library.exception.BusinessException;
 import org.coldis.library.exception.IntegrationException;
 import org.coldis.library.helper.DateTimeHelper;
 import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.WaitBackoff;
+import org.coldis.library.test.WaitSignal;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -113,6 +121,58 @@ public class TestHelperTest extends TestHelper {
 		}, TestHelper.REGULAR_WAIT, TestHelper.SHORT_WAIT, IntegrationException.class));
 	}
 
+	/**
+	 * Tests a wake-up signal triggers a verification well before the next
+	 * (long) backoff delay.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testWaitUntilValidWithSignal() throws Exception {
+		final WaitSignal signal = new WaitSignal();
+		final AtomicBoolean valid = new AtomicBoolean(false);
+		final AtomicInteger verifications = new AtomicInteger();
+		final CountDownLatch firstVerified = new CountDownLatch(1);
+		final CountDownLatch validSet = new CountDownLatch(1);
+		final CompletableFuture<Boolean> wait = TestHelper.waitUntilValidAsync(() -> {
+			final Boolean currentValid = valid.get();
+			// Blocks after the first (failed) verification until the state is valid and signalled.
+			if (verifications.incrementAndGet() == 1) {
+				firstVerified.countDown();
+				try {
+					validSet.await(TestHelper.REGULAR_WAIT, TimeUnit.MILLISECONDS);
+				}
+				catch (final InterruptedException exception) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return currentValid;
+		}, Boolean::booleanValue, TestHelper.VERY_LONG_WAIT, WaitBackoff.fixed(TestHelper.VERY_LONG_WAIT), signal);
+		Assertions.assertTrue(firstVerified.await(TestHelper.REGULAR_WAIT, TimeUnit.MILLISECONDS));
+		final Long signalTimestamp = System.currentTimeMillis();
+		valid.set(true);
+		signal.signal();
+		validSet.countDown();
+		Assertions.assertTrue(wait.get());
+		// Makes sure the signal (and not the backoff) woke the wait up.
+		Assertions.assertTrue((System.currentTimeMillis() - signalTimestamp) < TestHelper.REGULAR_WAIT);
+		Assertions.assertEquals(2, verifications.get());
+	}
+
+	/**
+	 * Tests a non ignorable exception on an asynchronous wait.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testWaitUntilValidAsyncFailedWithNonIgnorableExceptions() throws Exception {
+		final CompletableFuture<Boolean> wait = TestHelper.waitUntilValidAsync(() -> true, bool -> {
+			throw new IntegrationException();
+		}, TestHelper.REGULAR_WAIT, WaitBackoff.adaptive(TestHelper.SHORT_WAIT), null, BusinessException.class);
+		final ExecutionException exception = Assertions.assertThrows(ExecutionException.class, wait::get);
+		Assertions.assertInstanceOf(IntegrationException.class, exception.getCause());
+	}
+
 	/**
 	 * Tests creating incomplete objects.
 	 *
@@ -0,0 +1,102 @@
+package org.coldis.library.test.test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.coldis.library.test.TestHistory;
+import org.coldis.library.test.TestHistoryStore;
+import org.coldis.library.test.TestOutcome;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test history store test.
+ */
+public class TestHistoryStoreTest {
+
+	/**
+	 * History file.
+	 */
+	private static Path HISTORY_FILE;
+
+	/**
+	 * Uses a temporary history file.
+	 *
+	 * @throws Exception If the file cannot be created.
+	 */
+	@BeforeAll
+	public static void setUp() throws Exception {
+		TestHistoryStoreTest.HISTORY_FILE = Files.createTempDirectory("test-history").resolve("history.bin");
+		System.setProperty(TestHistoryStore.FILE_PROPERTY, TestHistoryStoreTest.HISTORY_FILE.toString());
+		TestHistoryStore.reload();
+	}
+
+	/**
+	 * Restores the default history file.
+	 */
+	@AfterAll
+	public static void tearDown() {
+		System.clearProperty(TestHistoryStore.FILE_PROPERTY);
+		TestHistoryStore.reload();
+	}
+
+	/**
+	 * Tests recording and reading the history.
+	 */
+	@Test
+	public void testRecordAndRead() {
+		final String stableTest = "org.coldis.Stable#test";
+		final String flakyTest = "org.coldis.Flaky#test";
+		for (int run = 0; run < 4; run++) {
+			TestHistoryStore.record(stableTest, TestOutcome.PASSED, 1, 100L);
+			TestHistoryStore.record(flakyTest, TestOutcome.PASSED, (run % 2) + 1, 300L);
+		}
+		TestHistoryStore.record(flakyTest, TestOutcome.ABORTED, 1, 0L);
+
+		// Reads the history back from the file.
+		TestHistoryStore.reload();
+		final TestHistory stableHistory = TestHistoryStore.getHistory(stableTest);
+		final TestHistory flakyHistory = TestHistoryStore.getHistory(flakyTest);
+		Assertions.assertEquals(4, stableHistory.getRuns());
+		Assertions.assertEquals(100L, stableHistory.getAverageDuration());
+		Assertions.assertFalse(stableHistory.isFlaky());
+		Assertions.assertEquals(4, flakyHistory.getRuns());
+		Assertions.assertEquals(2, flakyHistory.getFlakyRuns());
+		Assertions.assertTrue(flakyHistory.isFlaky());
+		Assertions.assertEquals(1, TestHistoryStore.getQuarantineCandidates().size());
+		Assertions.assertEquals(flakyTest, TestHistoryStore.getQuarantineCandidates().get(0).getTestId());
+
+	}
+
+	/**
+	 * Tests records written while the file is compacted are kept.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testRecordWhileCompacting() throws Exception {
+		System.setProperty(TestHistoryStore.MAX_FILE_SIZE_PROPERTY, "64");
+		try {
+			final CompletableFuture<Void> records = CompletableFuture.runAsync(() -> IntStream.range(0, 200)
+					.forEach(record -> TestHistoryStore.record("org.coldis.Compacted#test" + record, TestOutcome.PASSED, 1, 10L)));
+			// Compacts the file repeatedly meanwhile.
+			while (!records.isDone()) {
+				TestHistoryStore.reload();
+				TestHistoryStore.getHistory();
+			}
+			records.get();
+		}
+		finally {
+			System.clearProperty(TestHistoryStore.MAX_FILE_SIZE_PROPERTY);
+		}
+		TestHistoryStore.reload();
+		Assertions.assertEquals(200,
+				TestHistoryStore.getHistory().keySet().stream().filter(testId -> testId.startsWith("org.coldis.Compacted#")).count());
+		Assertions.assertTrue(Files.exists(TestHistoryStoreTest.HISTORY_FILE.resolveSibling(TestHistoryStoreTest.HISTORY_FILE.getFileName() + ".lock")));
+	}
+
+}
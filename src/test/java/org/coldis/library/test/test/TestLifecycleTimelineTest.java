@@ -0,0 +1,130 @@
+package org.coldis.library.test.test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.coldis.library.test.TestLifecycleContextInitializer;
+import org.coldis.library.test.TestLifecycleSpan;
+import org.coldis.library.test.TestLifecycleTimeline;
+import org.coldis.library.test.TestLifecycleTimelineMerger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test lifecycle timeline test.
+ */
+public class TestLifecycleTimelineTest {
+
+	/**
+	 * Enables the timeline.
+	 */
+	@BeforeAll
+	public static void setUp() {
+		System.setProperty(TestLifecycleTimeline.ENABLED_PROPERTY, "true");
+	}
+
+	/**
+	 * Disables the timeline.
+	 */
+	@AfterAll
+	public static void tearDown() {
+		System.clearProperty(TestLifecycleTimeline.ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Gets the recorded span for a phase and subject.
+	 *
+	 * @param  phase   Phase.
+	 * @param  subject Subject.
+	 * @return         The span (or null if not recorded).
+	 */
+	private static TestLifecycleSpan getSpan(
+			final String phase,
+			final String subject) {
+		return TestLifecycleTimeline.getSpans().stream().filter(span -> phase.equals(span.getPhase()) && subject.equals(span.getSubject())).findFirst()
+				.orElse(null);
+	}
+
+	/**
+	 * Tests merging the fork timelines.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testMerge() throws Exception {
+		final Path directory = Files.createTempDirectory("test-timeline");
+		final ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.writeValue(directory.resolve("fork-1.json").toFile(),
+				Map.of("fork", 1, "spans", List.of(Map.of("phase", "test", "subject", "a", "start", 1000, "duration", 100),
+						Map.of("phase", "test", "subject", "b", "start", 1100, "duration", 200),
+						Map.of("phase", "container-ready", "subject", "c", "start", 1000, "duration", 50))));
+		objectMapper.writeValue(directory.resolve("fork-2.json").toFile(),
+				Map.of("fork", 2, "spans", List.of(Map.of("phase", "test", "subject", "d", "start", 1000, "duration", 500))));
+		Files.writeString(directory.resolve("other.json"), "{}");
+		final JsonNode summary = objectMapper.valueToTree(TestLifecycleTimelineMerger.merge(directory));
+		// Sums the phases and gets the wall time of each fork.
+		Assertions.assertEquals(300L, summary.path("forks").path("1").path("wallTime").asLong());
+		Assertions.assertEquals(300L, summary.path("forks").path("1").path("phases").path("test").asLong());
+		Assertions.assertEquals(50L, summary.path("forks").path("1").path("phases").path("container-ready").asLong());
+		Assertions.assertEquals(500L, summary.path("forks").path("2").path("wallTime").asLong());
+		Assertions.assertEquals(2, summary.path("forks").size());
+		// The critical path is the slowest fork.
+		Assertions.assertEquals("2", summary.path("criticalPath").path("fork").asText());
+		Assertions.assertEquals(500L, summary.path("criticalPath").path("wallTime").asLong());
+		Assertions.assertEquals("d", summary.path("criticalPath").path("longestSpans").get(0).path("subject").asText());
+	}
+
+	/**
+	 * Tests a container start is timed as create, start and ready spans.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testContainerStartSpans() throws Exception {
+		final String name = "TIMED_CONTAINER_" + System.nanoTime();
+		TestLifecycleTimeline.timeContainerStart(name, new GenericContainer<>("coldis/not-started:0"), () -> {
+			Thread.sleep(20);
+			try (TestLifecycleSpan span = TestLifecycleTimeline.startContainerReady("other")) {
+				Thread.sleep(20);
+			}
+			return null;
+		});
+		final TestLifecycleSpan create = TestLifecycleTimelineTest.getSpan(TestLifecycleTimeline.CONTAINER_CREATE, name);
+		final TestLifecycleSpan start = TestLifecycleTimelineTest.getSpan(TestLifecycleTimeline.CONTAINER_START, name);
+		final TestLifecycleSpan ready = TestLifecycleTimelineTest.getSpan(TestLifecycleTimeline.CONTAINER_READY, name);
+		Assertions.assertNotNull(create);
+		Assertions.assertNotNull(start);
+		Assertions.assertNotNull(ready);
+		// The phases follow each other (the container never ran, so it has no start time).
+		Assertions.assertTrue(create.getDuration() >= 20);
+		Assertions.assertEquals(0L, start.getDuration());
+		Assertions.assertEquals(create.getEnd(), start.getStart());
+		Assertions.assertTrue(ready.getStart() >= create.getStart());
+		Assertions.assertTrue(ready.getDuration() >= 20);
+	}
+
+	/**
+	 * Tests the context refresh span ends if the context fails to load.
+	 */
+	@Test
+	public void testContextRefreshSpanEndedOnFailure() {
+		final TestLifecycleContextInitializer initializer = new TestLifecycleContextInitializer();
+		try (GenericApplicationContext applicationContext = new GenericApplicationContext()) {
+			applicationContext.setId("failing-context-" + System.nanoTime());
+			initializer.initialize(applicationContext);
+			Assertions.assertNull(TestLifecycleTimelineTest.getSpan(TestLifecycleTimeline.CONTEXT_REFRESH, applicationContext.getId()));
+			initializer.processLoadFailure(applicationContext, new IllegalStateException("Fake context failure."));
+			Assertions.assertNotNull(TestLifecycleTimelineTest.getSpan(TestLifecycleTimeline.CONTEXT_REFRESH, applicationContext.getId()));
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.TestContainerKind;
+import org.coldis.library.test.TestHelper;
+import org.coldis.library.test.TestResourceBudget;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test resource budget test.
+ */
+public class TestResourceBudgetTest {
+
+	/**
+	 * Original fork count.
+	 */
+	private String originalForkCount;
+
+	/**
+	 * Saves the fork count passed by the build.
+	 */
+	@BeforeEach
+	public void saveProperties() {
+		this.originalForkCount = System.getProperty("project.config.source.test.fork-count");
+	}
+
+	/**
+	 * Clears the budget properties.
+	 */
+	@AfterEach
+	public void clearProperties() {
+		System.clearProperty(TestResourceBudget.ENABLED_PROPERTY);
+		if (this.originalForkCount == null) {
+			System.clearProperty("project.config.source.test.fork-count");
+		}
+		else {
+			System.setProperty("project.config.source.test.fork-count", this.originalForkCount);
+		}
+	}
+
+	/**
+	 * Tests splitting the host resources across forks and containers.
+	 */
+	@Test
+	public void testSplitHostResources() {
+		System.setProperty(TestResourceBudget.ENABLED_PROPERTY, "true");
+		System.setProperty("project.config.source.test.fork-count", "2");
+		final Double totalShare = TestResourceBudget.getShare(TestContainerKind.POSTGRES) + TestResourceBudget.getShare(TestContainerKind.ARTEMIS)
+				+ TestResourceBudget.getShare(TestContainerKind.REDIS);
+		// Each fork gets its part of the host fraction.
+		Assertions.assertEquals(TestResourceBudget.getHostFraction() / 2, totalShare, 0.0001D);
+		// Heavier containers get more resources.
+		Assertions.assertTrue(
+				TestHelper.getMemoryQuota(TestContainerKind.POSTGRES) >= TestHelper.getMemoryQuota(TestContainerKind.REDIS));
+		Assertions.assertTrue(TestHelper.getCpuQuota(TestContainerKind.REDIS) >= 1);
+		Assertions.assertTrue(TestHelper.getMemoryQuota(TestContainerKind.REDIS) <= TestResourceBudget.getHostMemory());
+	}
+
+	/**
+	 * Tests parsing the fork count (absolute and per core).
+	 */
+	@Test
+	public void testForkCount() {
+		System.setProperty("project.config.source.test.fork-count", "3");
+		Assertions.assertEquals(3, TestHelper.getTestForkCount());
+		System.setProperty("project.config.source.test.fork-count", "1C");
+		Assertions.assertEquals(Runtime.getRuntime().availableProcessors(), TestHelper.getTestForkCount());
+		System.setProperty("project.config.source.test.fork-count", "0.5C");
+		Assertions.assertEquals(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), TestHelper.getTestForkCount());
+		System.setProperty("project.config.source.test.fork-count", "0");
+		Assertions.assertEquals(1, TestHelper.getTestForkCount());
+	}
+
+	/**
+	 * Tests the disk quota has its own minimum.
+	 */
+	@Test
+	public void testMinimumDisk() {
+		System.setProperty(TestResourceBudget.ENABLED_PROPERTY, "true");
+		Assertions.assertTrue(TestHelper.getDiskQuota(TestContainerKind.REDIS) >= TestResourceBudget.MINIMUM_DISK);
+	}
+
+}
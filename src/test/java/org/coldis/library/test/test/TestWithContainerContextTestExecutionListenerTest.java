@@ -0,0 +1,56 @@
+package org.coldis.library.test.test;
+
+import org.coldis.library.test.TestContainerRegistry;
+import org.coldis.library.test.TestWithContainer;
+import org.coldis.library.test.TestWithContainerContextTestExecutionListener;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
+import org.springframework.test.context.TestContext;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Test with container context listener test.
+ */
+public class TestWithContainerContextTestExecutionListenerTest {
+
+	/**
+	 * Class with a cached context.
+	 */
+	@TestWithContainer(
+			reuse = true,
+			cacheContext = true
+	)
+	public static class CachedContextClass {
+
+		/**
+		 * Container (always running).
+		 */
+		public static GenericContainer<?> CACHED_CONTEXT_CONTAINER = Mockito.mock(GenericContainer.class);
+
+	}
+
+	/**
+	 * Tests a cached context is only evicted once its container actually stops.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testEvictCachedContextOnContainerStop() throws Exception {
+		Mockito.when(CachedContextClass.CACHED_CONTEXT_CONTAINER.isRunning()).thenReturn(true);
+		final TestContext testContext = Mockito.mock(TestContext.class);
+		Mockito.doReturn(CachedContextClass.class).when(testContext).getTestClass();
+		Mockito.when(testContext.getApplicationContext()).thenReturn(new GenericApplicationContext());
+
+		// The context is kept cached after the class.
+		new TestWithContainerContextTestExecutionListener().afterTestClass(testContext);
+		Mockito.verify(testContext, Mockito.never()).markApplicationContextDirty(Mockito.any());
+
+		// And evicted (once) when the container stops.
+		TestContainerRegistry.getRegistration(CachedContextClass.CACHED_CONTEXT_CONTAINER).stopIfUnused(() -> {});
+		TestContainerRegistry.getRegistration(CachedContextClass.CACHED_CONTEXT_CONTAINER).stopIfUnused(() -> {});
+		Mockito.verify(testContext, Mockito.times(1)).markApplicationContextDirty(HierarchyMode.EXHAUSTIVE);
+	}
+
+}